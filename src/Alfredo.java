@@ -5,41 +5,24 @@
  * As it is a child of <code>Base</code> and <code>Ingredient</code>, it
  * does not have any methods other than constructors.
  * 
- * All characteristics are pre-defined as private static class constants to
- * be used in construction.
+ * Its cost, calorie count, and description are listed under
+ * <code>"Alfredo"</code> in the <code>IngredientCatalog</code>.
  * 
  * @author Trystan Cannon
  */
 public final class Alfredo extends Base {
     
     /**
-     * The static cost of <code>Alfredo</code> objects.
+     * The ID of the <code>Alfredo</code> kind in the catalog.
      */
-    private static final Money COST = new Money(3, 0);
+    private static final int TYPE_ID = IngredientCatalog.parse("Alfredo");
     
     /**
-     * The static calorie count of <code>Alfredo</code> objects.
-     */
-    private static final int CALORIE_COUNT = 322;
-    
-    /**
-     * The static description of <code>Alfredo</code> objects' physical
-     * characteristics.
-     */
-    private static final String DESCRIPTION =
-            "Alfredo sauce is melted Parmesan cheese that has " +
-            "emulsified butter to form a smooth and rich substance.";
-    
-    /**
-     * Constructs an <code>Alfredo</code> object with the pre-defined
-     * class constant characteristics.
-     * 
-     * @see COST
-     * @see CALORIE_COUNT
-     * @see DESCRIPTION
+     * Constructs an <code>Alfredo</code> object with the characteristics
+     * listed in the catalog.
      */
     public Alfredo() {
-        super(COST.clone(), CALORIE_COUNT, DESCRIPTION);
+        super(TYPE_ID);
     }
     
 }
@@ -0,0 +1,135 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class chooses indexes at random, each as often as its weight
+ * relative to the others, in O(1) per choice however many there are, by
+ * Walker's alias method (as built by Vose).
+ *
+ * The weights are spread over <code>n</code> equal columns, each holding
+ * part of one index's weight topped up with part of at most one other
+ * index's, its alias. A choice is then one uniformly random column and one
+ * coin flip between the column's own index and its alias.
+ *
+ * A sampler never changes once built, so it may be shared between threads.
+ *
+ * @author Trystan Cannon
+ */
+public final class AliasSampler {
+
+    /**
+     * The chance, in each column, of choosing the column's own index
+     * rather than its alias.
+     */
+    private final double[] probabilities;
+
+    /**
+     * The index chosen in each column when its own is not.
+     */
+    private final int[] aliases;
+
+    /**
+     * Builds a sampler of the given weights, in O(n).
+     *
+     * Given no weights, a weight which is negative or not finite, or
+     * weights which are all zero, a <code>PizzaException</code> is thrown
+     * detailing the error.
+     *
+     * @param weights The weight of each index.
+     */
+    public AliasSampler(double[] weights) {
+        int    count = weights.length;
+        double total = 0;
+
+        for(double weight : weights) {
+            if(!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new PizzaException("Cannot sample by a weight of " +
+                                         weight + ".");
+            }
+
+            total += weight;
+        }
+
+        if(count == 0 || total == 0) {
+            throw new PizzaException("Cannot sample without a positive " +
+                                     "weight.");
+        }
+
+        probabilities = new double[count];
+        aliases       = new int[count];
+
+        // Scale so that the mean weight is one, then pair each column short
+        // of one with a column over one to top it up.
+        double[] scaled = new double[count];
+        int[]    small  = new int[count];
+        int[]    large  = new int[count];
+        int      smalls = 0;
+        int      larges = 0;
+
+        for(int index = 0; index < count; index++) {
+            scaled[index] = weights[index] * count / total;
+
+            if(scaled[index] < 1) {
+                small[smalls++] = index;
+            } else {
+                large[larges++] = index;
+            }
+        }
+
+        while(smalls > 0 && larges > 0) {
+            int less = small[--smalls];
+            int more = large[--larges];
+
+            probabilities[less] = scaled[less];
+            aliases[less]       = more;
+            scaled[more]        = scaled[more] + scaled[less] - 1;
+
+            if(scaled[more] < 1) {
+                small[smalls++] = more;
+            } else {
+                large[larges++] = more;
+            }
+        }
+
+        // Whatever is left is one, give or take rounding.
+        while(larges > 0) {
+            probabilities[large[--larges]] = 1;
+        }
+
+        while(smalls > 0) {
+            probabilities[small[--smalls]] = 1;
+        }
+    }
+
+    /**
+     * @return The number of indexes chosen from.
+     */
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * Chooses an index with the random numbers of the current thread.
+     *
+     * @return An index, from zero to <code>size() - 1</code>.
+     */
+    public int sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Chooses an index with the given source of random numbers, so that a
+     * seeded source gives the same choices every time.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return An index, from zero to <code>size() - 1</code>.
+     */
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(probabilities.length);
+
+        return random.nextDouble() < probabilities[column] ? column :
+                                                             aliases[column];
+    }
+
+}
@@ -0,0 +1,239 @@
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * This class guards the allocation behaviour of the simulator's hot paths
+ * by measuring the bytes each one allocates per call and comparing them
+ * against a baseline kept in the repository.
+ *
+ * Each path is warmed up until the JIT compiler has settled on it, then
+ * called a fixed number of times while reading the thread's allocation
+ * counter through <code>MicroBenchmark.allocatedBytes</code>. A path fails
+ * the gate if it allocates more than its baseline by over
+ * <code>TOLERANCE</code> and <code>SLACK_BYTES</code> together; the slack
+ * keeps a path with a baseline of zero from failing on a stray byte of
+ * counter noise while still catching any real allocation.
+ *
+ * Run from the root of the repository with <code>java -cp out
+ * AllocationGate</code>; the exit status is non-zero if any path regressed,
+ * so the gate may end a local test script. Passing <code>--update</code>
+ * rewrites the baseline with the numbers just measured instead, which
+ * should only be done deliberately, alongside the change that explains
+ * them.
+ *
+ * @author Trystan Cannon
+ */
+public class AllocationGate {
+
+    /**
+     * The file holding the baseline, relative to the root of the
+     * repository.
+     */
+    public static final String DEFAULT_BASELINE =
+            "benchmarks/allocation-baseline.properties";
+
+    /**
+     * The fraction by which a path may exceed its baseline.
+     */
+    public static final double TOLERANCE = 0.10;
+
+    /**
+     * The number of bytes per call by which a path may exceed its baseline
+     * on top of <code>TOLERANCE</code>.
+     */
+    public static final double SLACK_BYTES = 4;
+
+    /**
+     * The number of calls made to warm each path up.
+     */
+    private static final int WARMUP_CALLS = 200_000;
+
+    /**
+     * The number of calls over which each path is measured.
+     */
+    private static final int MEASURED_CALLS = 100_000;
+
+    /**
+     * Where the result of every call is written, so that no call is
+     * removed as dead code.
+     */
+    private static volatile Object sink;
+
+    /**
+     * Measures every path and either checks it against the baseline or,
+     * given <code>--update</code>, writes a new baseline.
+     *
+     * @param args Optionally <code>--update</code>, then optionally the
+     *             baseline file to use.
+     *
+     * @throws IOException If the baseline cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean update   = args.length > 0 && args[0].equals("--update");
+        int     fileArg  = update ? 1 : 0;
+        String  baseline = args.length > fileArg ? args[fileArg] :
+                                                   DEFAULT_BASELINE;
+
+        if(MicroBenchmark.allocatedBytes() < 0) {
+            System.out.println("This JVM cannot count allocated bytes; " +
+                               "skipping the allocation gate.");
+            return;
+        }
+
+        Properties measured = measureAll();
+
+        if(update) {
+            writeBaseline(baseline, measured);
+            System.out.println("Wrote " + measured.size() + " baselines to " +
+                               baseline + ".");
+            return;
+        }
+
+        Properties expected = new Properties();
+
+        try(Reader input = new FileReader(baseline)) {
+            expected.load(input);
+        }
+
+        int failures = 0;
+
+        for(String path : new TreeSet<>(measured.stringPropertyNames())) {
+            double bytes = Double.parseDouble(measured.getProperty(path));
+            String known = expected.getProperty(path);
+
+            if(known == null) {
+                System.out.printf("%-24s %10.1f B/op  (no baseline)%n", path,
+                                  bytes);
+                continue;
+            }
+
+            double allowed = Double.parseDouble(known) * (1 + TOLERANCE) +
+                             SLACK_BYTES;
+            boolean passed = bytes <= allowed;
+
+            System.out.printf("%-24s %10.1f B/op  baseline %10s  %s%n", path,
+                              bytes, known, passed ? "ok" : "REGRESSED");
+
+            if(!passed) {
+                failures++;
+            }
+        }
+
+        if(failures > 0) {
+            System.out.println(failures + " path(s) allocate more than " +
+                               "their baseline.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Measures the bytes per call allocated by every guarded path.
+     *
+     * @return The bytes per call of each path, keyed by its name.
+     */
+    private static Properties measureAll() {
+        Pizza    pizza  = standardPizza();
+        Fraction sixths = new Fraction(4, 6);
+        Fraction half   = new Fraction(1, 2);
+        Money    total  = new Money(0, 0);
+        Money    price  = new Money(3, 75);
+        Fraction bite   = new Fraction(1, 1000);
+        int[]    bites  = new int[1];
+
+        Properties measured = new Properties();
+
+        measure(measured, "pizza.getCost", pizza::getCost);
+        measure(measured, "pizza.toString", pizza::toString);
+        measure(measured, "pizza.getRemainingArea", () ->
+                // Avoid boxing the double, which would be counted.
+                pizza.getRemainingArea() > 0 ? pizza : null);
+        measure(measured, "pizza.eatSomePizza", () -> {
+            // Stop just short of zero, where eating throws.
+            if(++bites[0] == 1000) {
+                pizza.setRemaining(new Fraction(1, 1));
+                bites[0] = 1;
+            }
+
+            pizza.eatSomePizza(bite);
+            return pizza;
+        });
+        measure(measured, "fraction.reduce", sixths::reduce);
+        measure(measured, "fraction.compareTo", () -> sixths.compareTo(half));
+        measure(measured, "money.add", () -> {
+            total.add(price);
+            return total;
+        });
+        measure(measured, "money.compareTo", () -> total.compareTo(price));
+
+        return measured;
+    }
+
+    /**
+     * Builds the pizza on which the pizza paths are measured: a circle of
+     * the default radius with one of each of the eight ingredients, so that
+     * its allocations are the same on every run, unlike those of a random
+     * pizza.
+     *
+     * @return A new pizza which is always made the same way.
+     */
+    private static Pizza standardPizza() {
+        Pizza pizza = new Pizza(new Circle(0, 0,
+                                           Pizza.DEFAULT_RANDOM_CIRCLE_RADIUS));
+
+        pizza.addIngredient(new Alfredo());
+        pizza.addIngredient(new Goat());
+        pizza.addIngredient(new Marinara());
+        pizza.addIngredient(new Mozzarella());
+        pizza.addIngredient(new Olive());
+        pizza.addIngredient(new Pepper());
+        pizza.addIngredient(new Pepperoni());
+        pizza.addIngredient(new Sausage());
+
+        return pizza;
+    }
+
+    /**
+     * Warms up and measures a single path, recording its bytes per call.
+     */
+    private static void measure(Properties measured, String path,
+                                MicroBenchmark.Operation operation) {
+        for(int call = 0; call < WARMUP_CALLS; call++) {
+            sink = operation.run();
+        }
+
+        long before = MicroBenchmark.allocatedBytes();
+
+        for(int call = 0; call < MEASURED_CALLS; call++) {
+            sink = operation.run();
+        }
+
+        long   after = MicroBenchmark.allocatedBytes();
+        double bytes = (double) (after - before) / MEASURED_CALLS;
+
+        measured.setProperty(path, String.format(Locale.ROOT, "%.1f", bytes));
+    }
+
+    /**
+     * Writes the given measurements as the new baseline, one path per line
+     * in name order.
+     */
+    private static void writeBaseline(String file, Properties measured)
+            throws IOException {
+        try(Writer output = new FileWriter(file)) {
+            output.write("# Bytes allocated per call of each hot path, as " +
+                         "measured by AllocationGate.\n# Regenerate with " +
+                         "java -cp out AllocationGate --update\n");
+
+            for(String path : new TreeSet<>(measured.stringPropertyNames())) {
+                output.write(path + "=" + measured.getProperty(path) + "\n");
+            }
+        }
+    }
+
+}
@@ -55,6 +55,11 @@ public class ArrayList<T> {
      * to repeats, this will likely take more time but equal or less space,
      * seeing as it will expand by a smaller margin, fitting the number of
      * unique fractions with less unused allocated space.
+     *
+     * However, growing by a fixed amount makes adding n elements cost O(n^2)
+     * in copying, which made lists of a million pizzas impractical to build.
+     * The list therefore grows by its current length (doubling) once that is
+     * larger than this value, so adding is O(1) amortized.
      */
     private static final int DEFAULT_GROWTH_SIZE = 10;
 
@@ -85,7 +90,7 @@ public class ArrayList<T> {
      * The array that houses all of the objects stored in this
      * <code>ArrayList</code>.
      */
-    private Object[] list = new Object[DEFAULT_ARRAY_SIZE];
+    private Object[] list;
     
     /**
      * The current total number of elements in the <code>ArrayList</code>.
@@ -97,6 +102,25 @@ public class ArrayList<T> {
      */
     private int numElements = 0;
 
+    /**
+     * Constructs an empty <code>ArrayList</code> with room for
+     * <code>DEFAULT_ARRAY_SIZE</code> objects.
+     */
+    public ArrayList() {
+        this(DEFAULT_ARRAY_SIZE);
+    }
+
+    /**
+     * Constructs an empty <code>ArrayList</code> with room for the given
+     * number of objects, which a subclass keeping its elements elsewhere,
+     * such as <code>ChunkedArrayList</code>, gives as zero.
+     *
+     * @param capacity The starting length of the <code>list</code> array.
+     */
+    protected ArrayList(int capacity) {
+        list = new Object[capacity];
+    }
+
     /**
      * Sets the object at the given index to the given object, returning the
      * object currently at its place.
@@ -143,7 +167,7 @@ public class ArrayList<T> {
 
         numElements++;
         if (numElements >= list.length) {
-            resize(DEFAULT_GROWTH_SIZE);
+            resize(Math.max(DEFAULT_GROWTH_SIZE, list.length));
         }
 
         // Move all current elements after the index given down 1 place.
@@ -234,6 +258,16 @@ public class ArrayList<T> {
         return numElements;
     }
 
+    /**
+     * Returns the number of elements the ArrayList can hold before its array
+     * must grow.
+     * 
+     * @return The length of this <code>ArrayList</code>'s array.
+     */
+    public int capacity() {
+        return list.length;
+    }
+
     /**
      * Checks if the ArrayList is empty simply by checking if the number
      * of elements in the list is zero.
@@ -265,12 +299,14 @@ public class ArrayList<T> {
 
         ArrayList that = (ArrayList) other;
 
-        if (this.numElements != that.numElements) {
+        // Compare through size and get, so that subclasses keeping their
+        // elements elsewhere compare the same.
+        if (this.size() != that.size()) {
             return false;
         }
 
-        for (int index = 0; index < this.numElements; index++) {
-            if (!this.list[index].equals(that.list[index])) {
+        for (int index = 0; index < this.size(); index++) {
+            if (!this.get(index).equals(that.get(index))) {
                 return false;
             }
         }
@@ -309,7 +345,8 @@ public class ArrayList<T> {
      * will require to resize the array.
      *
      * It is recommended to use a smaller growth value in most cases to reduce
-     * the amount of unused space and therefore wasted time/space resizing.
+     * the amount of unused space, but a growth proportional to the length of
+     * the array is what keeps repeated resizing cheap for large lists.
      *
      * @see DEFAULT_GROWTH_SIZE
      *
@@ -322,9 +359,7 @@ public class ArrayList<T> {
     private void resize(int growth) {
         Object[] newArray = new Object[list.length + growth];
 
-        for (int index = 0; index < list.length; index++) {
-            newArray[index] = list[index];
-        }
+        System.arraycopy(list, 0, newArray, 0, list.length);
 
         list = newArray;
     }
@@ -11,21 +11,16 @@
 public abstract class Base extends Ingredient {
     
     /**
-     * Constructs a new <code>Base</code> object with the given
-     * cost, calorie count, and description.
+     * Constructs a base of the kind with the given ID, whose
+     * characteristics are read from the <code>IngredientCatalog</code>.
      * 
-     * It is preferred that this constructor go unused, because each
-     * child should have its own static set of these characteristics
-     * which are used when constructing a new instance.
+     * Given an ID of no kind, or of a kind which is not a base, a
+     * <code>PizzaException</code> is thrown detailing the error.
      * 
-     * @param cost The desired cost of the new instance of this base.
-     * @param calorieCount The desired calorie count of the new instance
-     *                     of this base.
-     * @param description The short description of this instance of the
-     *                    base's physical characteristics.
+     * @param typeId The ID of the kind of base.
      */
-    public Base(Money cost, int calorieCount, String description) {
-        super(cost, calorieCount, description);
+    protected Base(int typeId) {
+        super(typeId, IngredientCategory.BASE);
     }
     
 }
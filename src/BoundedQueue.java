@@ -0,0 +1,210 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class implements a bounded first-in, first-out queue which any
+ * number of threads may add to and take from at once without locking.
+ *
+ * The queue is a ring of slots, each with its own sequence number, after
+ * Dmitry Vyukov's bounded multi-producer, multi-consumer queue. A thread
+ * claims a slot by advancing the head or tail with a compare-and-set, and
+ * the slot's sequence number tells it whether the slot is ready for it, so
+ * producers and consumers only ever contend with each other on a single
+ * counter.
+ *
+ * Unlike a blocking queue, <code>offer</code> and <code>poll</code> never
+ * wait: a full queue refuses new items and an empty queue returns
+ * <code>null</code>. It is left to the caller to decide how to wait, which
+ * is how <code>KitchenPipeline</code> applies backpressure.
+ *
+ * The capacity is always rounded up to a power of two so that slots may be
+ * found with a mask instead of a remainder.
+ *
+ * @author Trystan Cannon
+ */
+public class BoundedQueue<T> {
+
+    /**
+     * The items held in each slot of the ring.
+     */
+    private final AtomicReferenceArray<T> items;
+
+    /**
+     * The sequence number of each slot of the ring. A slot whose sequence
+     * equals the tail position is free to be filled, and a slot whose
+     * sequence is one past the head position is ready to be taken.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The mask used to turn a position into the index of its slot.
+     */
+    private final int mask;
+
+    /**
+     * The position from which the next item will be taken.
+     */
+    private final AtomicLong head = new AtomicLong(0);
+
+    /**
+     * The position at which the next item will be added.
+     */
+    private final AtomicLong tail = new AtomicLong(0);
+
+    /**
+     * Constructs an empty queue holding at least the given number of items.
+     *
+     * Given a capacity less than one or greater than <code>2^30</code>, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param capacity The least number of items the queue should hold.
+     */
+    public BoundedQueue(int capacity) {
+        if(capacity < 1 || capacity > (1 << 30)) {
+            throw new PizzaException("Cannot create a queue with a capacity " +
+                                     "of " + capacity + ".");
+        }
+
+        int slots = Integer.highestOneBit(capacity);
+
+        if(slots < capacity) {
+            slots <<= 1;
+        }
+
+        items     = new AtomicReferenceArray<>(slots);
+        sequences = new AtomicLongArray(slots);
+        mask      = slots - 1;
+
+        for(int index = 0; index < slots; index++) {
+            sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Adds the given item to the back of the queue if there is room.
+     *
+     * Given a <code>null</code> item, a <code>PizzaException</code> is thrown
+     * detailing the error, as <code>null</code> marks an empty queue.
+     *
+     * @param item The item to add.
+     *
+     * @return <code>true</code> if the item was added; <code>false</code> if
+     *         the queue is full.
+     */
+    public boolean offer(T item) {
+        if(item == null) {
+            throw new PizzaException("Cannot add null to a queue.");
+        }
+
+        long position = tail.get();
+        int  index;
+
+        while(true) {
+            index = (int) position & mask;
+
+            long difference = sequences.get(index) - position;
+
+            if(difference == 0) {
+                if(tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+
+                position = tail.get();
+            } else if(difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        items.set(index, item);
+        sequences.set(index, position + 1);
+
+        return true;
+    }
+
+    /**
+     * Removes and returns the item at the front of the queue.
+     *
+     * @return The item at the front of the queue, or <code>null</code> if
+     *         the queue is empty.
+     */
+    public T poll() {
+        long position = head.get();
+        int  index;
+
+        while(true) {
+            index = (int) position & mask;
+
+            long difference = sequences.get(index) - (position + 1);
+
+            if(difference == 0) {
+                if(head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+
+                position = head.get();
+            } else if(difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+
+        T item = items.get(index);
+
+        items.set(index, null);
+        sequences.set(index, position + mask + 1);
+
+        return item;
+    }
+
+    /**
+     * Removes up to <code>batch.length</code> items from the front of the
+     * queue, placing them at the start of the given array in order.
+     *
+     * @param batch The array into which to place the items removed.
+     *
+     * @return The number of items removed, which is zero if the queue is
+     *         empty.
+     */
+    public int drainTo(T[] batch) {
+        int count = 0;
+
+        while(count < batch.length) {
+            T item = poll();
+
+            if(item == null) {
+                break;
+            }
+
+            batch[count++] = item;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of items in the queue.
+     *
+     * Because other threads may be adding and taking items, this value is
+     * only an estimate, but it is never negative or more than the
+     * capacity.
+     *
+     * @return The approximate number of items in the queue.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * @return The greatest number of items the queue can hold.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+}
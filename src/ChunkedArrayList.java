@@ -0,0 +1,350 @@
+import java.util.Arrays;
+
+/**
+ * This class is an <code>ArrayList</code> which keeps its elements in
+ * chunks of <code>CHUNK_SIZE</code>, so that <code>snapshot</code> can copy
+ * it in O(1) by sharing the chunks rather than copying every element.
+ *
+ * A snapshot is itself a list, holding the elements as they were when it
+ * was taken. The list and its snapshots share their chunks until one of
+ * them changes; a change then copies the directory of chunks and only the
+ * chunks it writes to (copy-on-write), leaving the shared ones untouched.
+ * Adding to the end after a snapshot thus copies one chunk and the
+ * directory, n / <code>CHUNK_SIZE</code> references, rather than n.
+ * Inserting or removing in the middle still shifts, and so copies, every
+ * chunk after the index, as the shift already costs O(n).
+ *
+ * Because a shared chunk is never written again, a snapshot may be read by
+ * other threads, such as to display or draw the pizzas, while the thread
+ * owning the list carries on changing it, with neither waiting on the
+ * other. The snapshot must be handed to the other thread as any object is,
+ * such as through an <code>ExecutorService</code>. As with
+ * <code>ArrayList</code>, a list or snapshot is not safe for several
+ * threads to change at once.
+ *
+ * Since it is an <code>ArrayList</code>, a chunked list or a snapshot of
+ * one may be given to anything taking an <code>ArrayList</code>, such as
+ * <code>TopK.select</code>.
+ *
+ * @author Trystan Cannon
+ */
+public class ChunkedArrayList<T> extends ArrayList<T> {
+
+    /**
+     * The number of bits of an index giving its place within a chunk.
+     */
+    private static final int CHUNK_SHIFT = 10;
+
+    /**
+     * The number of elements in each chunk.
+     *
+     * Larger chunks mean a smaller directory to copy after a snapshot, but
+     * more elements to copy with each chunk written to. At 1024, both are
+     * a few kilobytes for a million pizzas.
+     */
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * The bits of an index giving its place within a chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The chunks holding the elements, in order, each allocated only once
+     * an element is put in it.
+     */
+    private Object[][] chunks;
+
+    /**
+     * Whether each chunk belongs to this list alone, and so may be written
+     * to without copying it first.
+     */
+    private boolean[] owned;
+
+    /**
+     * Whether <code>chunks</code> itself is shared with a snapshot, and so
+     * must be copied, along with <code>owned</code> cleared, before any
+     * chunk is written to.
+     */
+    private boolean shared;
+
+    /**
+     * The current total number of elements in the list.
+     */
+    private int numElements;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ChunkedArrayList() {
+        this(new Object[0][], false, 0);
+    }
+
+    /**
+     * Constructs a list of the given chunks.
+     */
+    private ChunkedArrayList(Object[][] chunks, boolean shared,
+                             int numElements) {
+        super(0);
+
+        this.chunks      = chunks;
+        this.owned       = new boolean[chunks.length];
+        this.shared      = shared;
+        this.numElements = numElements;
+    }
+
+    /**
+     * Returns a list of the elements as they are now, in O(1), sharing the
+     * chunks of this list until either list changes.
+     *
+     * @return The snapshot.
+     */
+    public ChunkedArrayList<T> snapshot() {
+        shared = true;
+
+        return new ChunkedArrayList<>(chunks, true, numElements);
+    }
+
+    /**
+     * Sets the object at the given index to the given object, returning the
+     * object currently at its place.
+     *
+     * Given an invalid index, this method throws a <code>Runtime</code>
+     * exception, detailing the error.
+     *
+     * @param object The new object to be set at the given index.
+     * @param index The index at which to set the new object.
+     *
+     * @return The object currently occupying the given index.
+     */
+    @Override
+    public T set(T object, int index) {
+        if(index < 0 || index > numElements) {
+            throw new RuntimeException("Failed to insert " + object + " @ " +
+                                       index);
+        }
+
+        T element = get(index);
+
+        writable(index >> CHUNK_SHIFT)[index & CHUNK_MASK] = object;
+
+        return element;
+    }
+
+    /**
+     * Inserts the given object at the index provided, shifting every later
+     * element one place, chunk by chunk. The object given can be
+     * <code>null</code>.
+     *
+     * Objects cannot be inserted before index 0 or after the size + 1 of the
+     * list.
+     *
+     * @param objectToAdd The object to be inserted into the list.
+     * @param index The index at which the object will be inserted.
+     */
+    @Override
+    public void insert(T objectToAdd, int index) {
+        if(index < 0 || index > numElements) {
+            System.out.println("Failed to insert " + objectToAdd + " @ " +
+                               index);
+            return;
+        }
+
+        if(numElements == chunks.length * CHUNK_SIZE) {
+            unshare();
+
+            int length = Math.max(1, chunks.length * 2);
+
+            chunks = Arrays.copyOf(chunks, length);
+            owned  = Arrays.copyOf(owned, length);
+        }
+
+        int first = index >> CHUNK_SHIFT;
+
+        // Shift each chunk after the index's one place along, starting from
+        // the last, carrying in the last element of the chunk before it.
+        for(int chunk = numElements >> CHUNK_SHIFT; chunk > first; chunk--) {
+            Object[] elements = writable(chunk);
+
+            System.arraycopy(elements, 0, elements, 1,
+                             shifted(chunk, chunk << CHUNK_SHIFT));
+            elements[0] = chunks[chunk - 1][CHUNK_MASK];
+        }
+
+        Object[] elements = writable(first);
+
+        System.arraycopy(elements, index & CHUNK_MASK, elements,
+                         (index & CHUNK_MASK) + 1, shifted(first, index));
+        elements[index & CHUNK_MASK] = objectToAdd;
+        numElements++;
+    }
+
+    /**
+     * Adds the object given to the end of the list.
+     *
+     * @param objectToAdd The object to be inserted at the end of the list.
+     */
+    @Override
+    public void add(T objectToAdd) {
+        insert(objectToAdd, numElements);
+    }
+
+    /**
+     * Removes and returns the object at the given index, shifting every
+     * later element back one place, chunk by chunk. However, if the index
+     * provided is out of bounds, then an exception is thrown.
+     *
+     * @param index The index whose object will be removed and returned.
+     * @return The object at the given index who will be removed and returned.
+     */
+    @Override
+    public T remove(int index) {
+        T   objectToReturn = get(index);
+        int last           = (numElements - 1) >> CHUNK_SHIFT;
+
+        for(int chunk = index >> CHUNK_SHIFT; chunk <= last; chunk++) {
+            Object[] elements = writable(chunk);
+            int      from     = Math.max(index, chunk << CHUNK_SHIFT) &
+                                CHUNK_MASK;
+            int      end      = Math.min(numElements - (chunk << CHUNK_SHIFT),
+                                         CHUNK_SIZE);
+
+            System.arraycopy(elements, from + 1, elements, from,
+                             end - from - 1);
+
+            // Carry in the first element of the next chunk, or forget the
+            // one moved down so it may be collected.
+            elements[end - 1] = chunk < last ? chunks[chunk + 1][0] : null;
+        }
+
+        numElements--;
+
+        return objectToReturn;
+    }
+
+    /**
+     * Returns the object at the index specified. If the index provided is out
+     * of bounds, then an exception is thrown.
+     *
+     * @param index The index of the object in the list to return.
+     * @return The object in the list at the given index.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if(index < 0 || index >= numElements) {
+            throw new IndexOutOfBoundsException(index + " is out of bounds");
+        }
+
+        return (T) chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Finds the index of the earliest element equal to the given object,
+     * comparing with <code>equals</code>.
+     *
+     * @param objectToFind The object whose index is to be found in the list.
+     *
+     * @return The index of the object found, <code>-1</code> if the object is
+     *         not found in the list.
+     */
+    @Override
+    public int indexOf(Object objectToFind) {
+        for(int index = 0; index < numElements; index++) {
+            if(chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK]
+                    .equals(objectToFind)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The current size of this list.
+     */
+    @Override
+    public int size() {
+        return numElements;
+    }
+
+    /**
+     * @return The number of elements the directory of chunks can hold
+     *         before it must grow.
+     */
+    @Override
+    public int capacity() {
+        return chunks.length * CHUNK_SIZE;
+    }
+
+    /**
+     * @return <code>true</code> if the list has a size of 0;
+     *         <code>false</code> if not.
+     */
+    @Override
+    public boolean isEmpty() {
+        return numElements == 0;
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the contents of the
+     * list, as <code>ArrayList</code> does.
+     *
+     * @return The contents of the list, each followed by <code>", "</code>.
+     */
+    @Override
+    public String toString() {
+        StringBuilder retVal = new StringBuilder();
+
+        for(int index = 0; index < numElements; index++) {
+            retVal.append(get(index)).append(", ");
+        }
+
+        return retVal.toString();
+    }
+
+    /**
+     * Returns the number of elements of the given chunk, at or after the
+     * given index, which stay in the chunk when shifted along one place
+     * for an insertion; the last of a full chunk moves to the next chunk.
+     */
+    private int shifted(int chunk, int index) {
+        int end = (chunk + 1) << CHUNK_SHIFT;
+
+        return Math.min(numElements, end) - index - (numElements >= end ? 1 :
+                                                                        0);
+    }
+
+    /**
+     * Gives this list a directory of chunks of its own, if it shares one
+     * with a snapshot, though each chunk in it is still shared.
+     */
+    private void unshare() {
+        if(shared) {
+            chunks = chunks.clone();
+            owned  = new boolean[chunks.length];
+            shared = false;
+        }
+    }
+
+    /**
+     * Returns the given chunk to be written to, first copying it if it is
+     * shared or allocating it if it does not exist yet.
+     *
+     * @param chunk The index of the chunk.
+     *
+     * @return The chunk, which belongs to this list alone.
+     */
+    private Object[] writable(int chunk) {
+        unshare();
+
+        if(!owned[chunk]) {
+            chunks[chunk] = chunks[chunk] == null ? new Object[CHUNK_SIZE] :
+                                                    chunks[chunk].clone();
+            owned[chunk]  = true;
+        }
+
+        return chunks[chunk];
+    }
+
+}
@@ -1,4 +1,6 @@
 import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.geom.Ellipse2D;
 
 /**
  * This class represents a basic Circle as a child of <code>Shape</code>.
@@ -18,6 +20,12 @@ public final class Circle extends Shape {
      */
     private int radius = 0;
     
+    /**
+     * The area of this circle, computed whenever the radius is set so that
+     * <code>getArea</code> does no arithmetic.
+     */
+    private double area = 0;
+    
     /**
      * Constructs a new <code>Circle</code> object with the given coordinates
      * as its origin, a default color set in <code>Shape.DEFAULT_COLOR</code>,
@@ -81,6 +89,7 @@ public final class Circle extends Shape {
         }
         
         this.radius = radius;
+        this.area   = ShapeAreas.area(ShapeAreas.CIRCLE, radius, radius);
     }
     
     /**
@@ -93,14 +102,90 @@ public final class Circle extends Shape {
     }
     
     /**
-     * Computes and returns the area of this circle using the formula
-     * <code>Math.PI * r^2</code>.
+     * Returns the area of this circle, <code>Math.PI * r^2</code>, as
+     * computed when the radius was last set.
      * 
      * @return The current area of this circle.
      */
     @Override
     public double getArea() {
-        return Math.PI * radius * radius;
+        return area;
+    }
+    
+    /**
+     * Draws this circle, filled with its color, at its coordinates.
+     * 
+     * @param g The graphics object used to draw the circle.
+     */
+    @Override
+    public void draw(Graphics g) {
+        g.setColor(getFillColor());
+        g.fillOval(getLeft(), getTop(), 2 * radius, 2 * radius);
+    }
+    
+    /**
+     * @return The outline of this circle.
+     */
+    @Override
+    java.awt.Shape getOutline() {
+        return new Ellipse2D.Double(getLeft(), getTop(), 2 * radius,
+                                    2 * radius);
+    }
+    
+    /**
+     * @return The least x coordinate covered by this circle.
+     */
+    @Override
+    public int getLeft() {
+        return getX() - radius;
+    }
+    
+    /**
+     * @return The least y coordinate covered by this circle.
+     */
+    @Override
+    public int getTop() {
+        return getY() - radius;
+    }
+    
+    /**
+     * @return The greatest x coordinate covered by this circle.
+     */
+    @Override
+    public int getRight() {
+        return getX() + radius;
+    }
+    
+    /**
+     * @return The greatest y coordinate covered by this circle.
+     */
+    @Override
+    public int getBottom() {
+        return getY() + radius;
+    }
+    
+    /**
+     * @return <code>ShapeAreas.CIRCLE</code>.
+     */
+    @Override
+    byte getKind() {
+        return ShapeAreas.CIRCLE;
+    }
+    
+    /**
+     * @return The radius, as the first dimension of a circle.
+     */
+    @Override
+    double getFirstDimension() {
+        return radius;
+    }
+    
+    /**
+     * @return The radius, as the second dimension of a circle.
+     */
+    @Override
+    double getSecondDimension() {
+        return radius;
     }
     
     /**
@@ -0,0 +1,342 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * This class splits a stream of batch commands into lines of
+ * whitespace-separated tokens for <code>PizzaManager</code>'s batch mode.
+ *
+ * Unlike a <code>java.util.Scanner</code>, no regular expressions are used
+ * at all. Characters are read from the underlying <code>Reader</code> into
+ * a large buffer, and each line is split by hand into reused arrays of
+ * token boundaries, which grow as longer lines are read. Tokens are only
+ * turned into <code>String</code> objects when asked for, and integers may
+ * be parsed straight from the buffer using <code>intToken</code>, so a
+ * long stream of commands creates very little garbage.
+ *
+ * Blank lines and lines beginning with <code>'#'</code> are skipped, which
+ * allows for comments in command files.
+ *
+ * @author Trystan Cannon
+ */
+public class CommandTokenizer {
+
+    /**
+     * The number of characters read from the underlying <code>Reader</code>
+     * at a time.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The number of tokens the token boundary arrays first have room for.
+     * They grow if a line with more tokens is ever read.
+     */
+    private static final int INITIAL_TOKENS = 16;
+
+    /**
+     * The source of all of the commands to be tokenized.
+     */
+    private final Reader input;
+
+    /**
+     * The characters of the current line. This grows if a line longer than
+     * it is ever read.
+     */
+    private char[] line = new char[256];
+
+    /**
+     * The number of characters of <code>line</code> currently in use.
+     */
+    private int lineLength = 0;
+
+    /**
+     * The raw characters read from <code>input</code>.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * The index of the next unread character in <code>buffer</code>.
+     */
+    private int bufferPosition = 0;
+
+    /**
+     * The number of valid characters in <code>buffer</code>.
+     */
+    private int bufferLimit = 0;
+
+    /**
+     * The starting index in <code>line</code> of each token.
+     */
+    private int[] tokenStarts = new int[INITIAL_TOKENS];
+
+    /**
+     * The index in <code>line</code> just past the end of each token.
+     */
+    private int[] tokenEnds = new int[INITIAL_TOKENS];
+
+    /**
+     * The number of tokens on the current line.
+     */
+    private int numTokens = 0;
+
+    /**
+     * The number of the current line in the input, starting at one.
+     */
+    private int lineNumber = 0;
+
+    /**
+     * Constructs a tokenizer reading commands from the given
+     * <code>Reader</code>.
+     *
+     * Given a <code>null</code> <code>Reader</code>, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param input The <code>Reader</code> from which to read commands.
+     */
+    public CommandTokenizer(Reader input) {
+        if(input == null) {
+            throw new PizzaException("Cannot tokenize commands from a null " +
+                                     "Reader.");
+        }
+
+        this.input = input;
+    }
+
+    /**
+     * Advances to the next line holding at least one token, skipping blank
+     * lines and comments.
+     *
+     * @return <code>true</code> if another command was read;
+     *         <code>false</code> if the end of the input has been reached.
+     *
+     * @throws IOException If the underlying <code>Reader</code> fails.
+     */
+    public boolean nextCommand() throws IOException {
+        while(readLine()) {
+            split();
+
+            if(numTokens > 0 && line[tokenStarts[0]] != '#') {
+                return true;
+            }
+        }
+
+        numTokens = 0;
+        return false;
+    }
+
+    /**
+     * @return The number of tokens on the current line.
+     */
+    public int tokenCount() {
+        return numTokens;
+    }
+
+    /**
+     * @return The number of the current line in the input, starting at one.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the token at the given index on the current line as a
+     * <code>String</code>.
+     *
+     * Given an index with no token, a <code>PizzaException</code> is thrown
+     * detailing the error.
+     *
+     * @param index The index of the token on the current line.
+     *
+     * @return The token at the given index.
+     */
+    public String token(int index) {
+        checkToken(index);
+        return new String(line, tokenStarts[index],
+                          tokenEnds[index] - tokenStarts[index]);
+    }
+
+    /**
+     * Checks whether the token at the given index is equal to the given
+     * word, ignoring case, without creating a <code>String</code> for the
+     * token.
+     *
+     * @param index The index of the token on the current line.
+     * @param word The word to compare the token with.
+     *
+     * @return <code>true</code> if the token exists and matches the word;
+     *         <code>false</code> if not.
+     */
+    public boolean tokenEquals(int index, String word) {
+        if(index < 0 || index >= numTokens) {
+            return false;
+        }
+
+        int length = tokenEnds[index] - tokenStarts[index];
+
+        if(length != word.length()) {
+            return false;
+        }
+
+        for(int offset = 0; offset < length; offset++) {
+            char ours   = Character.toLowerCase(
+                                  line[tokenStarts[index] + offset]);
+            char theirs = Character.toLowerCase(word.charAt(offset));
+
+            if(ours != theirs) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses the token at the given index as a decimal <code>int</code>
+     * directly from the line buffer.
+     *
+     * Given an index with no token, or a token which is not a valid
+     * <code>int</code>, a <code>PizzaException</code> is thrown detailing
+     * the error.
+     *
+     * @param index The index of the token on the current line.
+     *
+     * @return The <code>int</code> value of the token.
+     */
+    public int intToken(int index) {
+        checkToken(index);
+
+        int     position = tokenStarts[index];
+        int     end      = tokenEnds[index];
+        boolean negative = line[position] == '-';
+
+        if(negative || line[position] == '+') {
+            position++;
+        }
+
+        if(position == end) {
+            throw new PizzaException("\"" + token(index) + "\" is not a " +
+                                     "valid integer.");
+        }
+
+        long value = 0;
+
+        for(; position < end; position++) {
+            char digit = line[position];
+
+            if(digit < '0' || digit > '9') {
+                throw new PizzaException("\"" + token(index) + "\" is not a " +
+                                         "valid integer.");
+            }
+
+            value = value * 10 + (digit - '0');
+
+            if(value > (long) Integer.MAX_VALUE + 1) {
+                throw new PizzaException("\"" + token(index) + "\" is too " +
+                                         "large to be an integer.");
+            }
+        }
+
+        value = negative ? -value : value;
+
+        if(value > Integer.MAX_VALUE) {
+            throw new PizzaException("\"" + token(index) + "\" is too " +
+                                     "large to be an integer.");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Reads the next line from the input into <code>line</code>, not
+     * including the line terminator.
+     *
+     * @return <code>true</code> if a line was read; <code>false</code> if the
+     *         end of the input was reached before any characters.
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+
+        boolean readAnything = false;
+
+        while(true) {
+            if(bufferPosition == bufferLimit) {
+                bufferLimit    = input.read(buffer, 0, buffer.length);
+                bufferPosition = 0;
+
+                if(bufferLimit <= 0) {
+                    bufferLimit = 0;
+
+                    if(readAnything) {
+                        lineNumber++;
+                    }
+
+                    return readAnything;
+                }
+            }
+
+            char next = buffer[bufferPosition++];
+            readAnything = true;
+
+            if(next == '\n') {
+                lineNumber++;
+                return true;
+            } else if(next != '\r') {
+                if(lineLength == line.length) {
+                    char[] longer = new char[line.length * 2];
+                    System.arraycopy(line, 0, longer, 0, lineLength);
+                    line = longer;
+                }
+
+                line[lineLength++] = next;
+            }
+        }
+    }
+
+    /**
+     * Splits the current line into tokens separated by whitespace.
+     */
+    private void split() {
+        numTokens = 0;
+
+        int position = 0;
+
+        while(position < lineLength) {
+            while(position < lineLength &&
+                  Character.isWhitespace(line[position])) {
+                position++;
+            }
+
+            if(position == lineLength) {
+                break;
+            }
+
+            if(numTokens == tokenStarts.length) {
+                tokenStarts = Arrays.copyOf(tokenStarts, numTokens * 2);
+                tokenEnds   = Arrays.copyOf(tokenEnds, numTokens * 2);
+            }
+
+            tokenStarts[numTokens] = position;
+
+            while(position < lineLength &&
+                  !Character.isWhitespace(line[position])) {
+                position++;
+            }
+
+            tokenEnds[numTokens++] = position;
+        }
+    }
+
+    /**
+     * Checks that a token exists at the given index on the current line,
+     * throwing a <code>PizzaException</code> if it does not.
+     *
+     * @param index The index of the token to check.
+     */
+    private void checkToken(int index) {
+        if(index < 0 || index >= numTokens) {
+            throw new PizzaException("Expected another argument on line " +
+                                     lineNumber + ".");
+        }
+    }
+
+}
@@ -0,0 +1,456 @@
+import java.util.Arrays;
+
+/**
+ * This class orders pizzas by several <code>PizzaKey</code>s at once, such
+ * as by calories, then by price among pizzas of equal calories, then by
+ * remaining size among those, each key either ascending or descending.
+ *
+ * Each key agrees with its <code>PizzaComparable</code> method, but rather
+ * than calling those methods on every comparison, sorting first reads every
+ * key of every pizza once into a column of <code>long</code>s:
+ *     - price as <code>Pizza.getCostInCents</code>
+ *     - calories as <code>Pizza.getCalories</code>
+ *     - size as the bits of <code>Pizza.getRemainingArea</code>, which for
+ *       a non-negative <code>double</code> order just as the value does;
+ *       when sorting, every size is found at once by
+ *       <code>ShapeAreas.remainingAreas</code>
+ *
+ * Descending keys are negated. Leading keys whose values span few enough
+ * bits, as prices and calories do, are then packed together with each
+ * pizza's index into one <code>long</code> per pizza, and the
+ * <code>long</code>s sorted with <code>Arrays.sort</code>, which compares
+ * primitives directly. Only runs of pizzas tied on every packed key are
+ * then sorted by the keys left, if any. When not even the first key can be
+ * packed, as with sizes, an array of indexes is merge sorted comparing the
+ * columns one after another. Either way, no comparison calls a method,
+ * boxes a value, or clones <code>Money</code>.
+ *
+ * An order is written as keys separated by commas, each optionally
+ * preceded by <code>-</code> for descending, such as
+ * <code>calories,price,-size</code>.
+ *
+ * @author Trystan Cannon
+ */
+public final class CompositeOrder {
+
+    /**
+     * Runs at most this long are sorted by insertion rather than merged.
+     */
+    private static final int INSERTION_SORT_LIMIT = 16;
+
+    /**
+     * The keys, most significant first.
+     */
+    private final PizzaKey[] keys;
+
+    /**
+     * Whether each key is descending.
+     */
+    private final boolean[] descending;
+
+    /**
+     * Constructs an order by the given keys, most significant first.
+     *
+     * Given no keys, or a <code>null</code> key, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param keys The keys, most significant first.
+     * @param descending Whether each key is descending.
+     */
+    public CompositeOrder(PizzaKey[] keys, boolean[] descending) {
+        if(keys.length == 0 || keys.length != descending.length) {
+            throw new PizzaException("A composite order needs one direction " +
+                                     "for each of at least one key.");
+        }
+
+        for(PizzaKey key : keys) {
+            if(key == null) {
+                throw new PizzaException("Cannot order pizzas by a null key.");
+            }
+        }
+
+        this.keys       = keys.clone();
+        this.descending = descending.clone();
+    }
+
+    /**
+     * Parses an order such as <code>calories,price,-size</code>.
+     *
+     * Given text naming no key, or a name matching no key, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param text The keys separated by commas, each optionally preceded by
+     *             <code>-</code> for descending.
+     *
+     * @return The order.
+     */
+    public static CompositeOrder parse(String text) {
+        String[]   names      = text.split(",");
+        PizzaKey[] keys       = new PizzaKey[names.length];
+        boolean[]  descending = new boolean[names.length];
+
+        for(int index = 0; index < names.length; index++) {
+            String name = names[index].trim();
+
+            descending[index] = name.startsWith("-");
+            keys[index]       = PizzaKey.parse(descending[index] ?
+                                               name.substring(1) : name);
+        }
+
+        return new CompositeOrder(keys, descending);
+    }
+
+    /**
+     * @return The number of keys.
+     */
+    public int numKeys() {
+        return keys.length;
+    }
+
+    /**
+     * @param index The index of a key, most significant first.
+     *
+     * @return The key at the given index.
+     */
+    public PizzaKey getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Reads the given key of the given pizza as a <code>long</code>, as
+     * described above. Ascending and descending are not applied here.
+     *
+     * @param pizza The pizza whose key is read.
+     * @param key The key to read.
+     *
+     * @return The key of the pizza.
+     */
+    public static long keyOf(Pizza pizza, PizzaKey key) {
+        switch(key) {
+            case PRICE:
+                return pizza.getCostInCents();
+            case CALORIES:
+                return pizza.getCalories();
+            default:
+                return Double.doubleToLongBits(pizza.getRemainingArea());
+        }
+    }
+
+    /**
+     * Parses a value of the given key as typed in a search: whole cents
+     * for price, whole calories, or a decimal area for size.
+     *
+     * Given text which is not a valid value, a <code>PizzaException</code>
+     * is thrown detailing the error.
+     *
+     * @param text The text of the value.
+     * @param key The key of the value.
+     *
+     * @return The value as <code>keyOf</code> would give it.
+     */
+    public static long parseValue(String text, PizzaKey key) {
+        try {
+            if(key == PizzaKey.SIZE) {
+                // Adding zero turns -0.0 into 0.0, whose bits order correctly.
+                return Double.doubleToLongBits(Double.parseDouble(text) + 0.0);
+            }
+
+            return Long.parseLong(text);
+        } catch(NumberFormatException notANumber) {
+            throw new PizzaException("\"" + text + "\" is not a valid " +
+                                     key.name().toLowerCase() + ".");
+        }
+    }
+
+    /**
+     * Sorts the given pizzas into this order in O(n log n). Pizzas equal by
+     * every key keep their order.
+     *
+     * @param pizzas The pizzas to sort.
+     */
+    public void sort(Pizza[] pizzas) {
+        int      size    = pizzas.length;
+        long[][] columns = new long[keys.length][size];
+        double[] areas   = null;
+
+        for(int key = 0; key < keys.length; key++) {
+            long[] column = columns[key];
+
+            if(keys[key] == PizzaKey.SIZE) {
+                if(areas == null) {
+                    areas = ShapeAreas.remainingAreas(pizzas);
+                }
+
+                for(int index = 0; index < size; index++) {
+                    long value    = Double.doubleToLongBits(areas[index]);
+                    column[index] = descending[key] ? -value : value;
+                }
+
+                continue;
+            }
+
+            for(int index = 0; index < size; index++) {
+                long value    = keyOf(pizzas[index], keys[key]);
+                column[index] = descending[key] ? -value : value;
+            }
+        }
+
+        int[] order   = new int[size];
+        int[] scratch = new int[size];
+        int   packed  = packedSort(columns, order, scratch);
+
+        if(packed == 0) {
+            for(int index = 0; index < size; index++) {
+                order[index] = index;
+            }
+
+            mergeSort(columns, 0, order, scratch, 0, size);
+        }
+
+        Pizza[] sorted = new Pizza[size];
+
+        for(int index = 0; index < size; index++) {
+            sorted[index] = pizzas[order[index]];
+        }
+
+        System.arraycopy(sorted, 0, pizzas, 0, size);
+    }
+
+    /**
+     * Compares the given pizza to a prefix of this order's keys.
+     *
+     * @param pizza The pizza to compare.
+     * @param prefix The values of the first <code>prefix.length</code>
+     *               keys, as given by <code>keyOf</code>.
+     *
+     * @return A negative value, zero, or a positive value as the pizza
+     *         comes before, matches, or comes after the prefix.
+     */
+    public int compareToPrefix(Pizza pizza, long[] prefix) {
+        for(int key = 0; key < prefix.length; key++) {
+            long ours   = keyOf(pizza, keys[key]);
+            long theirs = prefix[key];
+
+            if(ours != theirs) {
+                return (ours < theirs) != descending[key] ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Finds the first pizza of a list sorted into this order whose first
+     * keys equal the given prefix, in O(log n).
+     *
+     * Given a prefix longer than this order, a <code>PizzaException</code>
+     * is thrown detailing the error.
+     *
+     * @param pizzas A list sorted into this order.
+     * @param prefix The values of the first <code>prefix.length</code>
+     *               keys, as given by <code>keyOf</code>.
+     *
+     * @return The index of the first matching pizza, or <code>-1</code> if
+     *         none match.
+     */
+    public int search(ArrayList<Pizza> pizzas, long[] prefix) {
+        if(prefix.length > keys.length) {
+            throw new PizzaException("Cannot search by " + prefix.length +
+                                     " keys in an order of " + keys.length +
+                                     ".");
+        }
+
+        int low  = 0;
+        int high = pizzas.size();
+
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+
+            if(compareToPrefix(pizzas.get(mid), prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        if(low < pizzas.size() &&
+           compareToPrefix(pizzas.get(low), prefix) == 0) {
+            return low;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return This order as it would be parsed, such as
+     *         <code>calories,price,-size</code>.
+     */
+    @Override
+    public String toString() {
+        String retVal = "";
+
+        for(int key = 0; key < keys.length; key++) {
+            retVal += (key == 0 ? "" : ",") + (descending[key] ? "-" : "") +
+                      keys[key].name().toLowerCase();
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Sorts the indexes of the pizzas into <code>order</code> by packing as
+     * many leading columns as fit, together with each index, into one
+     * <code>long</code> per pizza and sorting those, then merge sorting each
+     * run of indexes tied on the packed columns by the columns left.
+     *
+     * @return The number of columns packed, or zero if not even the first
+     *         would fit, in which case <code>order</code> is untouched.
+     */
+    private static int packedSort(long[][] columns, int[] order,
+                                  int[] scratch) {
+        int    size      = order.length;
+        int    indexBits = 32 - Integer.numberOfLeadingZeros(
+                                        Math.max(1, size - 1));
+        int    freeBits  = 63 - indexBits;
+        int    packed    = 0;
+        long[] mins      = new long[columns.length];
+        int[]  shifts    = new int[columns.length];
+
+        for(long[] column : columns) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+
+            for(long value : column) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+
+            // A span overflowing to negative needs all 64 bits.
+            long span = size == 0 ? 0 : max - min;
+            int  bits = span < 0 ? 64 : 64 - Long.numberOfLeadingZeros(span);
+
+            if(bits > freeBits) {
+                break;
+            }
+
+            freeBits      -= bits;
+            mins[packed]   = min;
+            shifts[packed] = freeBits + indexBits;
+            packed++;
+        }
+
+        if(packed == 0) {
+            return 0;
+        }
+
+        long[] keys = new long[size];
+
+        for(int index = 0; index < size; index++) {
+            long key = index;
+
+            for(int column = 0; column < packed; column++) {
+                key |= (columns[column][index] - mins[column]) <<
+                       shifts[column];
+            }
+
+            keys[index] = key;
+        }
+
+        Arrays.sort(keys);
+
+        long indexMask = (1L << indexBits) - 1;
+
+        for(int index = 0; index < size; index++) {
+            order[index] = (int) (keys[index] & indexMask);
+        }
+
+        if(packed < columns.length) {
+            int from = 0;
+
+            for(int index = 1; index <= size; index++) {
+                if(index == size || (keys[index] & ~indexMask) !=
+                                    (keys[from] & ~indexMask)) {
+                    if(index - from > 1) {
+                        mergeSort(columns, packed, order, scratch, from,
+                                  index);
+                    }
+
+                    from = index;
+                }
+            }
+        }
+
+        return packed;
+    }
+
+    /**
+     * Sorts <code>order[from, to)</code> by the columns from the given one
+     * on, using <code>scratch</code> to merge.
+     */
+    private static void mergeSort(long[][] columns, int firstColumn,
+                                  int[] order, int[] scratch, int from,
+                                  int to) {
+        if(to - from <= INSERTION_SORT_LIMIT) {
+            for(int index = from + 1; index < to; index++) {
+                int moving = order[index];
+                int place  = index;
+
+                while(place > from &&
+                      compare(columns, firstColumn, order[place - 1],
+                              moving) > 0) {
+                    order[place] = order[place - 1];
+                    place--;
+                }
+
+                order[place] = moving;
+            }
+
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+
+        mergeSort(columns, firstColumn, order, scratch, from, mid);
+        mergeSort(columns, firstColumn, order, scratch, mid, to);
+
+        // Already in order; nothing to merge.
+        if(compare(columns, firstColumn, order[mid - 1], order[mid]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(order, from, scratch, from, to - from);
+
+        int left  = from;
+        int right = mid;
+
+        for(int index = from; index < to; index++) {
+            if(right >= to ||
+               (left < mid &&
+                compare(columns, firstColumn, scratch[left],
+                        scratch[right]) <= 0)) {
+                order[index] = scratch[left++];
+            } else {
+                order[index] = scratch[right++];
+            }
+        }
+    }
+
+    /**
+     * Compares the pizzas at two indexes by every column from the given one
+     * on, in turn.
+     */
+    private static int compare(long[][] columns, int firstColumn, int first,
+                               int second) {
+        for(int column = firstColumn; column < columns.length; column++) {
+            long ours   = columns[column][first];
+            long theirs = columns[column][second];
+
+            if(ours != theirs) {
+                return ours < theirs ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+}
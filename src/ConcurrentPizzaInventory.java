@@ -0,0 +1,193 @@
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class implements a <code>PizzaInventory</code> which any number of
+ * threads may add to, eat from, and read at the same time without any
+ * global lock.
+ * 
+ * Pizzas are kept in a <code>ConcurrentSkipListMap</code> keyed by their
+ * identifier, which are handed out in increasing order. Eating relies on
+ * the same code as <code>Pizza.eatSomePizza</code>, which updates the
+ * remaining size of a pizza with a single compare-and-set, so the
+ * check-then-remove race of
+ * <code>PizzaManager.eatSomePizza</code> cannot happen here: exactly one
+ * eater sees a pizza reach zero, and only that eater removes it.
+ * 
+ * Readers such as <code>display</code> and <code>findByCalories</code>
+ * work over a copy of the map taken when they start. The copy is weakly
+ * consistent, not a view as of one point in time: it holds every pizza
+ * present for the whole of the copying, while one added or eaten during it
+ * may or may not be in it. Because each pizza's remaining size is read as
+ * one packed value, no reader ever sees a half-updated fraction.
+ * 
+ * @author Trystan Cannon
+ */
+public class ConcurrentPizzaInventory implements PizzaInventory {
+
+    /**
+     * All of the pizzas in the inventory, keyed by identifier.
+     */
+    private final ConcurrentSkipListMap<Long, Pizza> pizzas =
+            new ConcurrentSkipListMap<>();
+
+    /**
+     * The identifier to be given to the next pizza added.
+     */
+    private final AtomicLong nextId = new AtomicLong(0);
+
+    /**
+     * Adds the given pizza to the inventory under a new identifier.
+     * 
+     * Given a <code>null</code> pizza, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     * 
+     * @param pizza The <code>Pizza</code> to add.
+     * 
+     * @return The identifier given to the pizza.
+     */
+    @Override
+    public long add(Pizza pizza) {
+        if(pizza == null) {
+            throw new PizzaException("Cannot add a null Pizza to an " +
+                                     "inventory.");
+        }
+        
+        long id = nextId.getAndIncrement();
+        pizzas.put(id, pizza);
+        
+        return id;
+    }
+
+    /**
+     * @param id The identifier of the pizza to return.
+     * 
+     * @return The pizza with the given identifier, or <code>null</code> if
+     *         there is none.
+     */
+    @Override
+    public Pizza get(long id) {
+        return pizzas.get(id);
+    }
+
+    /**
+     * Eats the given fractional amount from the pizza with the given
+     * identifier, removing it if this call finishes it.
+     * 
+     * Given an identifier with no pizza, or an amount which cannot be eaten
+     * from the pizza, a <code>PizzaException</code> is thrown detailing the
+     * error.
+     * 
+     * @param id The identifier of the pizza to eat from.
+     * @param amount The fractional amount of the pizza to eat.
+     * 
+     * @return <code>true</code> if this call finished the pizza and removed
+     *         it; <code>false</code> if some of it remains.
+     */
+    @Override
+    public boolean eat(long id, Fraction amount) {
+        Pizza pizza = pizzas.get(id);
+        
+        if(pizza == null) {
+            throw new PizzaException("There is no pizza " + id + " to eat.");
+        }
+        
+        // Only the eater whose compare-and-set reached zero is told so;
+        // anyone else eating it at the same moment was simply too late.
+        if(pizza.eat(amount)) {
+            pizzas.remove(id, pizza);
+            PizzaEvents.removed(pizza, "ConcurrentPizzaInventory");
+            return true;
+        }
+        
+        return false;
+    }
+
+    /**
+     * Finds the identifier of the first pizza at or after the given hint,
+     * wrapping around to the first pizza in the inventory.
+     * 
+     * @param hint Any value; negative hints are treated as positive.
+     * 
+     * @return The identifier of a pizza in the inventory, or <code>-1</code>
+     *         if the inventory is empty.
+     */
+    @Override
+    public long idNear(long hint) {
+        long bound = nextId.get();
+        
+        if(bound == 0) {
+            return -1;
+        }
+        
+        Long id = pizzas.ceilingKey(Math.floorMod(hint, bound));
+        
+        if(id == null) {
+            Map.Entry<Long, Pizza> first = pizzas.firstEntry();
+            return first == null ? -1 : first.getKey();
+        }
+        
+        return id;
+    }
+
+    /**
+     * Returns the number of pizzas in the inventory.
+     * 
+     * Because pizzas may be added and removed while counting, this value is
+     * only exact when no other thread is changing the inventory.
+     * 
+     * @return The number of pizzas currently in the inventory.
+     */
+    @Override
+    public int size() {
+        return pizzas.size();
+    }
+
+    /**
+     * Returns a weakly consistent copy of the pizzas in the inventory, as
+     * described above.
+     * 
+     * @return An array of the pizzas in the inventory, in the order in
+     *         which they were added.
+     */
+    @Override
+    public Pizza[] snapshot() {
+        return pizzas.values().toArray(new Pizza[0]);
+    }
+
+    /**
+     * Displays every pizza in a snapshot of the inventory, in the order in
+     * which they were added.
+     */
+    public void display() {
+        for(Pizza pizza : snapshot()) {
+            System.out.println(pizza);
+        }
+    }
+
+    /**
+     * Finds the identifier of the earliest added pizza with the given
+     * number of calories.
+     * 
+     * Because the inventory is ordered by identifier rather than calories,
+     * this is a linear search in O(n), over a weakly consistent copy of the
+     * inventory like <code>snapshot</code>.
+     * 
+     * @param cals The number of calories to search for.
+     * 
+     * @return The identifier of a pizza with the given number of calories,
+     *         or <code>-1</code> if there is none.
+     */
+    public long findByCalories(int cals) {
+        for(Map.Entry<Long, Pizza> entry : List.copyOf(pizzas.entrySet())) {
+            if(entry.getValue().getCalories() == cals) {
+                return entry.getKey();
+            }
+        }
+        
+        return -1;
+    }
+
+}
@@ -0,0 +1,131 @@
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class sets pizzas down on a counter divided into a grid of square
+ * slots, <code>spacing</code> apart and <code>columns</code> to a row,
+ * filling each row from left to right before starting the next.
+ *
+ * Each pizza is moved so that the top left corner of its bounds is at the
+ * corner of its slot. A slot is freed when its pizza is taken away, and
+ * freed slots are filled again before any new row is started, so the
+ * counter stays as compact as it can.
+ *
+ * @author Trystan Cannon
+ */
+public class CounterLayout {
+
+    /**
+     * The number of slots in each row when none is given.
+     */
+    public static final int DEFAULT_COLUMNS = 100;
+
+    /**
+     * The distance between slots when none is given, enough for the largest
+     * random pizza with room to spare.
+     */
+    public static final int DEFAULT_SPACING = 50;
+
+    /**
+     * The number of slots in each row.
+     */
+    private final int columns;
+
+    /**
+     * The distance between the corners of neighboring slots.
+     */
+    private final int spacing;
+
+    /**
+     * The slot of each pizza on the counter.
+     */
+    private final Map<Pizza, Integer> slots = new IdentityHashMap<>();
+
+    /**
+     * The freed slots, as a stack.
+     */
+    private int[] freeSlots = new int[0];
+
+    /**
+     * The number of freed slots on <code>freeSlots</code>.
+     */
+    private int numFreeSlots = 0;
+
+    /**
+     * The number of slots ever used.
+     */
+    private int numSlots = 0;
+
+    /**
+     * Constructs an empty counter.
+     *
+     * Given a number of columns or spacing which is not positive, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param columns The number of slots in each row.
+     * @param spacing The distance between the corners of neighboring slots.
+     */
+    public CounterLayout(int columns, int spacing) {
+        if(columns <= 0 || spacing <= 0) {
+            throw new PizzaException("A counter needs at least one column " +
+                                     "and a positive spacing.");
+        }
+
+        this.columns = columns;
+        this.spacing = spacing;
+    }
+
+    /**
+     * @return The distance between the corners of neighboring slots.
+     */
+    public int getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * Sets the given pizza down in the first freed slot, or else the next
+     * slot never used, moving it there. A pizza already on the counter is
+     * left where it is.
+     *
+     * @param pizza The pizza to set down.
+     */
+    public void place(Pizza pizza) {
+        if(slots.containsKey(pizza)) {
+            return;
+        }
+
+        int slot = numFreeSlots > 0 ? freeSlots[--numFreeSlots] : numSlots++;
+
+        slots.put(pizza, slot);
+        pizza.moveTo(slot % columns * spacing, slot / columns * spacing);
+    }
+
+    /**
+     * Takes the given pizza off of the counter, freeing its slot.
+     *
+     * @param pizza The pizza taken away.
+     */
+    public void remove(Pizza pizza) {
+        Integer slot = slots.remove(pizza);
+
+        if(slot == null) {
+            return;
+        }
+
+        if(numFreeSlots == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots,
+                                      Math.max(16, freeSlots.length * 2));
+        }
+
+        freeSlots[numFreeSlots++] = slot;
+    }
+
+    /**
+     * @return The number of pizzas on the counter.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+}
@@ -0,0 +1,405 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class drives a simulation of many customers eating from one shared
+ * <code>PizzaInventory</code> while a kitchen keeps it stocked, in order to
+ * measure how the inventory behaves under real contention.
+ *
+ * Each customer runs as its own task. A customer visits the inventory a
+ * set number of times; on each visit it looks at a few pizzas picked at
+ * random, chooses the best of them by its <code>Criterion</code> (cheapest,
+ * lowest calorie, or largest), and eats a random fraction from it. If
+ * another customer got there first and the pizza is gone or too small, the
+ * customer simply looks again. The time from arriving to eating is the
+ * customer's wait time.
+ *
+ * Meanwhile, a small number of kitchen threads add new random pizzas
+ * whenever the stock falls below its target. A kitchen thread with nothing
+ * to do blocks until a customer finishes a pizza, rather than spinning,
+ * so it takes no processor time from the customers being measured.
+ *
+ * When the running JVM supports virtual threads, every customer is given
+ * its own virtual thread, so hundreds of thousands of customers may wait at
+ * once. Otherwise, customers share a fixed pool of platform threads.
+ *
+ * @author Trystan Cannon
+ */
+public class CustomerSimulation {
+
+    /**
+     * The ways in which a customer may choose between the pizzas it looks
+     * at, each following one of the <code>PizzaComparable</code> orderings.
+     */
+    public enum Criterion {
+        /** Prefers the cheapest pizza, using <code>compareTo</code>. */
+        PRICE,
+        /** Prefers the largest pizza, using <code>compareToBySize</code>. */
+        SIZE,
+        /**
+         * Prefers the lowest calorie pizza, using
+         * <code>compareToByCalories</code>.
+         */
+        CALORIES
+    }
+
+    /**
+     * The number of pizzas a customer looks at before choosing one.
+     */
+    public static final int PIZZAS_CONSIDERED = 4;
+
+    /**
+     * The largest denominator of the random fraction a customer eats; each
+     * customer eats between <code>1/MAX_BITE_DENOMINATOR</code> and
+     * <code>1/2</code> of a pizza.
+     */
+    public static final int MAX_BITE_DENOMINATOR = 8;
+
+    /**
+     * The number of kitchen threads which add pizzas to the inventory.
+     */
+    public static final int DEFAULT_KITCHEN_THREADS = 2;
+
+    /**
+     * The inventory from which customers eat.
+     */
+    private final PizzaInventory inventory;
+
+    /**
+     * The number of customers taking part in the simulation.
+     */
+    private final int numCustomers;
+
+    /**
+     * The number of times each customer eats before leaving.
+     */
+    private final int visitsPerCustomer;
+
+    /**
+     * The way in which every customer chooses between pizzas.
+     */
+    private final Criterion criterion;
+
+    /**
+     * The number of pizzas the kitchen tries to keep in the inventory.
+     */
+    private final int targetStock;
+
+    /**
+     * The number of times a customer has eaten.
+     */
+    private final LongAdder eats = new LongAdder();
+
+    /**
+     * The number of pizzas customers have finished.
+     */
+    private final LongAdder pizzasFinished = new LongAdder();
+
+    /**
+     * The number of times a customer had to look again because the pizza
+     * it chose was taken by someone else.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * The number of pizzas the kitchen has added.
+     */
+    private final LongAdder pizzasBaked = new LongAdder();
+
+    /**
+     * The sum of every customer's wait time, in nanoseconds.
+     */
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    /**
+     * The longest any customer has waited, in nanoseconds.
+     */
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * One permit for each pizza the inventory is short of its target
+     * stock, taken by the kitchen for each pizza it adds and given back by
+     * the customer who finishes a pizza. It starts negative if the
+     * inventory starts above its target.
+     */
+    private Semaphore freeSlots;
+
+    /**
+     * Constructs a simulation of the given number of customers eating from
+     * the given inventory.
+     *
+     * Given a <code>null</code> inventory or criterion, or a non-positive
+     * number of customers, visits, or stock, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param inventory The inventory from which customers eat. Any pizzas
+     *                  already in it are eaten as well.
+     * @param numCustomers The number of customers to simulate.
+     * @param visitsPerCustomer The number of times each customer eats.
+     * @param criterion The way in which customers choose between pizzas.
+     * @param targetStock The number of pizzas the kitchen tries to keep in
+     *                    the inventory.
+     */
+    public CustomerSimulation(PizzaInventory inventory, int numCustomers,
+                              int visitsPerCustomer, Criterion criterion,
+                              int targetStock) {
+        if(inventory == null || criterion == null) {
+            throw new PizzaException("Cannot simulate customers without an " +
+                                     "inventory and criterion.");
+        } else if(numCustomers <= 0 || visitsPerCustomer <= 0 ||
+                  targetStock <= 0) {
+            throw new PizzaException("Cannot simulate a non-positive number " +
+                                     "of customers, visits, or pizzas.");
+        }
+
+        this.inventory         = inventory;
+        this.numCustomers      = numCustomers;
+        this.visitsPerCustomer = visitsPerCustomer;
+        this.criterion         = criterion;
+        this.targetStock       = targetStock;
+    }
+
+    /**
+     * Runs the simulation until every customer has finished all of its
+     * visits, then closes the kitchen and returns a report of what
+     * happened.
+     *
+     * @return A <code>String</code> report of eats per second, wait times,
+     *         and pizzas baked, finished, and wasted.
+     *
+     * @throws InterruptedException If interrupted while waiting for the
+     *                              customers or kitchen.
+     */
+    public String run() throws InterruptedException {
+        freeSlots = new Semaphore(targetStock - inventory.size());
+
+        Thread[] kitchen = new Thread[DEFAULT_KITCHEN_THREADS];
+
+        for(int index = 0; index < kitchen.length; index++) {
+            kitchen[index] = new Thread(this::bake, "kitchen-" + index);
+            kitchen[index].setDaemon(true);
+            kitchen[index].start();
+        }
+
+        long            startTime = System.nanoTime();
+        ExecutorService customers = newCustomerExecutor();
+
+        for(int index = 0; index < numCustomers; index++) {
+            customers.execute(this::visit);
+        }
+
+        customers.shutdown();
+
+        while(!customers.awaitTermination(1, TimeUnit.SECONDS)) {
+            // Keep waiting; every customer leaves eventually.
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+
+        // Wake any cook waiting for a free slot so that it stops.
+        for(Thread cook : kitchen) {
+            cook.interrupt();
+        }
+
+        for(Thread cook : kitchen) {
+            cook.join();
+        }
+
+        return report(elapsed);
+    }
+
+    /**
+     * The body of a single customer: eats <code>visitsPerCustomer</code>
+     * times, recording how long each visit waited.
+     */
+    private void visit() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for(int visit = 0; visit < visitsPerCustomer; visit++) {
+            long arrival = System.nanoTime();
+
+            while(!eatOnce(random)) {
+                retries.increment();
+                Thread.yield();
+            }
+
+            long waited = System.nanoTime() - arrival;
+
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            eats.increment();
+        }
+    }
+
+    /**
+     * Chooses a pizza and tries once to eat a random fraction of it. If the
+     * fraction is more than what remains, whatever remains is eaten.
+     *
+     * @param random The source of randomness for this customer.
+     *
+     * @return <code>true</code> if the customer ate; <code>false</code> if it
+     *         must look again.
+     */
+    private boolean eatOnce(ThreadLocalRandom random) {
+        long id = choosePizza(random);
+
+        if(id == -1) {
+            return false;
+        }
+
+        int      denominator = random.nextInt(2, MAX_BITE_DENOMINATOR + 1);
+        Fraction bite        = new Fraction(1, denominator);
+
+        try {
+            recordEat(inventory.eat(id, bite));
+            return true;
+        } catch(PizzaException tooMuchOrTooLate) {
+            Pizza pizza = inventory.get(id);
+
+            if(pizza == null) {
+                return false;
+            }
+
+            try {
+                recordEat(inventory.eat(id, pizza.getRemaining()));
+                return true;
+            } catch(PizzaException tooLate) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Counts a pizza as finished if the given eat finished it.
+     *
+     * @param finished Whether the eat finished the pizza.
+     */
+    private void recordEat(boolean finished) {
+        if(finished) {
+            pizzasFinished.increment();
+            freeSlots.release();
+        }
+    }
+
+    /**
+     * Looks at <code>PIZZAS_CONSIDERED</code> pizzas picked at random and
+     * returns the best of them according to this simulation's criterion.
+     *
+     * @param random The source of randomness for this customer.
+     *
+     * @return The identifier of the chosen pizza, or <code>-1</code> if none
+     *         could be found.
+     */
+    private long choosePizza(ThreadLocalRandom random) {
+        long  bestId = -1;
+        Pizza best   = null;
+
+        for(int look = 0; look < PIZZAS_CONSIDERED; look++) {
+            long  id    = inventory.idNear(random.nextLong(Long.MAX_VALUE));
+            Pizza pizza = id == -1 ? null : inventory.get(id);
+
+            if(pizza != null && (best == null || isBetter(pizza, best))) {
+                bestId = id;
+                best   = pizza;
+            }
+        }
+
+        return bestId;
+    }
+
+    /**
+     * @return <code>true</code> if the first pizza is preferred to the second
+     *         by this simulation's criterion.
+     */
+    private boolean isBetter(Pizza pizza, Pizza other) {
+        switch(criterion) {
+            case PRICE:
+                return pizza.compareTo(other) == -1;
+
+            case SIZE:
+                return pizza.compareToBySize(other) == 1;
+
+            default:
+                return pizza.compareToByCalories(other) == -1;
+        }
+    }
+
+    /**
+     * The body of a kitchen thread: adds a random pizza for each free slot
+     * in the stock, waiting for one while there are none, until interrupted
+     * when the kitchen closes.
+     */
+    private void bake() {
+        try {
+            while(!Thread.currentThread().isInterrupted()) {
+                freeSlots.acquire();
+                inventory.add(new Pizza());
+                pizzasBaked.increment();
+            }
+        } catch(InterruptedException closed) {
+            // The kitchen has closed.
+        }
+    }
+
+    /**
+     * Builds the report returned by <code>run</code>.
+     *
+     * A pizza counts as wasted if it was partly eaten but left unfinished
+     * when the simulation ended.
+     *
+     * @param elapsedNanos How long the customers took, in nanoseconds.
+     *
+     * @return The report of the simulation.
+     */
+    private String report(long elapsedNanos) {
+        long numEats = eats.sum();
+        int  wasted  = 0;
+
+        for(Pizza pizza : inventory.snapshot()) {
+            if(pizza.getRemaining().getNumerator() !=
+               pizza.getRemaining().getDenominator()) {
+                wasted++;
+            }
+        }
+
+        return String.format(
+            "%d customers (%s) ate %d times in %.3f s: %.0f eats/s%n" +
+            "wait: mean %.3f ms, max %.3f ms; %d retries%n" +
+            "pizzas: %d baked, %d finished, %d wasted, %d left",
+            numCustomers, criterion.name().toLowerCase(), numEats,
+            elapsedNanos / 1e9, numEats / (elapsedNanos / 1e9),
+            numEats == 0 ? 0 : totalWaitNanos.sum() / 1e6 / numEats,
+            maxWaitNanos.get() / 1e6, retries.sum(), pizzasBaked.sum(),
+            pizzasFinished.sum(), wasted, inventory.size());
+    }
+
+    /**
+     * Creates the executor on which customers run: one virtual thread per
+     * customer when the JVM offers
+     * <code>Executors.newVirtualThreadPerTaskExecutor</code>, or otherwise a
+     * fixed pool of platform threads.
+     *
+     * The method is looked up reflectively so that this class still
+     * compiles and runs on JVMs without virtual threads.
+     *
+     * @return The executor on which to run customers.
+     */
+    private static ExecutorService newCustomerExecutor() {
+        try {
+            Method factory = Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor");
+
+            return (ExecutorService) factory.invoke(null);
+        } catch(ReflectiveOperationException unavailable) {
+            return Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors() * 4);
+        }
+    }
+
+}
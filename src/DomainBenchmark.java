@@ -0,0 +1,352 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class benchmarks the core operations of the Pizza Simulator with
+ * <code>MicroBenchmark</code>, printing for each the time, bytes allocated,
+ * and garbage collection per operation.
+ *
+ * Operations over collections are measured at each inventory size given on
+ * the command line (by default 100, 10,000, and 1,000,000):
+ *     - <code>ArrayList</code> insert and remove in the middle, and get
+ *     - the same of a <code>ChunkedArrayList</code>, and a snapshot of it
+ *       followed by the change which copies a chunk, next to copying the
+ *       whole list into an array
+ *     - <code>PizzaManager</code>'s sorts by price, size, and calories
+ *     - <code>PizzaManager.binarySearchByCalories</code>
+ *     - <code>TopK.select</code> of the ten cheapest pizzas
+ *     - <code>ShapeAreas.remainingAreas</code> of every pizza
+ *     - <code>ArrayList.indexOf</code> of the last pizza
+ *     - single-key merge sorts by calories and price next to
+ *       <code>RadixSort</code>s by the same keys, and a
+ *       <code>CompositeOrder</code> sort by calories, price, and size
+ *
+ * Because <code>PizzaManager</code>'s sorts are O(n^2) selection sorts,
+ * they are skipped above <code>SORT_LIMIT</code> pizzas rather than left to
+ * run for hours.
+ *
+ * Operations on single objects do not depend on the inventory size and are
+ * measured once:
+ *     - <code>Pizza</code> construction, also by a skewed and a lazy
+ *       <code>PizzaGenerator</code>, <code>eatSomePizza</code>, and
+ *       <code>toString</code>
+ *     - <code>Fraction.reduce</code> and <code>compareTo</code>
+ *     - <code>Money.add</code> and <code>compareTo</code>
+ *     - a random ingredient from the <code>IngredientCatalog</code>
+ *     - <code>Ingredient.equals</code> between kinds, and
+ *       <code>ArrayList.indexOf</code> over a pizza's ingredients
+ *     - <code>HashMap.get</code> keyed by equal but distinct ingredients,
+ *       amounts of money, and fractions
+ *
+ * A full random pizza takes roughly a kilobyte, so measuring at 10,000,000
+ * pizzas needs a heap of 16 GB or so (<code>-Xmx16g</code>).
+ *
+ * @author Trystan Cannon
+ */
+public class DomainBenchmark {
+
+    /**
+     * The inventory sizes measured when none are given.
+     */
+    public static final int[] DEFAULT_SIZES = {100, 10_000, 1_000_000};
+
+    /**
+     * The largest number of pizzas for which the O(n^2) sorts are measured.
+     */
+    public static final int SORT_LIMIT = 10_000;
+
+    /**
+     * How long each operation is warmed up for, in milliseconds.
+     */
+    public static final long WARMUP_MILLIS = 500;
+
+    /**
+     * How long each operation is measured for, in milliseconds.
+     */
+    public static final long MEASURE_MILLIS = 1000;
+
+    /**
+     * Runs every benchmark and prints a table of results.
+     *
+     * @param args The inventory sizes to measure, or none for the defaults.
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+
+        if(args.length > 0) {
+            sizes = new int[args.length];
+
+            for(int index = 0; index < args.length; index++) {
+                sizes[index] = Integer.parseInt(args[index]);
+            }
+        }
+
+        System.out.println(MicroBenchmark.HEADER);
+
+        benchmarkObjects();
+
+        for(int size : sizes) {
+            benchmarkCollections(size);
+        }
+    }
+
+    /**
+     * Measures the operations on single objects.
+     */
+    private static void benchmarkObjects() {
+        Pizza    pizza    = new Pizza();
+        Fraction sixths   = new Fraction(4, 6);
+        Fraction half     = new Fraction(1, 2);
+        Money    total    = new Money(0, 0);
+        Money    price    = new Money(3, 75);
+        Fraction bite     = new Fraction(1, 1000);
+        int[]    bites    = new int[1];
+
+        report("pizza.new", 0, Pizza::new);
+
+        PizzaGenerator skewed = PizzaGenerator.parse(
+                "shapes=circle:6,square:3,sector:1 sizes=0.5:1,1:6,2:1 " +
+                "counts=1-3:4,4-12:1 toppings=pepperoni:5");
+
+        report("pizza.new.skewed", 0, skewed::next);
+
+        PizzaGenerator lazy = PizzaGenerator.parse("ingredients=lazy");
+
+        report("pizza.new.lazy", 0, lazy::next);
+
+        report("pizza.eatSomePizza", 0, () -> {
+            // Stop just short of zero, where eating throws.
+            if(++bites[0] == 1000) {
+                pizza.setRemaining(new Fraction(1, 1));
+                bites[0] = 1;
+            }
+
+            pizza.eatSomePizza(bite);
+            return pizza;
+        });
+
+        report("pizza.toString", 0, pizza::toString);
+        report("fraction.reduce", 0, sixths::reduce);
+        report("fraction.compareTo", 0, () -> sixths.compareTo(half));
+
+        report("money.add", 0, () -> {
+            total.add(price);
+            return total;
+        });
+
+        report("money.compareTo", 0, () -> total.compareTo(price));
+
+        ArrayList<Ingredient> toppings = new ArrayList<>();
+
+        for(Ingredient ingredient : new Ingredient[] {
+                new Mozzarella(), new Marinara(), new Pepper(), new Olive(),
+                new Pepperoni(), new Sausage(), new Goat(), new Alfredo()}) {
+            toppings.add(ingredient);
+        }
+
+        Ingredient olive   = new Olive();
+        Ingredient sausage = new Sausage();
+        Ingredient alfredo = new Alfredo();
+
+        report("ingredient.random", 0, Pizza::generateRandomIngredient);
+        report("ingredient.equals", 0, () -> olive.equals(sausage));
+        report("ingredient.indexOf", 0, () -> toppings.indexOf(alfredo));
+
+        Map<Ingredient, Integer> byIngredient = new HashMap<>();
+        Map<Money, Integer>      byMoney      = new HashMap<>();
+        Map<Fraction, Integer>   byFraction   = new HashMap<>();
+
+        for(int index = 0; index < toppings.size(); index++) {
+            byIngredient.put(toppings.get(index), index);
+            byMoney.put(toppings.get(index).getCost(), index);
+        }
+
+        for(int denominator = 1; denominator <= 100; denominator++) {
+            byFraction.put(new Fraction(1, denominator), denominator);
+        }
+
+        Money    olivePrice = olive.getCost();
+        Fraction tenth      = new Fraction(1, 10);
+
+        report("hashmap.get.ingredient", 0, () -> byIngredient.get(olive));
+        report("hashmap.get.money", 0, () -> byMoney.get(olivePrice));
+        report("hashmap.get.fraction", 0, () -> byFraction.get(tenth));
+    }
+
+    /**
+     * Measures the operations over collections of the given size.
+     *
+     * @param size The number of pizzas in each collection.
+     */
+    private static void benchmarkCollections(int size) {
+        Pizza[] pizzas = new Pizza[size];
+
+        for(int index = 0; index < size; index++) {
+            pizzas[index] = new Pizza();
+        }
+
+        ArrayList<Pizza> list = new ArrayList<>();
+
+        for(Pizza pizza : pizzas) {
+            list.add(pizza);
+        }
+
+        Pizza extra = new Pizza();
+
+        report("arraylist.insert+remove", size, () -> {
+            list.insert(extra, size / 2);
+            return list.remove(size / 2);
+        });
+
+        report("arraylist.get", size, () ->
+                list.get(ThreadLocalRandom.current().nextInt(size)));
+
+        ChunkedArrayList<Pizza> chunked = new ChunkedArrayList<>();
+
+        for(Pizza pizza : pizzas) {
+            chunked.add(pizza);
+        }
+
+        report("chunked.insert+remove", size, () -> {
+            chunked.insert(extra, size / 2);
+            return chunked.remove(size / 2);
+        });
+
+        report("chunked.get", size, () ->
+                chunked.get(ThreadLocalRandom.current().nextInt(size)));
+
+        report("chunked.snapshot+set", size, () -> {
+            ArrayList<Pizza> snapshot = chunked.snapshot();
+
+            chunked.set(extra, size / 2);
+            return snapshot;
+        });
+
+        report("arraylist.copy", size, () -> {
+            Pizza[] copy = new Pizza[size];
+
+            for(int index = 0; index < size; index++) {
+                copy[index] = list.get(index);
+            }
+
+            return copy;
+        });
+
+        CompositeOrder composite = CompositeOrder.parse("calories,price,size");
+
+        report("sort.merge.calories", size, () -> {
+            Pizza[] copy = pizzas.clone();
+            Arrays.sort(copy, PizzaKey.CALORIES);
+            return copy;
+        });
+
+        report("sort.radix.calories", size, () -> {
+            Pizza[] copy = pizzas.clone();
+            RadixSort.sort(copy, PizzaKey.CALORIES);
+            return copy;
+        });
+
+        report("sort.merge.price", size, () -> {
+            Pizza[] copy = pizzas.clone();
+            Arrays.sort(copy, PizzaKey.PRICE);
+            return copy;
+        });
+
+        report("sort.radix.price", size, () -> {
+            Pizza[] copy = pizzas.clone();
+            RadixSort.sort(copy, PizzaKey.PRICE);
+            return copy;
+        });
+
+        report("sort.composite.calories,price,size", size, () -> {
+            Pizza[] copy = pizzas.clone();
+            composite.sort(copy);
+            return copy;
+        });
+
+        report("topk.select10.price", size, () ->
+                TopK.select(list, 10, PizzaKey.PRICE));
+
+        Pizza last = pizzas[size - 1];
+
+        report("arraylist.indexOf.last", size, () -> list.indexOf(last));
+
+        report("areas.batch", size, () ->
+                ShapeAreas.remainingAreas(pizzas));
+
+        ToppingFilter filter = ToppingFilter.parse("pepperoni", "-olive");
+        ToppingIndex  index  = new ToppingIndex(list);
+
+        report("filter.scan", size, () -> {
+            int count = 0;
+
+            for(Pizza pizza : pizzas) {
+                count += filter.matches(pizza) ? 1 : 0;
+            }
+
+            return count;
+        });
+
+        report("filter.index", size, () ->
+                ToppingIndex.count(index.select(filter)));
+
+        if(size <= SORT_LIMIT) {
+            PizzaManager manager = managerOf(pizzas);
+
+            report("manager.sortByPrice", size, () -> {
+                manager.sortByPrice();
+                return manager;
+            });
+
+            report("manager.sortBySize", size, () -> {
+                manager.sortBySize();
+                return manager;
+            });
+
+            report("manager.sortByCalories", size, () -> {
+                manager.sortByCalories();
+                return manager;
+            });
+        } else {
+            System.out.printf("%-32s %10d %14s%n", "manager.sort*", size,
+                              "skipped");
+        }
+
+        // Sort a copy here rather than with the O(n^2) manager sort, so that
+        // large lists can be searched.
+        Pizza[] byCalories = pizzas.clone();
+        Arrays.sort(byCalories, PizzaKey.CALORIES);
+
+        PizzaManager sorted   = managerOf(byCalories);
+        int          maxCals  = byCalories[size - 1].getCalories();
+
+        report("manager.binarySearchByCalories", size, () ->
+                sorted.binarySearchByCalories(
+                        ThreadLocalRandom.current().nextInt(1, maxCals + 1)));
+    }
+
+    /**
+     * @return A <code>PizzaManager</code> holding the given pizzas in order.
+     */
+    private static PizzaManager managerOf(Pizza[] pizzas) {
+        PizzaManager manager = new PizzaManager();
+
+        for(Pizza pizza : pizzas) {
+            manager.addPizza(pizza);
+        }
+
+        return manager;
+    }
+
+    /**
+     * Measures the given operation and prints its result.
+     */
+    private static void report(String name, int size,
+                               MicroBenchmark.Operation operation) {
+        System.out.println(MicroBenchmark.measure(name, size, WARMUP_MILLIS,
+                                                  MEASURE_MILLIS, operation));
+    }
+
+}
@@ -155,6 +155,32 @@ public class Fraction implements Comparable {
                 && this.getDenominator() == other.getDenominator();
     }
 
+    /**
+     * Compares the given object to <code>this</code> one for equality, as
+     * <code>equals(Fraction)</code> does, so that fractions may be found in
+     * collections and used as keys of hash tables.
+     *
+     * @param other The object to compare to this one.
+     *
+     * @return If the object is a <code>Fraction</code> equal to this one.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Fraction && equals((Fraction) other);
+    }
+
+    /**
+     * Returns a hash code made from the numerator and denominator values,
+     * with corrected signs, consistent with <code>equals</code>. As with
+     * <code>equals</code>, a fraction and its reduced form differ.
+     *
+     * @return The hash code of this fraction.
+     */
+    @Override
+    public int hashCode() {
+        return this.getNumerator() * 31 + this.getDenominator();
+    }
+
     /**
      * @return The fraction as a String of the form A/B where A and B are the
      *         numerator and denominator values of the fraction, respectively.
@@ -5,40 +5,24 @@
  * As it is a child of <code>Cheese</code> and <code>Ingredient</code>, it
  * does not have any methods other than constructors.
  * 
- * All characteristics are pre-defined as private static class constants to
- * be used in construction.
+ * Its cost, calorie count, and description are listed under
+ * <code>"Goat"</code> in the <code>IngredientCatalog</code>.
  * 
  * @author Trystan Cannon
  */
 public final class Goat extends Cheese {
     
     /**
-     * The static cost of <code>Goat</code> objects.
+     * The ID of the <code>Goat</code> kind in the catalog.
      */
-    private static final Money COST = new Money(3, 0);
+    private static final int TYPE_ID = IngredientCatalog.parse("Goat");
     
     /**
-     * The static calorie count of <code>Goat</code> objects.
-     */
-    private static final int CALORIE_COUNT = 408;
-    
-    /**
-     * The static description of <code>Goat</code> objects' physical
-     * characteristics.
-     */
-    private static final String DESCRIPTION =
-            "Goat cheese is s cheese made from goat's milk.";
-    
-    /**
-     * Constructs an <code>Goat</code> object with the pre-defined
-     * class constant characteristics.
-     * 
-     * @see COST
-     * @see CALORIE_COUNT
-     * @see DESCRIPTION
+     * Constructs a <code>Goat</code> object with the characteristics
+     * listed in the catalog.
      */
     public Goat() {
-        super(COST.clone(), CALORIE_COUNT, DESCRIPTION);
+        super(TYPE_ID);
     }
     
 }
@@ -10,43 +10,44 @@
  * comes to strict equality, but when compared for "before" or "after,"
  * only the price is used.
  * 
+ * Every kind of ingredient is listed in the <code>IngredientCatalog</code>
+ * under its own type ID, which is all an ingredient holds; its cost,
+ * calorie count, and description are read from the catalog. Two ingredients
+ * of the same kind are thus alike in every way, so equality and
+ * <code>hashCode</code> compare type IDs alone, in O(1), and ingredients
+ * may be used as keys of hash tables.
+ * 
  * @author Trystan Cannon
  */
 public abstract class Ingredient implements Comparable {
     
     /**
-     * The total cost of this ingredient.
-     */
-    private Money cost;
-    
-    /**
-     * The calorie count contained in one instance of this ingredient.
-     */
-    private int calorieCount;
-    
-    /**
-     * A short description of the physical characteristics of the ingredient.
+     * The ID of this kind of ingredient in the
+     * <code>IngredientCatalog</code>.
      */
-    private String description;
+    private final int typeId;
     
     /**
-     * Constructs a new <code>Ingredient</code> object with the given
-     * cost, calorie count, and description.
+     * Constructs a new <code>Ingredient</code> object of the kind with the
+     * given ID in the <code>IngredientCatalog</code>.
      * 
-     * It is preferred that this constructor go unused, because each
-     * child should have its own static set of these characteristics
-     * which are used when constructing a new instance.
+     * Given an ID of no kind, or of a kind of another category, this
+     * method will throw a <code>PizzaException</code>, detailing the error.
      * 
-     * @param cost The desired cost of the new instance of this ingredient.
-     * @param calorieCount The desired calorie count of the new instance
-     *                     of this ingredient.
-     * @param description The short description of this instance of the
-     *                    ingredient's physical characteristics.
+     * @param typeId The ID of the kind of this ingredient.
+     * @param category The category of this ingredient, which must be that
+     *                 listed for the kind.
      */
-    public Ingredient(Money cost, int calorieCount, String description) {
-        setCost(cost);
-        setCalorieCount(calorieCount);
-        setDescription(description);
+    Ingredient(int typeId, IngredientCategory category) {
+        if(IngredientCatalog.getCategory(typeId) != category) {
+            throw new PizzaException("Cannot make " +
+                                     IngredientCatalog.nameOf(typeId) +
+                                     ", listed as " +
+                                     IngredientCatalog.getCategory(typeId) +
+                                     ", as " + category + ".");
+        }
+        
+        this.typeId = typeId;
     }
     
     /**
@@ -55,83 +56,46 @@ public abstract class Ingredient implements Comparable {
      * @return The current total cost of this ingredient.
      */
     public Money getCost() {
-        return cost.clone();
-    }
-    
-    /**
-     * Returns the current total calorie count of this ingredient.
-     * 
-     * @return The current calorie count of this ingredient.
-     */
-    public int getCalorieCount() {
-        return calorieCount;
+        int cost = getCostInCents();
+        return new Money(cost / 100, cost % 100);
     }
     
     /**
-     * Returns the description regarding the physical characteristics of
-     * this ingredient.
-     * 
-     * @return The description regarding the physical characteristics of
-     *         this ingredient.
+     * @return The total cost of this ingredient, in cents.
      */
-    public String getDescription() {
-        return description;
+    int getCostInCents() {
+        return IngredientCatalog.getCostInCents(typeId);
     }
     
     /**
-     * Sets the cost of this ingredient to the new desired cost.
-     * 
-     * Given an invalid cost (<code>null</code>), this method will throw
-     * a <code>PizzaException</code>, detailing the error.
+     * Returns the current total calorie count of this ingredient.
      * 
-     * @param cost The new desired cost for this ingredient.
+     * @return The current calorie count of this ingredient.
      */
-    private void setCost(Money cost) {
-        if(cost == null) {
-            throw new PizzaException("Cannot set the cost of an Ingredient " +
-                                     "to null.");
-        }
-        
-        this.cost = cost.clone();
+    public int getCalorieCount() {
+        return IngredientCatalog.getCalories(typeId);
     }
     
     /**
-     * Sets the calorie count of this ingredient to the new desired calorie
-     * count.
-     * 
-     * Given an invalid count (<code><=0</code>), this method will throw
-     * a <code>PizzaException</code>, detailing the error.
+     * Returns the ID of this kind of ingredient, the same for every
+     * instance of the same kind, such as every <code>Olive</code>.
      * 
-     * @param calorieCount The new desired calorie count for this ingredient.
+     * @return The ID of this kind of ingredient, from zero to
+     *         <code>IngredientCatalog.count() - 1</code>.
      */
-    private final void setCalorieCount(int calorieCount) {
-        if(calorieCount <= 0) {
-            throw new PizzaException("Cannot set the calorie count of an " +
-                                     "Ingredient to a number <= zero.");
-        }
-        
-        this.calorieCount = calorieCount;
+    public int getTypeId() {
+        return typeId;
     }
     
     /**
-     * Sets the description of this ingredient's physical characteristics to
-     * the new desired description.
-     * 
-     * Given an invalid description (<code>null</code> or
-     * <code>length() == 0</code>), this method will throw a
-     * <code>PizzaException</code>, detailing the error.
+     * Returns the description regarding the physical characteristics of
+     * this ingredient.
      * 
-     * @param description The new desired description of this ingredient's
-     *                    physical characteristics.
+     * @return The description regarding the physical characteristics of
+     *         this ingredient.
      */
-    private final void setDescription(String description) {
-        if(description == null || description.length() == 0) {
-            throw new PizzaException("Cannot set the description of an " +
-                                     "Ingredient to null or an empty " +
-                                     "String.");
-        }
-        
-        this.description = description;
+    public String getDescription() {
+        return IngredientCatalog.getDescription(typeId);
     }
     
     /**
@@ -142,8 +106,8 @@ public abstract class Ingredient implements Comparable {
      */
     @Override
     public String toString() {
-        return description + "; cost: " + cost.toString() +
-               "; calories: " + calorieCount;
+        return getDescription() + "; cost: " + getCost() +
+               "; calories: " + getCalorieCount();
     }
     
     /**
@@ -170,36 +134,44 @@ public abstract class Ingredient implements Comparable {
                                      "ingredient object.");
         }
         
-        return this.cost.compareTo(((Ingredient) other).cost);
+        return Integer.signum(this.getCostInCents() -
+                              ((Ingredient) other).getCostInCents());
     }
     
     /**
      * Compares the given ingredient to this one for strict equality, meaning
-     * that their cost, calorie count, and descriptions must be the same.
-     * 
-     * Given a <code>null</code> or non-<code>Ingredient</code> object,
-     * this method will throw a <code>PizzaException</code> detailing the
-     * error.
+     * that they must be of the same kind, and so have the same cost, calorie
+     * count, and description.
      * 
      * @param other The other <code>Ingredient</code> object to compare to
      *              this one for strict equality.
      * 
-     * @return <code>true</code> if the given ingredient's cost, calorie
-     *         count, and description are the same as this ingredient;
-     *         <code>false</code> if not.
+     * @return <code>true</code> if the given ingredient is of the same kind
+     *         as this ingredient; <code>false</code> if not, or if the given
+     *         object is not an <code>Ingredient</code>.
      */
     @Override
     public boolean equals(Object other) {
-        if(other == null || !(other instanceof Ingredient)) {
-            throw new PizzaException("Cannot compare non-Ingredient objects " + 
-                                     "to an Ingredient object.");
+        if(other == this) {
+            return true;
         }
         
-        Ingredient that = (Ingredient) other;
+        if(!(other instanceof Ingredient)) {
+            return false;
+        }
         
-        return this.cost.equals(that.cost) &&
-               this.calorieCount == that.calorieCount &&
-               this.description.equals(that.description);
+        return this.typeId == ((Ingredient) other).typeId;
+    }
+    
+    /**
+     * Returns the type ID of this ingredient as its hash code, consistent
+     * with <code>equals</code>.
+     * 
+     * @return The hash code of this ingredient.
+     */
+    @Override
+    public int hashCode() {
+        return typeId;
     }
     
 }
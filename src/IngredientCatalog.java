@@ -0,0 +1,488 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class is the table of every kind of ingredient, such as
+ * <code>Pepperoni</code> or <code>Olive</code>, read from a data file when
+ * the program starts so that toppings may be added without recompiling.
+ *
+ * Each kind has a small integer ID, its index in the table, so that the
+ * toppings of a pizza fit in the bits of one <code>long</code>. For each ID
+ * the table holds, in parallel arrays:
+ *     - the name, such as <code>"Pepperoni"</code>
+ *     - the category: meat, cheese, base, or vegetable
+ *     - the cost in cents and the calories
+ *     - the popularity, a weight by which random kinds are chosen
+ *     - the color, for vegetables
+ *     - the description, interned so that every ingredient of a kind
+ *       shares one <code>String</code>
+ *
+ * An <code>Ingredient</code> holds nothing but its ID and reads the rest
+ * from here, and the classes of the original kinds, such as
+ * <code>Olive</code>, only look up their own IDs. A kind listed in the file
+ * with no class of its own is made as a plain ingredient of its category.
+ *
+ * The table is read from the file named by the <code>pizza.ingredients</code>
+ * system property, or else from <code>DEFAULT_FILE</code> if it exists, or
+ * else from the original eight kinds built in. A file which cannot be read
+ * stops the program from starting with a <code>PizzaException</code>
+ * detailing the error; see <code>DEFAULT_FILE</code> for its format.
+ *
+ * The table never changes once read, so it may be read from any thread.
+ *
+ * @author Trystan Cannon
+ */
+public final class IngredientCatalog {
+
+    /**
+     * The most kinds of ingredient which may be listed, one for each bit of
+     * a <code>long</code>.
+     */
+    public static final int MAX_TYPES = Long.SIZE;
+
+    /**
+     * The file read when the <code>pizza.ingredients</code> property is not
+     * set, relative to the working directory. Each line not blank or
+     * beginning with <code>'#'</code> lists one kind, with fields separated
+     * by <code>'|'</code>:
+     * <code>name | category | cents | calories | weight | color |
+     * description</code>, where <code>color</code> is
+     * <code>#RRGGBB</code> for a vegetable and <code>-</code> otherwise.
+     */
+    public static final String DEFAULT_FILE = "data/ingredients.txt";
+
+    /**
+     * The original eight kinds, read when there is no file.
+     */
+    private static final String DEFAULTS =
+            "Alfredo | base | 300 | 322 | 1 | - | Alfredo sauce is melted " +
+            "Parmesan cheese that has emulsified butter to form a smooth and " +
+            "rich substance.\n" +
+            "Goat | cheese | 300 | 408 | 1 | - | Goat cheese is s cheese " +
+            "made from goat's milk.\n" +
+            "Marinara | base | 250 | 260 | 1 | - | Marinara sauce is an " +
+            "Italian sauce that originated in Naples, usually made with " +
+            "tomatoes, garlic, herbs, and onions. Its many variations can " +
+            "include the addition of capers, olives and spices. It is " +
+            "occasionally sweetened with a dash of red wine.\n" +
+            "Mozzarella | cheese | 225 | 360 | 1 | - | A southern Italian " +
+            "cheese traditionally made from Italianbuffalo milk by the pasta " +
+            "filata method.\n" +
+            "Olive | vegetable | 375 | 16 | 1 | #000000 | An Olive is a " +
+            "small black drupe.\n" +
+            "Pepper | vegetable | 450 | 72 | 1 | #FF0000 | (Bell) Pepper is " +
+            "a cultivar group of the species Capsicum annuum. Each pepper is " +
+            "sliced into eigths and is fresh and crisp.\n" +
+            "Pepperoni | meat | 300 | 300 | 1 | - | Pepperoni, also known as " +
+            "pepperoni sausage, is an American variety of salami, usually " +
+            "made from cured pork and beef mixed together. Pepperoni is " +
+            "characteristically soft, slightly smoky, and bright red in " +
+            "color.\n" +
+            "Sausage | meat | 450 | 782 | 1 | - | In the United States, " +
+            "Italian sausage most often refers to a style of pork sausage " +
+            "noted for being seasoned with fennel and/or anise as the " +
+            "primary seasoning.\n";
+
+    /**
+     * The number of fields on each line of the file.
+     */
+    private static final int FIELDS = 7;
+
+    /**
+     * The name of each kind.
+     */
+    private static final String[] names = new String[MAX_TYPES];
+
+    /**
+     * The category of each kind, as the ordinal of an
+     * <code>IngredientCategory</code>.
+     */
+    private static final byte[] categories = new byte[MAX_TYPES];
+
+    /**
+     * The cost of each kind, in cents.
+     */
+    private static final int[] cents = new int[MAX_TYPES];
+
+    /**
+     * The calories of each kind.
+     */
+    private static final int[] calories = new int[MAX_TYPES];
+
+    /**
+     * The popularity of each kind.
+     */
+    private static final double[] weights = new double[MAX_TYPES];
+
+    /**
+     * The color of each vegetable, or <code>null</code> for other kinds.
+     */
+    private static final Color[] colors = new Color[MAX_TYPES];
+
+    /**
+     * The interned description of each kind.
+     */
+    private static final String[] descriptions = new String[MAX_TYPES];
+
+    /**
+     * The number of kinds listed.
+     */
+    private static int numTypes = 0;
+
+    /**
+     * Chooses kinds at random by popularity.
+     */
+    private static final AliasSampler sampler;
+
+    static {
+        String property = System.getProperty("pizza.ingredients");
+        String source   = property != null ? property : DEFAULT_FILE;
+
+        if(property != null || new File(source).isFile()) {
+            try(Reader input = new FileReader(source)) {
+                load(input, source);
+            } catch(IOException error) {
+                throw new PizzaException("Cannot read the ingredient " +
+                                         "catalog " + source + ": " +
+                                         error.getMessage());
+            }
+        } else {
+            try {
+                load(new StringReader(DEFAULTS), "the built-in catalog");
+            } catch(IOException impossible) {
+                throw new PizzaException(impossible.getMessage());
+            }
+        }
+
+        if(numTypes == 0) {
+            throw new PizzaException("The ingredient catalog " + source +
+                                     " lists no ingredients.");
+        }
+
+        sampler = new AliasSampler(Arrays.copyOf(weights, numTypes));
+    }
+
+    /**
+     * A kind of meat with no class of its own.
+     */
+    private static final class CatalogMeat extends Meat {
+
+        CatalogMeat(int typeId) {
+            super(typeId);
+        }
+
+    }
+
+    /**
+     * A kind of cheese with no class of its own.
+     */
+    private static final class CatalogCheese extends Cheese {
+
+        CatalogCheese(int typeId) {
+            super(typeId);
+        }
+
+    }
+
+    /**
+     * A kind of base with no class of its own.
+     */
+    private static final class CatalogBase extends Base {
+
+        CatalogBase(int typeId) {
+            super(typeId);
+        }
+
+    }
+
+    /**
+     * A kind of vegetable with no class of its own.
+     */
+    private static final class CatalogVegetable extends Vegetable {
+
+        CatalogVegetable(int typeId) {
+            super(typeId);
+        }
+
+    }
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private IngredientCatalog() {
+    }
+
+    /**
+     * Reads every kind listed by the given input.
+     */
+    private static void load(Reader input, String source) throws IOException {
+        BufferedReader lines = new BufferedReader(input);
+        int            number = 0;
+
+        for(String line = lines.readLine(); line != null;
+            line = lines.readLine()) {
+            number++;
+
+            if(line.isBlank() || line.trim().startsWith("#")) {
+                continue;
+            }
+
+            try {
+                define(line.split("\\|", FIELDS));
+            } catch(RuntimeException error) {
+                throw new PizzaException("Line " + number + " of " + source +
+                                         ": " + error.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds the kind described by the given fields of a line to the table.
+     */
+    private static void define(String[] fields) {
+        if(fields.length != FIELDS) {
+            throw new PizzaException("Expected " + FIELDS + " fields " +
+                                     "separated by '|'.");
+        }
+
+        for(int field = 0; field < FIELDS; field++) {
+            fields[field] = fields[field].trim();
+        }
+
+        String             name     = fields[0];
+        IngredientCategory category = IngredientCategory.parse(fields[1]);
+        int                cost     = Integer.parseInt(fields[2]);
+        int                energy   = Integer.parseInt(fields[3]);
+        double             weight   = Double.parseDouble(fields[4]);
+        boolean            colored  = category == IngredientCategory.VEGETABLE;
+
+        if(name.isEmpty() || find(name) != -1) {
+            throw new PizzaException("The name \"" + name + "\" is empty or " +
+                                     "already listed.");
+        }
+
+        if(numTypes == MAX_TYPES) {
+            throw new PizzaException("Cannot list more than " + MAX_TYPES +
+                                     " kinds of ingredient.");
+        }
+
+        if(cost < 0 || energy <= 0 || !(weight >= 0) ||
+           Double.isInfinite(weight)) {
+            throw new PizzaException("The cost and weight cannot be " +
+                                     "negative, and the calories must be " +
+                                     "positive.");
+        }
+
+        if(colored == fields[5].equals("-") || fields[6].isEmpty()) {
+            throw new PizzaException("Only a vegetable has a color, and " +
+                                     "every kind has a description.");
+        }
+
+        names[numTypes]        = name;
+        categories[numTypes]   = (byte) category.ordinal();
+        cents[numTypes]        = cost;
+        calories[numTypes]     = energy;
+        weights[numTypes]      = weight;
+        colors[numTypes]       = colored ? Color.decode(fields[5]) : null;
+        descriptions[numTypes] = fields[6].intern();
+        numTypes++;
+    }
+
+    /**
+     * @return The ID of the kind with the given name, ignoring case, or
+     *         <code>-1</code> if there is none.
+     */
+    private static int find(String name) {
+        for(int id = 0; id < numTypes; id++) {
+            if(names[id].equalsIgnoreCase(name)) {
+                return id;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The number of kinds of ingredient listed.
+     */
+    public static int count() {
+        return numTypes;
+    }
+
+    /**
+     * Finds the ID of the kind with the given name, ignoring case, such as
+     * <code>"pepperoni"</code>.
+     *
+     * Given a name matching no kind, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param name The name of the kind.
+     *
+     * @return The ID of the kind.
+     */
+    public static int parse(String name) {
+        int id = find(name);
+
+        if(id == -1) {
+            throw new PizzaException("There is no topping \"" + name + "\".");
+        }
+
+        return id;
+    }
+
+    /**
+     * Checks that the given ID is that of a kind listed.
+     *
+     * Given an ID of no kind, a <code>PizzaException</code> is thrown
+     * detailing the error.
+     *
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The ID given.
+     */
+    public static int check(int id) {
+        if(id < 0 || id >= numTypes) {
+            throw new PizzaException("There is no topping " + id + ".");
+        }
+
+        return id;
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The name of the kind, such as <code>"Pepperoni"</code>.
+     */
+    public static String nameOf(int id) {
+        return names[check(id)];
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The category of the kind.
+     */
+    public static IngredientCategory getCategory(int id) {
+        return IngredientCategory.values()[categories[check(id)]];
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The cost of one ingredient of the kind, in cents.
+     */
+    public static int getCostInCents(int id) {
+        return cents[check(id)];
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The calories of one ingredient of the kind.
+     */
+    public static int getCalories(int id) {
+        return calories[check(id)];
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The popularity of the kind relative to the others.
+     */
+    public static double getWeight(int id) {
+        return weights[check(id)];
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The color of the kind, or <code>null</code> if it is not a
+     *         vegetable.
+     */
+    public static Color getColor(int id) {
+        return colors[check(id)];
+    }
+
+    /**
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return The description of the kind, the same <code>String</code>
+     *         for every ingredient of it.
+     */
+    public static String getDescription(int id) {
+        return descriptions[check(id)];
+    }
+
+    /**
+     * Chooses the ID of a kind at random, each as often as its weight
+     * relative to the others, in O(1).
+     *
+     * @return The ID of a kind of ingredient.
+     */
+    public static int sample() {
+        return sampler.sample();
+    }
+
+    /**
+     * Chooses the ID of a kind at random with the given source of random
+     * numbers, as <code>sample()</code> does.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return The ID of a kind of ingredient.
+     */
+    public static int sample(RandomGenerator random) {
+        return sampler.sample(random);
+    }
+
+    /**
+     * Makes an ingredient of the kind with the given ID, of the kind's own
+     * class if it has one, such as <code>Olive</code>, and otherwise a plain
+     * ingredient of its category.
+     *
+     * @param id The ID of a kind of ingredient.
+     *
+     * @return A new ingredient of the kind.
+     */
+    public static Ingredient create(int id) {
+        switch(nameOf(id)) {
+            case "Alfredo":
+                return new Alfredo();
+            case "Goat":
+                return new Goat();
+            case "Marinara":
+                return new Marinara();
+            case "Mozzarella":
+                return new Mozzarella();
+            case "Olive":
+                return new Olive();
+            case "Pepper":
+                return new Pepper();
+            case "Pepperoni":
+                return new Pepperoni();
+            case "Sausage":
+                return new Sausage();
+            default:
+                break;
+        }
+
+        switch(getCategory(id)) {
+            case MEAT:
+                return new CatalogMeat(id);
+            case CHEESE:
+                return new CatalogCheese(id);
+            case BASE:
+                return new CatalogBase(id);
+            default:
+                return new CatalogVegetable(id);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+/**
+ * This enumeration names the four categories of ingredient, each matching
+ * the abstract class from which the ingredients of that category are
+ * derived.
+ *
+ * @author Trystan Cannon
+ */
+public enum IngredientCategory {
+
+    /**
+     * An ingredient derived from <code>Meat</code>.
+     */
+    MEAT,
+
+    /**
+     * An ingredient derived from <code>Cheese</code>.
+     */
+    CHEESE,
+
+    /**
+     * An ingredient derived from <code>Base</code>, such as a sauce.
+     */
+    BASE,
+
+    /**
+     * An ingredient derived from <code>Vegetable</code>, which has a color.
+     */
+    VEGETABLE;
+
+    /**
+     * Finds the category with the given name, ignoring case, as written in
+     * the ingredient catalog.
+     *
+     * Given a name matching no category, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param name The name of the category.
+     *
+     * @return The category with the given name.
+     */
+    public static IngredientCategory parse(String name) {
+        for(IngredientCategory category : values()) {
+            if(category.name().equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+
+        throw new PizzaException("There is no ingredient category \"" +
+                                 name + "\".");
+    }
+
+}
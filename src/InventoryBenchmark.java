@@ -0,0 +1,134 @@
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class measures how many adds and eats per second a
+ * <code>PizzaInventory</code> can sustain as the number of threads grows.
+ *
+ * For each thread count from 1 to 64, doubling each time, every thread
+ * repeatedly adds a pizza and then eats the whole of a pizza chosen with
+ * <code>idNear</code>, for a fixed length of time, so the inventory stays
+ * about the same size throughout. The same run is made against a
+ * <code>LockedPizzaInventory</code>, which is one list behind one lock as in
+ * <code>PizzaManager</code>, against a single-shard
+ * <code>ShardedPizzaInventory</code>, which is one tree map behind one lock,
+ * against a <code>ShardedPizzaInventory</code> of several shards, and
+ * against the lock-free <code>ConcurrentPizzaInventory</code>.
+ *
+ * The pizzas added carry no ingredients, so that the inventory rather than
+ * <code>Pizza</code>'s constructor is being measured.
+ *
+ * @author Trystan Cannon
+ */
+public class InventoryBenchmark {
+
+    /**
+     * The greatest number of threads to measure.
+     */
+    public static final int MAX_THREADS = 64;
+
+    /**
+     * The default number of shards of the sharded inventory.
+     */
+    public static final int DEFAULT_SHARDS = 64;
+
+    /**
+     * The default length of each measurement, in milliseconds.
+     */
+    public static final int DEFAULT_MILLIS = 500;
+
+    /**
+     * Runs the benchmark and prints one line per thread count.
+     *
+     * @param args Optionally, the number of shards and then the length of
+     *             each measurement in milliseconds.
+     *
+     * @throws Exception If a measurement is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        int numShards = args.length > 0 ? Integer.parseInt(args[0]) :
+                                          DEFAULT_SHARDS;
+        int millis    = args.length > 1 ? Integer.parseInt(args[1]) :
+                                          DEFAULT_MILLIS;
+
+        System.out.printf("%-8s %16s %16s %16s %16s%n", "threads",
+                          "locked list", "1 shard", numShards + " shards",
+                          "lock-free");
+
+        for(int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            double locked     = measure(new LockedPizzaInventory(),
+                                        threads, millis);
+            double single     = measure(new ShardedPizzaInventory(1),
+                                        threads, millis);
+            double sharded    = measure(new ShardedPizzaInventory(numShards),
+                                        threads, millis);
+            double concurrent = measure(new ConcurrentPizzaInventory(),
+                                        threads, millis);
+
+            System.out.printf("%-8d %14.0f/s %14.0f/s %14.0f/s %14.0f/s%n",
+                              threads, locked, single, sharded, concurrent);
+        }
+    }
+
+    /**
+     * Measures the adds and eats per second the given inventory sustains
+     * with the given number of threads.
+     *
+     * @param inventory The inventory to measure, which should start empty.
+     * @param numThreads The number of threads adding and eating at once.
+     * @param millis The length of the measurement, in milliseconds.
+     *
+     * @return The number of adds and eats per second, together.
+     *
+     * @throws Exception If the measurement is interrupted.
+     */
+    public static double measure(PizzaInventory inventory, int numThreads,
+                                 int millis) throws Exception {
+        LongAdder     operations = new LongAdder();
+        CyclicBarrier start      = new CyclicBarrier(numThreads + 1);
+        Thread[]      threads    = new Thread[numThreads];
+        long[]        stopTime   = new long[1];
+        Fraction      whole      = new Fraction(1, 1);
+
+        for(int index = 0; index < numThreads; index++) {
+            threads[index] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long              count  = 0;
+
+                try {
+                    start.await();
+                } catch(Exception interrupted) {
+                    return;
+                }
+
+                while(System.nanoTime() < stopTime[0]) {
+                    inventory.add(new Pizza(new Circle(0, 0, 1)));
+
+                    long id = inventory.idNear(random.nextLong(Long.MAX_VALUE));
+
+                    try {
+                        inventory.eat(id, whole);
+                    } catch(PizzaException tooLate) {
+                        // Another thread finished it first; still a try.
+                    }
+
+                    count += 2;
+                }
+
+                operations.add(count);
+            });
+            threads[index].start();
+        }
+
+        stopTime[0] = System.nanoTime() + millis * 1_000_000L;
+        start.await();
+
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        return operations.sum() / (millis / 1000.0);
+    }
+
+}
@@ -0,0 +1,425 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * This class draws pizzas, each scaled into a square tile, onto sheets of
+ * tiles written as PNG images, without a display.
+ *
+ * A sheet may hold a hundred thousand pizzas or more, far too many pixels
+ * to draw into one <code>BufferedImage</code>. So each sheet is cut into
+ * bands one row of tiles high, and each band is drawn into its own small
+ * image, filtered, and compressed by one of a pool of threads. The bands
+ * are compressed as independent pieces of one zlib stream, each ending
+ * on a byte boundary, so their bytes simply follow one another in the
+ * PNG, and the checksum of the whole is combined from that of each band.
+ * Only a few bands per thread are drawn ahead of the band being written,
+ * so memory stays bounded by the width of a sheet however many pizzas it
+ * holds.
+ *
+ * Drawing only needs <code>java.awt.image</code>, which works with
+ * <code>java.awt.headless=true</code>; <code>main</code> sets it if it is
+ * not set already.
+ *
+ * @author Trystan Cannon
+ */
+public class InventoryRenderer {
+
+    /**
+     * The width and height of each tile, in pixels, when none is given.
+     */
+    public static final int DEFAULT_TILE_SIZE = 32;
+
+    /**
+     * The most pizzas drawn on one sheet when no limit is given.
+     */
+    public static final int DEFAULT_PIZZAS_PER_SHEET = 100_000;
+
+    /**
+     * The number of bands each thread may draw ahead of the band being
+     * written.
+     */
+    private static final int BANDS_AHEAD_PER_THREAD = 2;
+
+    /**
+     * The color behind the pizzas.
+     */
+    private static final Color BACKGROUND = Color.WHITE;
+
+    /**
+     * The signature beginning every PNG file.
+     */
+    private static final byte[] PNG_SIGNATURE = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+
+    /**
+     * The largest prime less than 2^16, the modulus of an Adler-32 checksum.
+     */
+    private static final int ADLER_BASE = 65521;
+
+    /**
+     * The width and height of each tile, in pixels.
+     */
+    private final int tileSize;
+
+    /**
+     * The number of threads drawing bands.
+     */
+    private final int numThreads;
+
+    /**
+     * One band of a sheet, drawn, filtered, and compressed.
+     */
+    private static final class Band {
+
+        byte[] compressed;
+
+        int checksum;
+
+        long length;
+
+    }
+
+    /**
+     * Constructs a renderer with tiles of the given size, drawing with the
+     * given number of threads.
+     *
+     * Given a tile size or number of threads which is not positive, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param tileSize The width and height of each tile, in pixels.
+     * @param numThreads The number of threads drawing bands.
+     */
+    public InventoryRenderer(int tileSize, int numThreads) {
+        if(tileSize <= 0 || numThreads <= 0) {
+            throw new PizzaException("Cannot render tiles of size " +
+                                     tileSize + " with " + numThreads +
+                                     " threads.");
+        }
+
+        this.tileSize   = tileSize;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Draws the given pizzas onto as many sheets as needed, writing sheet
+     * <code>n</code> to <code>prefix-n.png</code>.
+     *
+     * The pizzas are read by a pool of threads, so the list must not change
+     * until this returns; give a <code>ChunkedArrayList</code> snapshot to
+     * draw a list which is still being changed.
+     *
+     * @param pizzas The pizzas to draw, in order.
+     * @param pizzasPerSheet The most pizzas drawn on one sheet.
+     * @param prefix The path of each sheet, before its number.
+     *
+     * @return The number of sheets written.
+     *
+     * @throws IOException If a sheet cannot be written.
+     */
+    public int renderSheets(ArrayList<Pizza> pizzas, int pizzasPerSheet,
+                            String prefix) throws IOException {
+        if(pizzasPerSheet <= 0) {
+            throw new PizzaException("Cannot draw " + pizzasPerSheet +
+                                     " pizzas per sheet.");
+        }
+
+        int numSheets = Math.max(1, (pizzas.size() + pizzasPerSheet - 1) /
+                                    pizzasPerSheet);
+
+        for(int sheet = 0; sheet < numSheets; sheet++) {
+            int from = sheet * pizzasPerSheet;
+            int to   = Math.min(pizzas.size(), from + pizzasPerSheet);
+
+            try(OutputStream out = new BufferedOutputStream(
+                    new FileOutputStream(prefix + "-" + sheet + ".png"))) {
+                render(pizzas, from, to, out);
+            }
+        }
+
+        return numSheets;
+    }
+
+    /**
+     * Draws the pizzas <code>[from, to)</code> onto one sheet, as close to
+     * square as whole rows of tiles allow, and writes it as a PNG.
+     *
+     * @param pizzas The pizzas, in order.
+     * @param from The index of the first pizza drawn.
+     * @param to The index after the last pizza drawn.
+     * @param out The stream to which the PNG is written; it is not closed.
+     *
+     * @throws IOException If the PNG cannot be written.
+     */
+    public void render(ArrayList<Pizza> pizzas, int from, int to,
+                       OutputStream out)
+            throws IOException {
+        int count    = to - from;
+        int columns  = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        int numBands = Math.max(1, (count + columns - 1) / columns);
+        int width    = columns * tileSize;
+
+        DataOutputStream png = new DataOutputStream(out);
+
+        png.write(PNG_SIGNATURE);
+        writeHeader(png, width, numBands * tileSize);
+
+        ExecutorService          pool     = Executors.newFixedThreadPool(
+                                                    numThreads);
+        ArrayDeque<Future<Band>> ahead    = new ArrayDeque<>();
+        int                      checksum = 1;
+        int                      next     = 0;
+
+        try {
+            // The zlib header: deflate with a 32K window, default level.
+            writeChunk(png, "IDAT", new byte[] {0x78, (byte) 0x9C});
+
+            for(int band = 0; band < numBands; band++) {
+                while(next < numBands &&
+                      ahead.size() < numThreads * BANDS_AHEAD_PER_THREAD) {
+                    int     bandFrom = from + next * columns;
+                    int     bandTo   = Math.min(to, bandFrom + columns);
+                    boolean last     = next == numBands - 1;
+
+                    ahead.add(pool.submit(() -> drawBand(pizzas, bandFrom,
+                                                         bandTo, width,
+                                                         last)));
+                    next++;
+                }
+
+                Band drawn = ahead.poll().get();
+
+                checksum = combineAdler(checksum, drawn.checksum,
+                                        drawn.length);
+                writeChunk(png, "IDAT", drawn.compressed);
+            }
+        } catch(InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Rendering was interrupted.", interrupted);
+        } catch(ExecutionException failed) {
+            throw new IOException("A band could not be drawn.",
+                                  failed.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        writeChunk(png, "IDAT", new byte[] {
+            (byte) (checksum >>> 24), (byte) (checksum >>> 16),
+            (byte) (checksum >>> 8), (byte) checksum
+        });
+        writeChunk(png, "IEND", new byte[0]);
+        png.flush();
+    }
+
+    /**
+     * Draws one row of tiles, then filters and compresses its pixels.
+     *
+     * @param last Whether this band ends the sheet, and so its zlib stream.
+     */
+    private Band drawBand(ArrayList<Pizza> pizzas, int from, int to,
+                          int width, boolean last) {
+        BufferedImage image    = new BufferedImage(width, tileSize,
+                                                   BufferedImage.TYPE_INT_RGB);
+        Graphics2D    graphics = image.createGraphics();
+
+        graphics.setColor(BACKGROUND);
+        graphics.fillRect(0, 0, width, tileSize);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                                  RenderingHints.VALUE_ANTIALIAS_ON);
+
+        for(int index = from; index < to; index++) {
+            Pizza      pizza = pizzas.get(index);
+            Shape      shape = pizza.getShape();
+            int        size  = Math.max(shape.getRight() - shape.getLeft(),
+                                        shape.getBottom() - shape.getTop());
+            Graphics2D tile  = (Graphics2D) graphics.create(
+                                       (index - from) * tileSize, 0,
+                                       tileSize, tileSize);
+
+            // Leave a pixel of margin so neighboring pizzas do not touch.
+            tile.translate(1, 1);
+            tile.scale((tileSize - 2) / (double) Math.max(1, size),
+                       (tileSize - 2) / (double) Math.max(1, size));
+            tile.translate(-shape.getLeft(), -shape.getTop());
+            pizza.draw(tile);
+            tile.dispose();
+        }
+
+        graphics.dispose();
+
+        int[]  pixels   = ((DataBufferInt) image.getRaster()
+                                                .getDataBuffer()).getData();
+        int    rowBytes = 1 + width * 3;
+        byte[] filtered = new byte[tileSize * rowBytes];
+
+        for(int row = 0; row < tileSize; row++) {
+            int start = row * rowBytes;
+
+            // The Sub filter stores each byte less the one to its left,
+            // leaving runs of zeroes wherever the color is flat.
+            filtered[start] = 1;
+
+            int left = 0;
+
+            for(int column = 0; column < width; column++) {
+                int pixel = pixels[row * width + column];
+                int at    = start + 1 + column * 3;
+
+                filtered[at]     = (byte) ((pixel >>> 16) - (left >>> 16));
+                filtered[at + 1] = (byte) ((pixel >>> 8) - (left >>> 8));
+                filtered[at + 2] = (byte) (pixel - left);
+                left             = pixel;
+            }
+        }
+
+        Band     band     = new Band();
+        Adler32  adler    = new Adler32();
+        byte[]   buffer   = new byte[64 * 1024];
+        // Raw deflate; the zlib header and checksum are written around it.
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        adler.update(filtered);
+        deflater.setInput(filtered);
+
+        if(last) {
+            deflater.finish();
+        }
+
+        int flush = last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH;
+        int written;
+
+        do {
+            written = deflater.deflate(buffer, 0, buffer.length, flush);
+            compressed.write(buffer, 0, written);
+        } while(last ? !deflater.finished() : written == buffer.length);
+
+        deflater.end();
+
+        band.compressed = compressed.toByteArray();
+        band.checksum   = (int) adler.getValue();
+        band.length     = filtered.length;
+
+        return band;
+    }
+
+    /**
+     * Writes the IHDR chunk of an 8-bit RGB image of the given size.
+     */
+    private static void writeHeader(DataOutputStream png, int width,
+                                    int height) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream      data   = new DataOutputStream(header);
+
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeByte(8);   // bits per sample
+        data.writeByte(2);   // RGB
+        data.writeByte(0);   // deflate
+        data.writeByte(0);   // adaptive filtering
+        data.writeByte(0);   // not interlaced
+
+        writeChunk(png, "IHDR", header.toByteArray());
+    }
+
+    /**
+     * Writes one chunk: its length, type, data, and CRC.
+     */
+    private static void writeChunk(DataOutputStream png, String type,
+                                   byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes("US-ASCII");
+        CRC32  crc       = new CRC32();
+
+        crc.update(typeBytes);
+        crc.update(data);
+
+        png.writeInt(data.length);
+        png.write(typeBytes);
+        png.write(data);
+        png.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two pieces of data into that of
+     * the first followed by the second, as zlib's
+     * <code>adler32_combine</code> does.
+     *
+     * @param first The checksum of the first piece.
+     * @param second The checksum of the second piece.
+     * @param secondLength The length of the second piece.
+     *
+     * @return The checksum of both pieces together.
+     */
+    private static int combineAdler(int first, int second,
+                                    long secondLength) {
+        long remainder = secondLength % ADLER_BASE;
+        long sum1      = first & 0xFFFF;
+        long sum2      = (remainder * sum1) % ADLER_BASE;
+
+        sum1 += (second & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((first >>> 16) & 0xFFFF) + ((second >>> 16) & 0xFFFF) +
+                ADLER_BASE - remainder;
+
+        sum1 %= ADLER_BASE;
+        sum2 %= ADLER_BASE;
+
+        return (int) (sum1 | (sum2 << 16));
+    }
+
+    /**
+     * Draws random pizzas onto sheets, printing how long it took.
+     *
+     * @param args The number of pizzas (by default 100,000), the tile size,
+     *             and the path prefix of the sheets (by default
+     *             <code>pizzas</code>).
+     *
+     * @throws IOException If a sheet cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if(System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        int    count    = args.length > 0 ? Integer.parseInt(args[0]) :
+                                            DEFAULT_PIZZAS_PER_SHEET;
+        int    tileSize = args.length > 1 ? Integer.parseInt(args[1]) :
+                                            DEFAULT_TILE_SIZE;
+        String prefix   = args.length > 2 ? args[2] : "pizzas";
+
+        ArrayList<Pizza> pizzas = new ArrayList<>();
+
+        for(int index = 0; index < count; index++) {
+            pizzas.add(new Pizza());
+        }
+
+        InventoryRenderer renderer =
+                new InventoryRenderer(tileSize,
+                                      Runtime.getRuntime()
+                                             .availableProcessors());
+        long start  = System.nanoTime();
+        int  sheets = renderer.renderSheets(pizzas, DEFAULT_PIZZAS_PER_SHEET,
+                                            prefix);
+
+        System.out.printf("%d pizzas on %d sheets in %.1f ms%n", count,
+                          sheets, (System.nanoTime() - start) / 1e6);
+    }
+
+}
@@ -0,0 +1,285 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class keeps running aggregates over a collection of pizzas: the
+ * total, mean, least, and greatest cost, calories, and remaining area, and
+ * the number of pizzas of each shape and of each kind of ingredient.
+ *
+ * Rather than looping over every pizza when asked, the aggregates are
+ * updated as pizzas are added, eaten, and removed, so that
+ * <code>report</code> costs the same at any inventory size. Totals and
+ * counts are updated in O(1). The least and greatest values are read from
+ * a count of each distinct value kept in a <code>TreeMap</code>, which makes
+ * an update O(log d) in the number of distinct values d rather than O(1),
+ * since a removed pizza may have been the only one holding the minimum.
+ * Costs and calories are whole numbers over small ranges, so d stays small.
+ *
+ * Whoever owns the collection must call <code>add</code>,
+ * <code>areaChanged</code>, and <code>remove</code> for every change to it.
+ * This class is not safe for use by several threads at once, although the
+ * totals may be read from another thread, such as to report metrics, and
+ * be at worst a moment out of date.
+ *
+ * @author Trystan Cannon
+ */
+public class InventoryStats {
+
+    /**
+     * The number of pizzas.
+     */
+    private volatile int count = 0;
+
+    /**
+     * The total cost of every pizza, in cents.
+     */
+    private volatile long totalCents = 0;
+
+    /**
+     * The total calories of every pizza.
+     */
+    private volatile long totalCalories = 0;
+
+    /**
+     * The total remaining area of every pizza.
+     */
+    private volatile double totalArea = 0;
+
+    /**
+     * The number of pizzas of each cost, in cents.
+     */
+    private final TreeMap<Long, Integer> costs = new TreeMap<>();
+
+    /**
+     * The number of pizzas of each calorie count.
+     */
+    private final TreeMap<Integer, Integer> calories = new TreeMap<>();
+
+    /**
+     * The number of pizzas of each remaining area.
+     */
+    private final TreeMap<Double, Integer> areas = new TreeMap<>();
+
+    /**
+     * The number of pizzas of each shape, by class name.
+     */
+    private final Map<String, Integer> shapes = new TreeMap<>();
+
+    /**
+     * The number of ingredients of each kind across every pizza, by name in
+     * the <code>IngredientCatalog</code>.
+     */
+    private final Map<String, Integer> ingredients = new TreeMap<>();
+
+    /**
+     * Counts the given pizza, as it is now, in the aggregates.
+     *
+     * @param pizza The pizza added.
+     */
+    public void add(Pizza pizza) {
+        long   cents = pizza.getCostInCents();
+        int    cals  = pizza.getCalories();
+        double area  = pizza.getRemainingArea();
+
+        count++;
+        totalCents    += cents;
+        totalCalories += cals;
+        totalArea     += area;
+
+        increment(costs, cents);
+        increment(calories, cals);
+        increment(areas, area);
+        increment(shapes, pizza.getShapeName());
+
+        // Count by the topping mask, which a lazy pizza has without making
+        // its ingredients.
+        for(long ids = pizza.getToppingMask(); ids != 0; ids &= ids - 1) {
+            int id = Long.numberOfTrailingZeros(ids);
+
+            increment(ingredients, IngredientCatalog.nameOf(id),
+                      pizza.countOf(id));
+        }
+    }
+
+    /**
+     * Removes the given pizza from the aggregates. Its remaining area must
+     * be the one last given to <code>add</code> or
+     * <code>areaChanged</code>.
+     *
+     * @param pizza The pizza removed.
+     */
+    public void remove(Pizza pizza) {
+        long   cents = pizza.getCostInCents();
+        int    cals  = pizza.getCalories();
+        double area  = pizza.getRemainingArea();
+
+        count--;
+        totalCents    -= cents;
+        totalCalories -= cals;
+        totalArea     -= area;
+
+        decrement(costs, cents);
+        decrement(calories, cals);
+        decrement(areas, area);
+        decrement(shapes, pizza.getShapeName());
+
+        for(long ids = pizza.getToppingMask(); ids != 0; ids &= ids - 1) {
+            int id = Long.numberOfTrailingZeros(ids);
+
+            decrement(ingredients, IngredientCatalog.nameOf(id),
+                      pizza.countOf(id));
+        }
+    }
+
+    /**
+     * Records that a pizza's remaining area changed, as when some of it is
+     * eaten.
+     *
+     * @param oldArea The remaining area before the change.
+     * @param newArea The remaining area after the change.
+     */
+    public void areaChanged(double oldArea, double newArea) {
+        totalArea += newArea - oldArea;
+
+        decrement(areas, oldArea);
+        increment(areas, newArea);
+    }
+
+    /**
+     * Counts the remaining areas again from the given pizzas, which must be
+     * every pizza counted, finding all of them at once with
+     * <code>ShapeAreas.remainingAreas</code>. This clears any rounding error
+     * that many calls to <code>areaChanged</code> have left in the total.
+     *
+     * @param pizzas Every pizza counted.
+     */
+    public void recountAreas(Pizza[] pizzas) {
+        double[] remaining = ShapeAreas.remainingAreas(pizzas);
+        double   total     = 0;
+
+        areas.clear();
+
+        for(double area : remaining) {
+            total += area;
+            increment(areas, area);
+        }
+
+        totalArea = total;
+    }
+
+    /**
+     * @return The number of pizzas.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The total cost of every pizza, in cents.
+     */
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    /**
+     * @return The total calories of every pizza.
+     */
+    public long getTotalCalories() {
+        return totalCalories;
+    }
+
+    /**
+     * @return The total remaining area of every pizza.
+     */
+    public double getTotalArea() {
+        // Adding and subtracting may leave a trace of rounding error behind
+        // once every pizza is gone.
+        return count == 0 ? 0 : totalArea;
+    }
+
+    /**
+     * Returns every aggregate as a few lines of text, such as for the
+     * <code>stats</code> batch command.
+     *
+     * @return A <code>String</code> report of the aggregates.
+     */
+    public String report() {
+        if(count == 0) {
+            return "no pizzas";
+        }
+
+        return String.format("%d pizzas%n" +
+                             "cost      total %s, mean %s, min %s, max %s%n" +
+                             "calories  total %d, mean %.1f, min %d, max %d%n" +
+                             "area      total %.2f, mean %.2f, min %.2f, " +
+                             "max %.2f%n" +
+                             "shapes    %s%n" +
+                             "toppings  %s",
+                             count,
+                             dollars(totalCents),
+                             dollars(Math.round((double) totalCents / count)),
+                             dollars(costs.firstKey()),
+                             dollars(costs.lastKey()),
+                             totalCalories, (double) totalCalories / count,
+                             calories.firstKey(), calories.lastKey(),
+                             getTotalArea(), getTotalArea() / count,
+                             areas.firstKey(), areas.lastKey(),
+                             counts(shapes), counts(ingredients));
+    }
+
+    /**
+     * Adds one to the count of the given key.
+     */
+    private static <K> void increment(Map<K, Integer> counts, K key) {
+        increment(counts, key, 1);
+    }
+
+    /**
+     * Adds the given amount to the count of the given key.
+     */
+    private static <K> void increment(Map<K, Integer> counts, K key,
+                                      int amount) {
+        counts.merge(key, amount, Integer::sum);
+    }
+
+    /**
+     * Subtracts one from the count of the given key, forgetting the key
+     * when its count reaches zero.
+     */
+    private static <K> void decrement(Map<K, Integer> counts, K key) {
+        decrement(counts, key, 1);
+    }
+
+    /**
+     * Subtracts the given amount from the count of the given key,
+     * forgetting the key when its count reaches zero.
+     */
+    private static <K> void decrement(Map<K, Integer> counts, K key,
+                                      int amount) {
+        counts.computeIfPresent(key, (unused, n) -> n <= amount ? null :
+                                                    n - amount);
+    }
+
+    /**
+     * @return The given number of cents formatted as dollars and cents.
+     */
+    private static String dollars(long cents) {
+        return String.format("$%d.%02d", cents / 100, cents % 100);
+    }
+
+    /**
+     * @return The given counts as a comma separated list of
+     *         <code>name count</code> pairs.
+     */
+    private static String counts(Map<String, Integer> counts) {
+        String retVal = "";
+
+        for(Map.Entry<String, Integer> entry : counts.entrySet()) {
+            retVal += (retVal.isEmpty() ? "" : ", ") + entry.getKey() + " " +
+                      entry.getValue();
+        }
+
+        return retVal;
+    }
+
+}
@@ -0,0 +1,186 @@
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class checks that a <code>ConcurrentPizzaInventory</code> never lets
+ * a pizza be over-eaten, however many threads eat from it at once.
+ *
+ * Many threads eat random slices, each a whole number of
+ * <code>1/UNITS</code> of a pizza, from pizzas chosen with
+ * <code>idNear</code> until every pizza is gone. Each successful eat is
+ * counted against its pizza, and each pizza's finisher is recorded.
+ * Afterwards:
+ *     - every pizza must have had exactly <code>UNITS</code> units, one
+ *       whole pizza, eaten from it
+ *     - every pizza must have had exactly one finisher
+ *     - no eat may have succeeded on a pizza already finished
+ *     - the inventory must be empty
+ * An eat refused with a <code>PizzaException</code>, such as one of more
+ * than remains or of a pizza already finished, is expected under
+ * contention and simply counted; any other exception is a violation.
+ *
+ * Run with <code>java InventoryStress [threads] [pizzas] [rounds]</code>;
+ * the exit status is non-zero if any round finds a violation, so the check
+ * may end a local test script, as <code>AllocationGate</code> does.
+ *
+ * @author Trystan Cannon
+ */
+public class InventoryStress {
+
+    /**
+     * The default number of threads eating at once.
+     */
+    public static final int DEFAULT_THREADS = 64;
+
+    /**
+     * The default number of pizzas in each round.
+     */
+    public static final int DEFAULT_PIZZAS = 200;
+
+    /**
+     * The default number of rounds.
+     */
+    public static final int DEFAULT_ROUNDS = 20;
+
+    /**
+     * The number of units into which each pizza is counted; every slice
+     * eaten is a whole number of them.
+     */
+    public static final int UNITS = 24;
+
+    /**
+     * The denominators of the slices eaten, each dividing
+     * <code>UNITS</code>.
+     */
+    private static final int[] SLICES = {2, 3, 4, 6, 8, 12, 24};
+
+    /**
+     * Runs the rounds, printing one line for each, and exits with a status
+     * of one if any round found a violation.
+     *
+     * @param args Optionally, the number of threads, the number of pizzas
+     *             in each round, and the number of rounds.
+     *
+     * @throws Exception If a round is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        int numThreads = args.length > 0 ? Integer.parseInt(args[0]) :
+                                           DEFAULT_THREADS;
+        int numPizzas  = args.length > 1 ? Integer.parseInt(args[1]) :
+                                           DEFAULT_PIZZAS;
+        int numRounds  = args.length > 2 ? Integer.parseInt(args[2]) :
+                                           DEFAULT_ROUNDS;
+        int violations = 0;
+
+        for(int round = 0; round < numRounds; round++) {
+            violations += round(numThreads, numPizzas);
+        }
+
+        System.out.println(violations == 0 ? "ok" :
+                           violations + " violations");
+
+        if(violations > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one round: stocks a fresh inventory, eats every pizza of it
+     * with the given number of threads, and checks the result.
+     *
+     * @param numThreads The number of threads eating at once.
+     * @param numPizzas The number of pizzas to eat.
+     *
+     * @return The number of violations found, each of which is printed.
+     *
+     * @throws Exception If the round is interrupted.
+     */
+    private static int round(int numThreads, int numPizzas) throws Exception {
+        ConcurrentPizzaInventory inventory = new ConcurrentPizzaInventory();
+
+        for(int index = 0; index < numPizzas; index++) {
+            inventory.add(new Pizza(new Circle(0, 0, 1)));
+        }
+
+        // Identifiers are handed out from zero, so they index these.
+        AtomicIntegerArray eaten     = new AtomicIntegerArray(numPizzas);
+        AtomicIntegerArray finishers = new AtomicIntegerArray(numPizzas);
+        AtomicLong         refused   = new AtomicLong();
+        AtomicLong         late      = new AtomicLong();
+        AtomicLong         failures  = new AtomicLong();
+        CyclicBarrier      start     = new CyclicBarrier(numThreads);
+        Thread[]           threads   = new Thread[numThreads];
+
+        for(int index = 0; index < numThreads; index++) {
+            threads[index] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                try {
+                    start.await();
+                } catch(Exception interrupted) {
+                    return;
+                }
+
+                for(long id = inventory.idNear(random.nextLong()); id != -1;
+                    id = inventory.idNear(random.nextLong())) {
+                    int     slice    = SLICES[random.nextInt(SLICES.length)];
+                    boolean finished = finishers.get((int) id) > 0;
+
+                    try {
+                        if(inventory.eat(id, new Fraction(1, slice))) {
+                            finishers.incrementAndGet((int) id);
+                        }
+
+                        eaten.addAndGet((int) id, UNITS / slice);
+
+                        // A pizza already finished when this eat began
+                        // had nothing left to eat.
+                        if(finished) {
+                            late.incrementAndGet();
+                        }
+                    } catch(PizzaException expected) {
+                        refused.incrementAndGet();
+                    } catch(RuntimeException unexpected) {
+                        failures.incrementAndGet();
+                        unexpected.printStackTrace();
+                    }
+                }
+            });
+            threads[index].start();
+        }
+
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        int violations = (int) (late.get() + failures.get());
+
+        if(late.get() > 0) {
+            System.out.println(late.get() + " eats succeeded after their " +
+                               "pizza was finished");
+        }
+
+        for(int id = 0; id < numPizzas; id++) {
+            if(eaten.get(id) != UNITS || finishers.get(id) != 1) {
+                System.out.println("pizza " + id + ": " + eaten.get(id) +
+                                   "/" + UNITS + " eaten, " +
+                                   finishers.get(id) + " finishers");
+                violations++;
+            }
+        }
+
+        if(inventory.size() != 0) {
+            System.out.println(inventory.size() + " pizzas left over");
+            violations++;
+        }
+
+        System.out.printf("%d threads, %d pizzas: %d eats refused, %d " +
+                          "violations%n", numThreads, numPizzas,
+                          refused.get(), violations);
+
+        return violations;
+    }
+
+}
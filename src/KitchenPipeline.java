@@ -0,0 +1,453 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class models the kitchen as a pipeline of stages through which every
+ * pizza passes before it reaches the inventory, rather than having pizzas
+ * appear instantly through <code>new Pizza()</code>.
+ *
+ * The stages, in order, are:
+ *     - order intake  -> decides the shape and number of ingredients
+ *     - assembly      -> adds random ingredients with <code>addIngredient</code>
+ *     - costing       -> <code>updateCalorieCountAndTotalCost</code>
+ *     - shaping       -> <code>setShape</code> with the ordered shape
+ *     - shelving      -> adds the pizza to a <code>PizzaInventory</code>
+ *
+ * Neighbouring stages are joined by a <code>BoundedQueue</code>, and each
+ * stage runs on its own number of worker threads. Workers take up to a
+ * batch of orders from their input queue at once and hand each on to the
+ * next queue. When the next queue is full, the worker waits until there is
+ * room, so a slow stage holds back the stages before it instead of letting
+ * orders pile up without bound.
+ *
+ * Every stage counts the orders it handles, the time spent working, and the
+ * time spent blocked on a full output queue, and the greatest depth seen in
+ * its input queue is recorded. Together, these show which stage is the
+ * bottleneck: it is the one that is busy the most, with a full queue in
+ * front of it and idle stages after it.
+ *
+ * @author Trystan Cannon
+ */
+public class KitchenPipeline {
+
+    /**
+     * The names of the stages, in order.
+     */
+    public static final String[] STAGE_NAMES =
+            {"intake", "assembly", "costing", "shaping", "shelving"};
+
+    /**
+     * The default capacity of each queue between two stages.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The default greatest number of orders a worker takes from its input
+     * queue at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    /**
+     * The number of nanoseconds a worker parks for when it can neither take
+     * nor hand on an order.
+     */
+    private static final long PARK_NANOS = 10_000;
+
+    /**
+     * The inventory onto which finished pizzas are shelved.
+     */
+    private final PizzaInventory inventory;
+
+    /**
+     * The number of worker threads for each stage.
+     */
+    private final int[] workersPerStage;
+
+    /**
+     * The capacity of each queue between two stages.
+     */
+    private final int queueCapacity;
+
+    /**
+     * The greatest number of orders a worker takes from its input at once.
+     */
+    private final int batchSize;
+
+    /**
+     * The statistics of each stage from the most recent run.
+     */
+    private final Stage[] stages = new Stage[STAGE_NAMES.length];
+
+    /**
+     * The queues of the most recent run; queue <code>i</code> feeds stage
+     * <code>i + 1</code>.
+     */
+    private BoundedQueue<Order>[] queues;
+
+    /**
+     * Constructs a kitchen which shelves pizzas onto the given inventory,
+     * using the default queue capacity and batch size.
+     *
+     * @param inventory The inventory onto which pizzas are shelved.
+     * @param workersPerStage The number of worker threads for each of the
+     *                        five stages, in order.
+     */
+    public KitchenPipeline(PizzaInventory inventory, int... workersPerStage) {
+        this(inventory, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE,
+             workersPerStage);
+    }
+
+    /**
+     * Constructs a kitchen which shelves pizzas onto the given inventory.
+     *
+     * Given a <code>null</code> inventory, a number of worker counts other
+     * than one per stage, or a worker count, queue capacity, or batch size
+     * less than one, a <code>PizzaException</code> is thrown detailing the
+     * error.
+     *
+     * @param inventory The inventory onto which pizzas are shelved.
+     * @param queueCapacity The capacity of each queue between two stages.
+     * @param batchSize The greatest number of orders a worker takes from
+     *                  its input at once.
+     * @param workersPerStage The number of worker threads for each of the
+     *                        five stages, in order.
+     */
+    public KitchenPipeline(PizzaInventory inventory, int queueCapacity,
+                           int batchSize, int... workersPerStage) {
+        if(inventory == null) {
+            throw new PizzaException("Cannot shelve pizzas onto a null " +
+                                     "inventory.");
+        } else if(workersPerStage == null ||
+                  workersPerStage.length != STAGE_NAMES.length) {
+            throw new PizzaException("A kitchen needs a worker count for " +
+                                     "each of its " + STAGE_NAMES.length +
+                                     " stages.");
+        } else if(queueCapacity < 1 || batchSize < 1) {
+            throw new PizzaException("Cannot create a kitchen whose queue " +
+                                     "capacity or batch size is below one.");
+        }
+
+        for(int workers : workersPerStage) {
+            if(workers < 1) {
+                throw new PizzaException("Every kitchen stage needs at " +
+                                         "least one worker.");
+            }
+        }
+
+        this.inventory       = inventory;
+        this.queueCapacity   = queueCapacity;
+        this.batchSize       = batchSize;
+        this.workersPerStage = workersPerStage.clone();
+    }
+
+    /**
+     * Passes the given number of orders through the kitchen, returning once
+     * every resulting pizza has been shelved.
+     *
+     * The statistics of each stage are reset at the start of each run and
+     * may be read afterwards through <code>report</code>.
+     *
+     * @param numOrders The number of pizzas to make.
+     *
+     * @throws InterruptedException If interrupted while waiting for the
+     *                              workers to finish.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void run(int numOrders) throws InterruptedException {
+        queues = new BoundedQueue[STAGE_NAMES.length - 1];
+
+        for(int index = 0; index < queues.length; index++) {
+            queues[index] = new BoundedQueue<>(queueCapacity);
+        }
+
+        for(int index = 0; index < stages.length; index++) {
+            stages[index] = new Stage(STAGE_NAMES[index], numOrders);
+        }
+
+        int threadCount = 0;
+
+        for(int workers : workersPerStage) {
+            threadCount += workers;
+        }
+
+        Thread[] threads = new Thread[threadCount];
+        int      next    = 0;
+
+        for(int stage = 0; stage < stages.length; stage++) {
+            for(int worker = 0; worker < workersPerStage[stage]; worker++) {
+                final int ourStage = stage;
+
+                threads[next] = new Thread(() -> work(ourStage),
+                                           "kitchen-" + STAGE_NAMES[stage] +
+                                           "-" + worker);
+                threads[next++].start();
+            }
+        }
+
+        for(Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * The body of every worker thread: repeatedly takes a batch of orders
+     * from the stage's input, processes each, and hands it on to the
+     * stage's output, until the stage has handled every order of the run.
+     *
+     * The intake stage has no input queue; its workers instead claim new
+     * order numbers until all have been claimed.
+     *
+     * @param stageIndex The index of the stage this worker belongs to.
+     */
+    private void work(int stageIndex) {
+        Stage               stage  = stages[stageIndex];
+        BoundedQueue<Order> input  = null;
+        BoundedQueue<Order> output = null;
+        Order[]             batch  = new Order[batchSize];
+
+        if(stageIndex > 0) {
+            input = queues[stageIndex - 1];
+        }
+
+        if(stageIndex < queues.length) {
+            output = queues[stageIndex];
+        }
+
+        while(true) {
+            int count;
+
+            if(input == null) {
+                count = stage.claim(batchSize);
+
+                for(int index = 0; index < count; index++) {
+                    batch[index] = new Order();
+                }
+            } else {
+                stage.recordDepth(input.size());
+                count = input.drainTo(batch);
+
+                if(count == 0) {
+                    if(stage.isFinished()) {
+                        return;
+                    }
+
+                    LockSupport.parkNanos(PARK_NANOS);
+                    continue;
+                }
+            }
+
+            if(count == 0) {
+                return;
+            }
+
+            long startTime = System.nanoTime();
+
+            for(int index = 0; index < count; index++) {
+                process(stageIndex, batch[index]);
+            }
+
+            stage.busyNanos.add(System.nanoTime() - startTime);
+            stage.handled.add(count);
+
+            if(output != null) {
+                long blockedSince = System.nanoTime();
+                boolean blocked   = false;
+
+                for(int index = 0; index < count; index++) {
+                    while(!output.offer(batch[index])) {
+                        blocked = true;
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                }
+
+                if(blocked) {
+                    stage.blockedNanos.add(System.nanoTime() - blockedSince);
+                }
+            }
+
+            for(int index = 0; index < count; index++) {
+                batch[index] = null;
+            }
+        }
+    }
+
+    /**
+     * Performs the work of the given stage on a single order.
+     *
+     * @param stageIndex The index of the stage.
+     * @param order The order to work on.
+     */
+    private void process(int stageIndex, Order order) {
+        switch(stageIndex) {
+            case 0:
+                order.shape          = Pizza.generateRandomShape();
+                order.numIngredients = Pizza.generateRandomIngredientCount();
+                break;
+
+            case 1:
+                order.pizza = new Pizza(order.shape);
+
+                for(int index = 0; index < order.numIngredients; index++) {
+                    order.pizza.addIngredient(Pizza.generateRandomIngredient());
+                }
+
+                break;
+
+            case 2:
+                order.pizza.updateCalorieCountAndTotalCost();
+                break;
+
+            case 3:
+                order.pizza.setShape(order.shape);
+                break;
+
+            default:
+                inventory.add(order.pizza);
+        }
+    }
+
+    /**
+     * Returns a report of each stage of the most recent run: the orders it
+     * handled, its throughput while busy, how much of its time was spent
+     * blocked on a full output queue, and the current and greatest depth of
+     * its input queue.
+     *
+     * @return A <code>String</code> report with one line per stage, or a
+     *         note that the kitchen has not run yet.
+     */
+    public String report() {
+        if(queues == null) {
+            return "The kitchen has not run yet.";
+        }
+
+        String retVal = "";
+
+        for(int index = 0; index < stages.length; index++) {
+            Stage stage = stages[index];
+            long  busy  = stage.busyNanos.sum();
+
+            retVal += String.format(
+                "%-8s x%d: %d orders, %.0f/s busy, %.3f ms busy, %.3f ms " +
+                "blocked, queue %s%n",
+                stage.name, workersPerStage[index], stage.handled.sum(),
+                busy == 0 ? 0 : stage.handled.sum() / (busy / 1e9),
+                busy / 1e6, stage.blockedNanos.sum() / 1e6,
+                index == 0 ? "-" : queues[index - 1].size() + " (max " +
+                                   stage.maxDepth.get() + ")");
+        }
+
+        return retVal;
+    }
+
+    /**
+     * This class holds a single pizza order as it passes through the
+     * kitchen.
+     */
+    private static class Order {
+
+        /**
+         * The shape ordered for the pizza.
+         */
+        private Shape shape;
+
+        /**
+         * The number of ingredients ordered for the pizza.
+         */
+        private int numIngredients;
+
+        /**
+         * The pizza being made, once assembly has begun.
+         */
+        private Pizza pizza;
+
+    }
+
+    /**
+     * This class holds the progress and statistics of a single stage during
+     * a run.
+     */
+    private static class Stage {
+
+        /**
+         * The name of the stage.
+         */
+        private final String name;
+
+        /**
+         * The number of orders in the run.
+         */
+        private final int numOrders;
+
+        /**
+         * The number of order numbers claimed so far; only used by intake.
+         */
+        private final AtomicInteger claimed = new AtomicInteger(0);
+
+        /**
+         * The number of orders this stage has processed.
+         */
+        private final LongAdder handled = new LongAdder();
+
+        /**
+         * The time spent processing orders, in nanoseconds.
+         */
+        private final LongAdder busyNanos = new LongAdder();
+
+        /**
+         * The time spent waiting on a full output queue, in nanoseconds.
+         */
+        private final LongAdder blockedNanos = new LongAdder();
+
+        /**
+         * The greatest depth seen in this stage's input queue.
+         */
+        private final AtomicInteger maxDepth = new AtomicInteger(0);
+
+        /**
+         * Constructs the statistics for a stage of a run of the given
+         * number of orders.
+         */
+        private Stage(String name, int numOrders) {
+            this.name      = name;
+            this.numOrders = numOrders;
+        }
+
+        /**
+         * Claims up to the given number of new order numbers.
+         *
+         * @return The number claimed, which is zero once all are claimed.
+         */
+        private int claim(int count) {
+            while(true) {
+                int current = claimed.get();
+                int granted = Math.min(count, numOrders - current);
+
+                if(granted <= 0) {
+                    return 0;
+                } else if(claimed.compareAndSet(current, current + granted)) {
+                    return granted;
+                }
+            }
+        }
+
+        /**
+         * @return <code>true</code> once this stage has processed every
+         *         order of the run.
+         */
+        private boolean isFinished() {
+            return handled.sum() >= numOrders;
+        }
+
+        /**
+         * Records the given input queue depth if it is the greatest seen.
+         */
+        private void recordDepth(int depth) {
+            if(depth > maxDepth.get()) {
+                maxDepth.accumulateAndGet(depth, Math::max);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records a distribution of latencies, in nanoseconds, from
+ * which counts, means, maximums, and percentiles may be read.
+ *
+ * In the manner of an HDR histogram, values are counted in buckets whose
+ * width grows with the value: every power of two is split into
+ * <code>SUB_BUCKETS</code> equal buckets, so any value is known to within
+ * about 3% of itself, from nanoseconds up to hours, in a fixed array of
+ * under two thousand counters.
+ *
+ * Recording a value only increments one counter of an
+ * <code>AtomicLongArray</code> and a <code>LongAdder</code>, so any number
+ * of threads may record at once without locking. Reading is done while
+ * values are still being recorded and so is only approximately consistent.
+ *
+ * @author Trystan Cannon
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits of precision kept for each value.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The number of buckets into which each power of two is split.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets, enough for any positive <code>long</code>.
+     */
+    private static final int NUM_BUCKETS =
+            (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * The number of values recorded.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of all values recorded.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The greatest value recorded.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single value. Negative values are recorded as zero.
+     *
+     * @param nanos The value to record, in nanoseconds.
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+
+        if(nanos > max.get()) {
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The mean of the values recorded, in nanoseconds, or zero if
+     *         none have been.
+     */
+    public double getMean() {
+        long numValues = count.sum();
+        return numValues == 0 ? 0 : (double) sum.sum() / numValues;
+    }
+
+    /**
+     * @return The greatest value recorded, in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given percentile, meaning the least value
+     * which at least that percentage of recorded values do not exceed.
+     *
+     * The value returned is the highest value of its bucket, so it may be
+     * greater than the exact percentile by the width of one bucket.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     *
+     * @return The value at the percentile, in nanoseconds, or zero if no
+     *         values have been recorded.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+
+        for(int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            total += counts.get(bucket);
+        }
+
+        if(total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen   = 0;
+
+        for(int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+
+            if(seen >= target) {
+                return Math.min(highestValueOf(bucket), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Returns a short summary of the histogram in milliseconds.
+     *
+     * @return The count, mean, 50th, 99th, and 99.9th percentiles, and
+     *         maximum of the values recorded.
+     */
+    @Override
+    public String toString() {
+        return String.format("count %d, mean %.3f, p50 %.3f, p99 %.3f, " +
+                             "p99.9 %.3f, max %.3f ms", getCount(),
+                             getMean() / 1e6, getPercentile(50) / 1e6,
+                             getPercentile(99) / 1e6,
+                             getPercentile(99.9) / 1e6, getMax() / 1e6);
+    }
+
+    /**
+     * Finds the bucket of a non-negative value. Values below
+     * <code>2 * SUB_BUCKETS</code> have a bucket each; above that, the
+     * leading <code>SUB_BUCKET_BITS + 1</code> bits of a value choose its
+     * bucket within its power of two.
+     *
+     * @param value The value whose bucket is to be found.
+     *
+     * @return The index of the bucket of the value.
+     */
+    private static int bucketOf(long value) {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift    = exponent - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS +
+               (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @param bucket The index of a bucket.
+     *
+     * @return The highest value which falls in the given bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if(bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int  shift  = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * This class implements a <code>PizzaInventory</code> as a single
+ * <code>ArrayList</code> behind a single lock, just as
+ * <code>PizzaManager</code> keeps its pizzas, so that the other inventories
+ * have a plain baseline to be measured against.
+ *
+ * The pizzas are kept in the order in which they were added, alongside
+ * their identifiers, so:
+ *     - <code>add</code> is O(1), amortized
+ *     - <code>get</code> and <code>eat</code> by identifier are O(n),
+ *       finding the pizza with a linear search
+ *     - removing a finished pizza is O(n), shifting every later pizza
+ * Every method, eating included, holds the one lock throughout, so only
+ * one thread uses the inventory at a time.
+ *
+ * @author Trystan Cannon
+ */
+public class LockedPizzaInventory implements PizzaInventory {
+
+    /**
+     * The pizzas in the inventory, in the order in which they were added.
+     */
+    private final ArrayList<Pizza> pizzas = new ArrayList<>();
+
+    /**
+     * The identifier of each pizza in <code>pizzas</code>, at the same
+     * index.
+     */
+    private final ArrayList<Long> ids = new ArrayList<>();
+
+    /**
+     * The identifier to give the next pizza added.
+     */
+    private long nextId;
+
+    /**
+     * Adds the given pizza to the end of the list.
+     *
+     * Given a <code>null</code> pizza, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param pizza The <code>Pizza</code> to add.
+     *
+     * @return The identifier given to the pizza.
+     */
+    @Override
+    public synchronized long add(Pizza pizza) {
+        if(pizza == null) {
+            throw new PizzaException("Cannot add a null Pizza to an " +
+                                     "inventory.");
+        }
+
+        long id = nextId++;
+
+        pizzas.add(pizza);
+        ids.add(id);
+
+        return id;
+    }
+
+    /**
+     * @param id The identifier of the pizza to return.
+     *
+     * @return The pizza with the given identifier, or <code>null</code> if
+     *         there is none.
+     */
+    @Override
+    public synchronized Pizza get(long id) {
+        int index = indexOf(id);
+        return index == -1 ? null : pizzas.get(index);
+    }
+
+    /**
+     * Eats the given fractional amount from the pizza with the given
+     * identifier, removing it if this call finishes it.
+     *
+     * Given an identifier with no pizza, or an amount which cannot be eaten
+     * from the pizza, a <code>PizzaException</code> is thrown detailing the
+     * error.
+     *
+     * @param id The identifier of the pizza to eat from.
+     * @param amount The fractional amount of the pizza to eat.
+     *
+     * @return <code>true</code> if this call finished the pizza and removed
+     *         it; <code>false</code> if some of it remains.
+     */
+    @Override
+    public synchronized boolean eat(long id, Fraction amount) {
+        int index = indexOf(id);
+
+        if(index == -1) {
+            throw new PizzaException("There is no pizza " + id + " to eat.");
+        }
+
+        if(pizzas.get(index).eat(amount)) {
+            Pizza pizza = pizzas.remove(index);
+
+            ids.remove(index);
+            PizzaEvents.removed(pizza, "LockedPizzaInventory");
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the identifier of the pizza at the index given by the hint,
+     * wrapped around the size of the list.
+     *
+     * @param hint Any value; negative hints are treated as positive.
+     *
+     * @return The identifier of a pizza in the inventory, or <code>-1</code>
+     *         if the inventory is empty.
+     */
+    @Override
+    public synchronized long idNear(long hint) {
+        if(ids.isEmpty()) {
+            return -1;
+        }
+
+        return ids.get((int) Math.floorMod(hint, (long) ids.size()));
+    }
+
+    /**
+     * @return The number of pizzas currently in the inventory.
+     */
+    @Override
+    public synchronized int size() {
+        return pizzas.size();
+    }
+
+    /**
+     * @return An array of the pizzas in the inventory, in the order in
+     *         which they were added.
+     */
+    @Override
+    public synchronized Pizza[] snapshot() {
+        Pizza[] retVal = new Pizza[pizzas.size()];
+
+        for(int index = 0; index < retVal.length; index++) {
+            retVal[index] = pizzas.get(index);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Finds the index of the pizza with the given identifier by a linear
+     * search.
+     *
+     * @param id The identifier of the pizza to find.
+     *
+     * @return The index of the pizza, or <code>-1</code> if there is none.
+     */
+    private int indexOf(long id) {
+        for(int index = 0; index < ids.size(); index++) {
+            if(ids.get(index) == id) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+}
@@ -5,8 +5,8 @@
  * As it is a child of <code>Base</code> and <code>Ingredient</code>, it
  * does not have any methods other than constructors.
  * 
- * All characteristics are pre-defined as private static class constants to
- * be used in construction.
+ * Its cost, calorie count, and description are listed under
+ * <code>"Marinara"</code> in the <code>IngredientCatalog</code>.
  * 
  * @author Trystan Cannon
  */
@@ -14,36 +14,16 @@
 public final class Marinara extends Base {
     
     /**
-     * The static cost of <code>Marinara</code> objects.
+     * The ID of the <code>Marinara</code> kind in the catalog.
      */
-    private static final Money COST = new Money(2, 50);
+    private static final int TYPE_ID = IngredientCatalog.parse("Marinara");
     
     /**
-     * The static calorie count of <code>Marinara</code> objects.
-     */
-    private static final int CALORIE_COUNT = 260;
-    
-    /**
-     * The static description of <code>Marinara</code> objects' physical
-     * characteristics.
-     */
-    private static final String DESCRIPTION =
-            "Marinara sauce is an Italian sauce that originated in Naples, " +
-            "usually made with tomatoes, garlic, herbs, and onions. " +
-            "Its many variations can include the addition of capers, " +
-            "olives and spices. It is occasionally sweetened with a dash " +
-            "of red wine.";
-    
-    /**
-     * Constructs an <code>Marinara</code> object with the pre-defined
-     * class constant characteristics.
-     * 
-     * @see COST
-     * @see CALORIE_COUNT
-     * @see DESCRIPTION
+     * Constructs a <code>Marinara</code> object with the characteristics
+     * listed in the catalog.
      */
     public Marinara() {
-        super(COST.clone(), CALORIE_COUNT, DESCRIPTION);
+        super(TYPE_ID);
     }
     
 }
@@ -10,21 +10,16 @@
 public abstract class Meat extends Ingredient {
     
     /**
-     * Constructs a new <code>Meat</code> object with the given
-     * cost, calorie count, and description.
+     * Constructs a meat of the kind with the given ID, whose
+     * characteristics are read from the <code>IngredientCatalog</code>.
      * 
-     * It is preferred that this constructor go unused, because each
-     * child should have its own static set of these characteristics
-     * which are used when constructing a new instance.
+     * Given an ID of no kind, or of a kind which is not a meat, a
+     * <code>PizzaException</code> is thrown detailing the error.
      * 
-     * @param cost The desired cost of the new instance of this meat.
-     * @param calorieCount The desired calorie count of the new instance
-     *                     of this meat.
-     * @param description The short description of this instance of the
-     *                    meat's physical characteristics.
+     * @param typeId The ID of the kind of meat.
      */
-    public Meat(Money cost, int calorieCount, String description) {
-        super(cost, calorieCount, description);
+    protected Meat(int typeId) {
+        super(typeId, IngredientCategory.MEAT);
     }
     
 }
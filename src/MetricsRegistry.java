@@ -0,0 +1,279 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * This class collects named counters, gauges, and latency timers describing
+ * what the Pizza Simulator has been doing, such as how many pizzas were
+ * added and how long sorting took.
+ *
+ * Counters and timers are created the first time they are used. Gauges are
+ * registered once with a function, which is only called when the metrics
+ * are reported, so a gauge costs nothing between reports.
+ *
+ * Metrics may be disabled, in which case <code>start</code> returns
+ * <code>DISABLED</code> without reading the clock and every recording
+ * method returns after a single <code>volatile</code> read. Code can
+ * therefore be left instrumented at no real cost when no one is looking.
+ *
+ * A typical timed operation looks like:
+ *      <code>long start = metrics.start();</code>
+ *      ...
+ *      <code>metrics.stop("sort.price", start);</code>
+ *
+ * @author Trystan Cannon
+ */
+public class MetricsRegistry {
+
+    /**
+     * The value returned by <code>start</code> while metrics are disabled,
+     * which tells <code>stop</code> to record nothing.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    /**
+     * Whether metrics are currently being recorded.
+     */
+    private volatile boolean enabled;
+
+    /**
+     * Every counter, by name.
+     */
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Every timer, by name.
+     */
+    private final Map<String, LatencyHistogram> timers =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Every gauge, by name.
+     */
+    private final Map<String, DoubleSupplier> gauges =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The thread which periodically writes the metrics to a file, if any.
+     */
+    private ScheduledExecutorService dumper = null;
+
+    /**
+     * The file most recently given to <code>dumpPeriodically</code>, which
+     * is written one last time as the program exits.
+     */
+    private volatile String dumpFile = null;
+
+    /**
+     * Whether the final dump on exit has been arranged.
+     */
+    private boolean dumpOnExit = false;
+
+    /**
+     * Constructs an empty registry.
+     *
+     * @param enabled Whether metrics should be recorded from the start.
+     */
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return <code>true</code> if metrics are being recorded.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops recording metrics. Metrics recorded so far are kept.
+     *
+     * @param enabled Whether metrics should be recorded.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Begins timing an operation.
+     *
+     * @return The time at which the operation began, to be passed to
+     *         <code>stop</code>, or <code>DISABLED</code> if metrics are
+     *         disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Finishes timing an operation, recording its latency in the timer of
+     * the given name.
+     *
+     * @param timer The name of the timer.
+     * @param start The value returned by <code>start</code> when the
+     *              operation began.
+     */
+    public void stop(String timer, long start) {
+        if(start != DISABLED) {
+            timer(timer).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds one to the counter of the given name.
+     *
+     * @param counter The name of the counter.
+     */
+    public void increment(String counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Adds the given amount to the counter of the given name.
+     *
+     * @param counter The name of the counter.
+     * @param amount The amount to add.
+     */
+    public void add(String counter, long amount) {
+        if(enabled) {
+            counters.computeIfAbsent(counter, name -> new LongAdder())
+                    .add(amount);
+        }
+    }
+
+    /**
+     * Registers a gauge of the given name, replacing any gauge already of
+     * that name.
+     *
+     * @param gauge The name of the gauge.
+     * @param value The function which computes the gauge's value.
+     */
+    public void gauge(String gauge, DoubleSupplier value) {
+        gauges.put(gauge, value);
+    }
+
+    /**
+     * Returns the timer of the given name, creating it if need be.
+     *
+     * @param timer The name of the timer.
+     *
+     * @return The histogram of the timer of the given name.
+     */
+    public LatencyHistogram timer(String timer) {
+        return timers.computeIfAbsent(timer, name -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the current value of the counter of the given name.
+     *
+     * @param counter The name of the counter.
+     *
+     * @return The value of the counter, or zero if it has never been used.
+     */
+    public long getCount(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Returns every timer, by name, as a read-only view which changes as
+     * timers are created. Unlike <code>timer</code>, looking a timer up
+     * here does not create it.
+     *
+     * @return Every timer, by name.
+     */
+    public Map<String, LatencyHistogram> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * Returns a report of every metric, one per line and in name order
+     * within counters, gauges, and timers.
+     *
+     * @return A <code>String</code> report of every metric.
+     */
+    public String report() {
+        String retVal = "metrics " + (enabled ? "enabled" : "disabled") +
+                        "\n";
+
+        for(Map.Entry<String, LongAdder> counter :
+                new TreeMap<>(counters).entrySet()) {
+            retVal += String.format("counter %-24s %d%n", counter.getKey(),
+                                    counter.getValue().sum());
+        }
+
+        for(Map.Entry<String, DoubleSupplier> gauge :
+                new TreeMap<>(gauges).entrySet()) {
+            retVal += String.format("gauge   %-24s %.2f%n", gauge.getKey(),
+                                    gauge.getValue().getAsDouble());
+        }
+
+        for(Map.Entry<String, LatencyHistogram> timer :
+                new TreeMap<>(timers).entrySet()) {
+            retVal += String.format("timer   %-24s %s%n", timer.getKey(),
+                                    timer.getValue());
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Starts writing <code>report</code> to the given file every given
+     * number of seconds, replacing the file's contents each time, and once
+     * more as the program exits. Any earlier periodic dump is stopped.
+     *
+     * Failures to write are printed to standard error and do not stop
+     * later dumps.
+     *
+     * @param file The name of the file to write.
+     * @param seconds The number of seconds between dumps.
+     */
+    public synchronized void dumpPeriodically(String file, long seconds) {
+        if(dumper != null) {
+            dumper.shutdownNow();
+        }
+
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        dumper.scheduleAtFixedRate(() -> dump(file), seconds, seconds,
+                                   TimeUnit.SECONDS);
+
+        if(!dumpOnExit) {
+            dumpOnExit = true;
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> dump(dumpFile), "metrics-final-dump"));
+        }
+
+        dumpFile = file;
+    }
+
+    /**
+     * Writes <code>report</code> to the given file, replacing its contents.
+     *
+     * Failures to write are printed to standard error rather than thrown.
+     *
+     * @param file The name of the file to write.
+     */
+    public void dump(String file) {
+        try(Writer output = new FileWriter(file)) {
+            output.write(report());
+        } catch(IOException failure) {
+            System.err.println("Could not write metrics to " + file + ": " +
+                               failure.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * This class is a small harness for timing single operations, reporting
+ * for each the time taken, the bytes allocated, and the garbage collection
+ * it caused per operation.
+ *
+ * An operation is first run repeatedly to warm up, during which the
+ * number of calls per batch is doubled until a batch takes at least a
+ * millisecond, so that reading the clock costs little next to the
+ * operation itself. The operation is then run in batches of that size for
+ * the measurement period.
+ *
+ * Allocation is read from the JVM's per-thread allocation counter, which
+ * HotSpot offers through <code>com.sun.management.ThreadMXBean</code>.
+ * Where it is not offered, bytes per operation are reported as
+ * <code>-1</code>. Garbage collection counts and times are read from every
+ * <code>GarbageCollectorMXBean</code> before and after measuring.
+ *
+ * Every result of an operation is written to a <code>volatile</code> field
+ * so that the JIT compiler cannot remove an operation as dead code.
+ *
+ * @author Trystan Cannon
+ */
+public final class MicroBenchmark {
+
+    /**
+     * The least time, in nanoseconds, a batch of calls should take once
+     * warmed up.
+     */
+    private static final long MIN_BATCH_NANOS = 1_000_000;
+
+    /**
+     * The thread bean of the JVM, used to read allocation counters.
+     */
+    private static final ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean();
+
+    /**
+     * Where the result of every operation is written.
+     */
+    private static volatile Object sink;
+
+    /**
+     * This interface describes a single operation to be measured.
+     */
+    public interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return Anything computed by the operation, which is kept so that
+         *         the operation cannot be optimized away.
+         */
+        public Object run();
+
+    }
+
+    /**
+     * This class holds the result of measuring one operation.
+     */
+    public static final class Result {
+
+        /**
+         * The name of the operation.
+         */
+        public final String name;
+
+        /**
+         * The size of the data the operation worked on, or zero if none.
+         */
+        public final int size;
+
+        /**
+         * The number of times the operation ran while measuring.
+         */
+        public final long operations;
+
+        /**
+         * The average time each operation took, in nanoseconds.
+         */
+        public final double nanosPerOp;
+
+        /**
+         * The average bytes allocated by each operation, or <code>-1</code>
+         * if the JVM cannot say.
+         */
+        public final double bytesPerOp;
+
+        /**
+         * The number of garbage collections while measuring.
+         */
+        public final long gcCount;
+
+        /**
+         * The time spent in garbage collection while measuring, in
+         * milliseconds.
+         */
+        public final long gcMillis;
+
+        /**
+         * Constructs a result with the given values.
+         */
+        private Result(String name, int size, long operations,
+                       double nanosPerOp, double bytesPerOp, long gcCount,
+                       long gcMillis) {
+            this.name       = name;
+            this.size       = size;
+            this.operations = operations;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount    = gcCount;
+            this.gcMillis   = gcMillis;
+        }
+
+        /**
+         * @return The result as one line of a table whose columns are
+         *         named by <code>HEADER</code>.
+         */
+        @Override
+        public String toString() {
+            return String.format("%-32s %10s %14.1f %12.1f %8d %8d", name,
+                                 size == 0 ? "-" : Integer.toString(size),
+                                 nanosPerOp, bytesPerOp, gcCount, gcMillis);
+        }
+
+    }
+
+    /**
+     * The column headings matching <code>Result.toString</code>.
+     */
+    public static final String HEADER =
+            String.format("%-32s %10s %14s %12s %8s %8s", "benchmark", "size",
+                          "ns/op", "B/op", "gc", "gc ms");
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private MicroBenchmark() {
+    }
+
+    /**
+     * Warms up and then measures the given operation.
+     *
+     * @param name The name of the operation.
+     * @param size The size of the data the operation works on, or zero.
+     * @param warmupMillis How long to warm up for, in milliseconds.
+     * @param measureMillis How long to measure for, in milliseconds.
+     * @param operation The operation to measure.
+     *
+     * @return The result of the measurement.
+     */
+    public static Result measure(String name, int size, long warmupMillis,
+                                 long measureMillis, Operation operation) {
+        long batch       = 1;
+        long warmupUntil = System.nanoTime() + warmupMillis * 1_000_000;
+
+        do {
+            long startTime = System.nanoTime();
+
+            runBatch(operation, batch);
+
+            if(System.nanoTime() - startTime < MIN_BATCH_NANOS) {
+                batch *= 2;
+            }
+        } while(System.nanoTime() < warmupUntil);
+
+        long gcCountBefore  = gcCount();
+        long gcMillisBefore = gcMillis();
+        long bytesBefore    = allocatedBytes();
+        long operations     = 0;
+        long startTime      = System.nanoTime();
+        long measureUntil   = startTime + measureMillis * 1_000_000;
+        long now;
+
+        do {
+            runBatch(operation, batch);
+            operations += batch;
+            now         = System.nanoTime();
+        } while(now < measureUntil);
+
+        long bytesAfter = allocatedBytes();
+
+        return new Result(name, size, operations,
+                          (double) (now - startTime) / operations,
+                          bytesBefore < 0 ? -1 :
+                              (double) (bytesAfter - bytesBefore) / operations,
+                          gcCount() - gcCountBefore,
+                          gcMillis() - gcMillisBefore);
+    }
+
+    /**
+     * Returns the number of bytes the current thread has allocated since it
+     * started.
+     *
+     * @return The bytes allocated by the current thread, or <code>-1</code>
+     *         if the JVM cannot say.
+     */
+    public static long allocatedBytes() {
+        if(!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        return ((com.sun.management.ThreadMXBean) THREADS)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs the given operation the given number of times.
+     */
+    private static void runBatch(Operation operation, long batch) {
+        for(long call = 0; call < batch; call++) {
+            sink = operation.run();
+        }
+    }
+
+    /**
+     * @return The total number of garbage collections so far.
+     */
+    private static long gcCount() {
+        long count = 0;
+
+        for(GarbageCollectorMXBean collector :
+                ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+
+        return count;
+    }
+
+    /**
+     * @return The total time spent in garbage collection so far, in
+     *         milliseconds.
+     */
+    private static long gcMillis() {
+        long millis = 0;
+
+        for(GarbageCollectorMXBean collector :
+                ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+
+        return millis;
+    }
+
+}
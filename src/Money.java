@@ -238,6 +238,21 @@ public final class Money implements Comparable, Cloneable, Serializable {
         return this.dollars == that.dollars && this.cents == that.cents;
     }
     
+    /**
+     * Returns a hash code made from the dollar and cent amounts, consistent
+     * with <code>equals</code>.
+     * 
+     * Because <code>add</code> changes the amount, a <code>Money</code>
+     * object used as the key of a hash table must not be added to while it
+     * is one.
+     * 
+     * @return The hash code of this amount.
+     */
+    @Override
+    public int hashCode() {
+        return dollars * (MAX_CENTS + 1) + cents;
+    }
+    
     /**
      * A <code>String</code> representation of this <code>Money</code>
      * object (the amount of money represented by it).
@@ -0,0 +1,204 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.geom.Ellipse2D;
+
+/**
+ * This class represents a basic Oval, or ellipse, as a child of
+ * <code>Shape</code>.
+ * 
+ * As a child of <code>Shape</code>, every <code>Oval</code> object has its
+ * own coordinate pair to represent its origin (center) on the 2D plane, its
+ * own <code>java.awt.Color</code> object for its fill color, and, though
+ * unique to the <code>Oval</code> class, a horizontal and a vertical radius.
+ * An oval whose radii are equal is a circle.
+ * 
+ * @author Trystan Cannon
+ */
+public final class Oval extends Shape {
+    
+    /**
+     * The horizontal radius, in pixels, used when drawing the
+     * <code>Oval</code> object.
+     */
+    private int radiusX = 0;
+    
+    /**
+     * The vertical radius, in pixels, used when drawing the
+     * <code>Oval</code> object.
+     */
+    private int radiusY = 0;
+    
+    /**
+     * The area of this oval, computed whenever a radius is set so that
+     * <code>getArea</code> does no arithmetic.
+     */
+    private double area = 0;
+    
+    /**
+     * Constructs a new <code>Oval</code> object with the given coordinates
+     * as its origin, the given radii, and the default color set by
+     * <code>Shape.DEFAULT_COLOR</code>.
+     * 
+     * @param x The x coordinate of the oval's origin.
+     * @param y The y coordinate of the oval's origin.
+     * @param radiusX The horizontal radius of the oval.
+     * @param radiusY The vertical radius of the oval.
+     */
+    public Oval(int x, int y, int radiusX, int radiusY) {
+        super(x, y);
+        setRadii(radiusX, radiusY);
+    }
+    
+    /**
+     * Constructs a new <code>Oval</code> object with the given coordinates,
+     * radii, and color.
+     * 
+     * @param x The x coordinate of the oval's origin.
+     * @param y The y coordinate of the oval's origin.
+     * @param c The outline and fill color of the oval for use in drawing.
+     * @param radiusX The horizontal radius of the oval.
+     * @param radiusY The vertical radius of the oval.
+     */
+    public Oval(int x, int y, Color c, int radiusX, int radiusY) {
+        super(x, y, c);
+        setRadii(radiusX, radiusY);
+    }
+    
+    /**
+     * Sets the radii of this oval to the given values.
+     * 
+     * Given an illegal value, <code>radiusX <= 0</code> or
+     * <code>radiusY <= 0</code>, this method will throw a
+     * <code>RuntimeException</code>, detailing this error.
+     * 
+     * @param radiusX The new horizontal radius for the oval.
+     * @param radiusY The new vertical radius for the oval.
+     */
+    public void setRadii(int radiusX, int radiusY) {
+        if(radiusX <= 0 || radiusY <= 0) {
+            throw new RuntimeException("Cannot create an oval with a radius " +
+                                       "<= 0.");
+        }
+        
+        this.radiusX = radiusX;
+        this.radiusY = radiusY;
+        this.area    = ShapeAreas.area(ShapeAreas.OVAL, radiusX, radiusY);
+    }
+    
+    /**
+     * Returns the current horizontal radius of this oval.
+     * 
+     * @return The current horizontal radius of this oval.
+     */
+    public int getRadiusX() {
+        return radiusX;
+    }
+    
+    /**
+     * Returns the current vertical radius of this oval.
+     * 
+     * @return The current vertical radius of this oval.
+     */
+    public int getRadiusY() {
+        return radiusY;
+    }
+    
+    /**
+     * Returns the area of this oval, <code>Math.PI * rx * ry</code>, as
+     * computed when its radii were last set.
+     * 
+     * @return The current area of this oval.
+     */
+    @Override
+    public double getArea() {
+        return area;
+    }
+    
+    /**
+     * Draws this oval, filled with its color, at its coordinates.
+     * 
+     * @param g The graphics object used to draw the oval.
+     */
+    @Override
+    public void draw(Graphics g) {
+        g.setColor(getFillColor());
+        g.fillOval(getLeft(), getTop(), 2 * radiusX, 2 * radiusY);
+    }
+    
+    /**
+     * @return The outline of this oval.
+     */
+    @Override
+    java.awt.Shape getOutline() {
+        return new Ellipse2D.Double(getLeft(), getTop(), 2 * radiusX,
+                                    2 * radiusY);
+    }
+    
+    /**
+     * @return The least x coordinate covered by this oval.
+     */
+    @Override
+    public int getLeft() {
+        return getX() - radiusX;
+    }
+    
+    /**
+     * @return The least y coordinate covered by this oval.
+     */
+    @Override
+    public int getTop() {
+        return getY() - radiusY;
+    }
+    
+    /**
+     * @return The greatest x coordinate covered by this oval.
+     */
+    @Override
+    public int getRight() {
+        return getX() + radiusX;
+    }
+    
+    /**
+     * @return The greatest y coordinate covered by this oval.
+     */
+    @Override
+    public int getBottom() {
+        return getY() + radiusY;
+    }
+    
+    /**
+     * @return <code>ShapeAreas.OVAL</code>.
+     */
+    @Override
+    byte getKind() {
+        return ShapeAreas.OVAL;
+    }
+    
+    /**
+     * @return The horizontal radius, as the first dimension of an oval.
+     */
+    @Override
+    double getFirstDimension() {
+        return radiusX;
+    }
+    
+    /**
+     * @return The vertical radius, as the second dimension of an oval.
+     */
+    @Override
+    double getSecondDimension() {
+        return radiusY;
+    }
+    
+    /**
+     * Creates and returns an identical yet independent copy of this
+     * <code>Oval</code> object.
+     *
+     * @return An identical yet independent copy of this oval.
+     */
+    @Override
+    public Oval clone() {
+        return new Oval(getX(), getY(), getColor(), radiusX, radiusY);
+    }
+    
+}
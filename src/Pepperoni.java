@@ -5,43 +5,24 @@
  * As it is a child of <code>Meat</code> and <code>Ingredient</code>, it
  * does not have any methods other than constructors.
  * 
- * All characteristics are pre-defined as private static class constants to
- * be used in construction.
+ * Its cost, calorie count, and description are listed under
+ * <code>"Pepperoni"</code> in the <code>IngredientCatalog</code>.
  * 
  * @author Trystan Cannon
  */
 public final class Pepperoni extends Meat {
     
     /**
-     * The static cost of <code>Pepperoni</code> objects.
+     * The ID of the <code>Pepperoni</code> kind in the catalog.
      */
-    private static final Money COST = new Money(3, 0);
-    
-     /**
-     * The static calorie count of <code>Pepperoni</code> objects.
-     */
-    private static final int CALORIE_COUNT = 300;
-    
-    /**
-     * The static description of <code>Pepperoni</code> objects' physical
-     * characteristics.
-     */
-    private static final String DESCRIPTION =
-            "Pepperoni, also known as pepperoni sausage, is an American " +
-            "variety of salami, usually made from cured pork and beef mixed " +
-            "together. Pepperoni is characteristically soft, slightly smoky," +
-            " and bright red in color.";
+    private static final int TYPE_ID = IngredientCatalog.parse("Pepperoni");
     
     /**
-     * Constructs an <code>Pepperoni</code> object with the pre-defined
-     * class constant characteristics.
-     * 
-     * @see COST
-     * @see CALORIE_COUNT
-     * @see DESCRIPTION
+     * Constructs a <code>Pepperoni</code> object with the characteristics
+     * listed in the catalog.
      */
     public Pepperoni() {
-        super(COST.clone(), CALORIE_COUNT, DESCRIPTION);
+        super(TYPE_ID);
     }
     
 }
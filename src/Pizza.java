@@ -1,3 +1,12 @@
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
 /**
  * This class represents the culmination of almost all of the other classes
  * in this project: a single pizza.
@@ -6,7 +15,9 @@
  * <code>Ingredient</code>s that determine its total cost and calorie count.
  * 
  * A shape, either a <code>Circle</code> or <code>Square</code>, is determined
- * for each pizza, dictating the total area which it covers.
+ * for each pizza, dictating the total area which it covers. Any other
+ * <code>Shape</code>, such as a <code>Rectangle</code>, <code>Oval</code>,
+ * or <code>Sector</code>, may be given with <code>setShape</code>.
  * 
  * A <code>Pizza</code> object also holds a size <code>Fraction</code> which
  * represents the remaining amount of pizza left to be consumed.
@@ -16,6 +27,10 @@
  * the sense that their size can be reduced using a method that accepts
  * a <code>Fraction</code> amount to be eaten.
  * 
+ * Eating is safe to do from many threads at once: the remaining size is
+ * held as a single packed <code>long</code> and is only ever replaced with
+ * a compare-and-set, so no two eaters can both take the last of a pizza.
+ * 
  * @author Trystan Cannon
  */
 public class Pizza implements PizzaComparable {
@@ -38,11 +53,35 @@ public class Pizza implements PizzaComparable {
      */
     public static final int MAX_NUM_RANDOM_INGREDIENTS = 20;
     
+    /**
+     * The angle, in radians, between the toppings drawn one after another.
+     */
+    private static final double TOPPING_ANGLE = Math.PI * (3 - Math.sqrt(5));
+    
+    /**
+     * The topping counts of a pizza with no ingredients, shared.
+     */
+    private static final char[] EMPTY_COUNTS = new char[0];
+    
     /**
      * The list of all ingredients that compose this <code>Pizza</code>
-     * object.
+     * object, or <code>null</code> until the ingredients of a lazy pizza
+     * are first needed.
+     * @see ingredients
      */
-    private final ArrayList<Ingredient> ingredients;
+    private volatile ArrayList<Ingredient> ingredients;
+    
+    /**
+     * The generator which chose the ingredients of a lazy pizza, or
+     * <code>null</code> if this pizza is not lazy.
+     */
+    private PizzaGenerator lazyGenerator = null;
+    
+    /**
+     * The seed from which the ingredients of a lazy pizza are chosen, the
+     * same way each time.
+     */
+    private long seed = 0;
     
     /**
      * The total cost of this <code>Pizza</code> object.
@@ -53,9 +92,16 @@ public class Pizza implements PizzaComparable {
     private final Money totalCost;
     
     /**
-     * The remaining amount of pizza expressed as a fraction.
+     * The remaining amount of pizza expressed as a fraction, packed into a
+     * single <code>long</code> with the numerator in the high 32 bits and
+     * the denominator in the low 32 bits.
+     * 
+     * Packing both halves into one value lets the whole fraction be read
+     * and replaced atomically.
+     * 
+     * @see pack
      */
-    private Fraction remainingSize = new Fraction(1, 1);
+    private final AtomicLong remainingSize = new AtomicLong(pack(1, 1));
     
     /**
      * The shape of the pizza.
@@ -65,6 +111,17 @@ public class Pizza implements PizzaComparable {
      */
     private Shape pieShape;
     
+    /**
+     * The remaining area of the pizza: the area of its shape scaled by the
+     * remaining size.
+     * 
+     * This is stored rather than computed on each call, since sorting by
+     * size asks for it on every comparison. It is updated whenever the
+     * remaining size or the shape changes.
+     * @see updateRemainingArea
+     */
+    private volatile double remainingArea;
+    
     /**
      * The total calorie count of this <code>Pizza</code> object.
      * 
@@ -73,30 +130,102 @@ public class Pizza implements PizzaComparable {
      */
     private int calorieCount = 0;
     
+    /**
+     * The toppings of this pizza, with bit <code>n</code> set if it has an
+     * ingredient whose type ID is <code>n</code>.
+     * @see IngredientCatalog
+     */
+    private long toppingMask = 0;
+    
+    /**
+     * The number of ingredients of each type ID on this pizza, long enough
+     * for the greatest ID on it.
+     */
+    private char[] toppingCounts = EMPTY_COUNTS;
+    
     /**
      * Constructs a <code>Pizza</code> object with a randomly decided number
-     * of randomly generated ingredients as well as a random shape (decided
+     * of randomly generated ingredients as well as a random shape, as
+     * decided by the current <code>PizzaGenerator</code> (by default,
      * between <code>Circle</code> and <code>Square</code>).
      */
     public Pizza() {
-        ingredients   = new ArrayList<>();
-        totalCost     = new Money(0, 0);
-        pieShape      = Math.random() > 0.5 ?
-                           new Circle(0, 0, DEFAULT_RANDOM_CIRCLE_RADIUS) :
-                           new Square(0, 0, DEFAULT_RANDOM_SQUARE_SIDE_LENGTH);
+        this(PizzaGenerator.current(), ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Constructs a random <code>Pizza</code> object whose shape, size,
+     * number of ingredients, and ingredients are decided by the given
+     * generator.
+     * 
+     * If the generator is lazy, only the kinds of ingredient are chosen,
+     * from a seed drawn from <code>random</code>, to total the cost and
+     * calories and count the toppings. The ingredients themselves are made
+     * from the same seed, and so are the same, only once something asks
+     * for them, such as <code>toString</code>. A pizza whose ingredients
+     * are never asked for then takes a fraction of the memory.
+     * 
+     * @param generator The generator deciding what the pizza looks like.
+     * @param random The source of random numbers.
+     */
+    Pizza(PizzaGenerator generator, RandomGenerator random) {
+        this(generator.nextShape(random));
+        
+        if(generator.isLazy()) {
+            lazyGenerator = generator;
+            seed          = random.nextLong();
+            ingredients   = null;
+            
+            SplittableRandom toppings       = new SplittableRandom(seed);
+            int              numIngredients =
+                    generator.nextToppingCount(toppings);
+            
+            for(int index = 0; index < numIngredients; index++) {
+                int typeId = generator.nextToppingId(toppings);
+                
+                toppingAdded(typeId);
+                PizzaEvents.ingredientAdded(this, typeId);
+                
+                calorieCount += IngredientCatalog.getCalories(typeId);
+                totalCost.add(0, IngredientCatalog.getCostInCents(typeId));
+            }
+            
+            return;
+        }
         
         // Generate a randomly determined number of ingredients.
-        int numIngredients =
-                (int)(Math.random() * (MAX_NUM_RANDOM_INGREDIENTS) + 1);
+        int numIngredients = generator.nextToppingCount(random);
         
         // Add a set of randomly generated ingredients.
         for(int index = 0; index < numIngredients; index++) {
-            ingredients.add(generateRandomIngredient());
+            Ingredient ingredient = generator.nextIngredient(random);
+            
+            ingredients.add(ingredient);
+            toppingAdded(ingredient.getTypeId());
+            PizzaEvents.ingredientAdded(this, ingredient.getTypeId());
         }
         
         updateCalorieCountAndTotalCost();
     }
     
+    /**
+     * Constructs a <code>Pizza</code> object of the given shape with no
+     * ingredients, as the kitchen does before assembling a pizza.
+     * 
+     * The given shape is used directly rather than cloned, so it must not
+     * be shared with anything else.
+     * 
+     * @param shape The shape of the new pizza.
+     */
+    Pizza(Shape shape) {
+        ingredients = new ArrayList<>();
+        totalCost   = new Money(0, 0);
+        pieShape    = shape;
+        
+        updateRemainingArea();
+        PizzaEvents.created(this, shape);
+    }
+    
     /**
      * Returns the remaining amount of pizza left as a <code>Fraction</code>
      * object.
@@ -104,7 +233,8 @@ public class Pizza implements PizzaComparable {
      * @return The remaining <code>Fraction</code> of pizza.
      */
     public Fraction getRemaining() {
-        return remainingSize;
+        long packed = remainingSize.get();
+        return new Fraction(numeratorOf(packed), denominatorOf(packed));
     }
     
     /**
@@ -129,7 +259,7 @@ public class Pizza implements PizzaComparable {
     public void setRemaining(Fraction remaining) {
         remaining = remaining.reduce();
         
-        if(remaining.compareTo(new Fraction(0, 0)) == -1) {
+        if(remaining.getNumerator() < 0) {
             throw new PizzaException("Cannot set the remaining size of " +
                                      "a pizza to less than zero.");
         } else if(remaining.compareTo(new Fraction(1, 1)) == 1) {
@@ -137,7 +267,9 @@ public class Pizza implements PizzaComparable {
                                      "a pizza to more than one.");
         }
         
-        this.remainingSize = remaining;
+        remainingSize.set(pack(remaining.getNumerator(),
+                               remaining.getDenominator()));
+        updateRemainingArea();
     }
     
     /**
@@ -170,77 +302,187 @@ public class Pizza implements PizzaComparable {
     }
     
     /**
-     * Of the eight leaf ingredient classes, this method creates one and
-     * returns it.
+     * Returns the total cost of this <code>Pizza</code> in cents, without
+     * cloning a <code>Money</code> object as <code>getCost</code> does.
      * 
-     * Currently the ingredients that may possibly be returned by this method
-     * are:
-     *      - <code>Alfredo</code>
-     *      - <code>Goat</code>
-     *      - <code>Marinara</code>
-     *      - <code>Mozzarella</code>
-     *      - <code>Olive</code>
-     *      - <code>Pepper</code>
-     *      - <code>Pepperoni</code>
-     *      - <code>Sausage</code>
+     * @return This pizza's total cost, in cents.
+     */
+    long getCostInCents() {
+        return totalCost.getDollars() * 100L + totalCost.getCents();
+    }
+    
+    /**
+     * @return The number of ingredients on this <code>Pizza</code>.
+     */
+    int getNumIngredients() {
+        return ingredients().size();
+    }
+    
+    /**
+     * @param index The index of an ingredient, from zero to
+     *              <code>getNumIngredients() - 1</code>.
      * 
-     * Because of the simple nature of this method, it behaves as O(1).
+     * @return The ingredient at the given index.
+     */
+    Ingredient getIngredient(int index) {
+        return ingredients().get(index);
+    }
+    
+    /**
+     * @return The simple class name of this pizza's shape, such as
+     *         <code>"Circle"</code>.
+     */
+    String getShapeName() {
+        return pieShape.getClass().getSimpleName();
+    }
+    
+    /**
+     * Returns this pizza's shape itself rather than a copy, so that areas
+     * may be computed in bulk by <code>ShapeAreas</code>. It must not be
+     * changed.
      * 
-     * @return A random <code>Ingredient</code> object.
+     * @return The shape of this pizza.
      */
-    private static Ingredient generateRandomIngredient() {
-        Ingredient randIngredient = null;
+    Shape getShape() {
+        return pieShape;
+    }
+    
+    /**
+     * Draws this pizza: its shape, then a dot of each vegetable's color for
+     * every vegetable on it, spread in a spiral about the middle of the
+     * shape and kept within its outline. Other ingredients have no color of
+     * their own and are not drawn.
+     * 
+     * @param g The graphics object used to draw the pizza.
+     */
+    public void draw(Graphics g) {
+        pieShape.draw(g);
+        
+        Graphics2D  toppings = (Graphics2D) g.create();
+        Rectangle2D bounds   = pieShape.getOutline().getBounds2D();
+        
+        toppings.clip(pieShape.getOutline());
+        
+        double width   = bounds.getWidth();
+        double height  = bounds.getHeight();
+        int    dotSize = (int) Math.max(1, Math.min(width, height) / 8);
+        
+        ArrayList<Ingredient> list = ingredients();
+        
+        for(int index = 0; index < list.size(); index++) {
+            if(!(list.get(index) instanceof Vegetable)) {
+                continue;
+            }
             
-        switch ((int) (Math.random() * 8)) {
-            case 0:
-                randIngredient = new Alfredo();
-                break;
-
-            case 1:
-                randIngredient = new Goat();
-                break;
-
-            case 2:
-                randIngredient = new Marinara();
-                break;
-
-            case 3:
-                randIngredient = new Mozzarella();
-                break;
-
-            case 4:
-                randIngredient = new Olive();
-                break;
-
-            case 5:
-                randIngredient = new Pepper();
-                break;
-
-            case 6:
-                randIngredient = new Pepperoni();
-                break;
-
-            case 7:
-                randIngredient = new Sausage();
-                break;
+            // Spiral outward by the golden angle so that dots rarely overlap.
+            double angle = index * TOPPING_ANGLE;
+            double reach = 0.35 * Math.sqrt((index + 0.5) / list.size());
+            int    x     = (int) (bounds.getCenterX() +
+                                  Math.cos(angle) * reach * width);
+            int    y     = (int) (bounds.getCenterY() +
+                                  Math.sin(angle) * reach * height);
+            
+            toppings.setColor(((Vegetable) list.get(index)).getColor());
+            toppings.fillOval(x - dotSize / 2, y - dotSize / 2, dotSize,
+                              dotSize);
         }
         
-        return randIngredient;
+        toppings.dispose();
     }
     
     /**
-     * Computes and returns the remaining area of this <code>Pizza</code>
-     * object.
+     * Moves this pizza so that the top left corner of its shape's bounds is
+     * at the given coordinates, as when it is set down on a counter.
      * 
-     * This calculation is done by computing the <code>double</code> value
-     * of the remaining size <code>Fraction</code> and multiplying it by
-     * the area of the pizza's shape. Because this involves converting a
-     * <code>Fraction</code> to a <code>double</code>
+     * @param x The x coordinate of the new top left corner.
+     * @param y The y coordinate of the new top left corner.
+     */
+    public void moveTo(int x, int y) {
+        pieShape.setX(pieShape.getX() + x - pieShape.getLeft());
+        pieShape.setY(pieShape.getY() + y - pieShape.getTop());
+    }
+    
+    /**
+     * @return The remaining size of this pizza as a <code>double</code>,
+     *         without creating a <code>Fraction</code>.
+     */
+    double getRemainingFraction() {
+        long packed = remainingSize.get();
+        return (double) numeratorOf(packed) / denominatorOf(packed);
+    }
+    
+    /**
+     * Creates an ingredient of a random kind from the
+     * <code>IngredientCatalog</code>, each kind chosen as often as the
+     * current <code>PizzaGenerator</code> decides; by default, as often as
+     * its popularity relative to the others, so that with the original
+     * catalog each of the eight kinds is equally likely.
+     * 
+     * The kind is chosen with an alias table, so this method behaves as O(1)
+     * however many kinds are listed.
+     * 
+     * @return A random <code>Ingredient</code> object.
+     */
+    static Ingredient generateRandomIngredient() {
+        return PizzaGenerator.current()
+                             .nextIngredient(ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Creates a shape for a random pizza, as the current
+     * <code>PizzaGenerator</code> decides; by default, choosing evenly
+     * between a <code>Circle</code> of radius
+     * <code>DEFAULT_RANDOM_CIRCLE_RADIUS</code> and a <code>Square</code> of
+     * side <code>DEFAULT_RANDOM_SQUARE_SIDE_LENGTH</code>.
+     * 
+     * @return A new random <code>Shape</code> at the origin.
+     */
+    static Shape generateRandomShape() {
+        return PizzaGenerator.current().nextShape(ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Chooses the number of ingredients of a random pizza, as the current
+     * <code>PizzaGenerator</code> decides; by default, from one to
+     * <code>MAX_NUM_RANDOM_INGREDIENTS</code> evenly.
+     * 
+     * @return The number of ingredients.
+     */
+    static int generateRandomIngredientCount() {
+        return PizzaGenerator.current()
+                             .nextToppingCount(ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Returns the remaining area of this <code>Pizza</code> object.
+     * 
+     * This is the <code>double</code> value of the remaining size
+     * <code>Fraction</code> multiplied by the area of the pizza's shape,
+     * but it is computed only when either changes, so this method does no
+     * arithmetic.
      * 
      * @return The remaining area of this <code>Pizza</code> object.
      */
     public double getRemainingArea() {
-        return remainingSize.toDouble() * pieShape.getArea();
+        return remainingArea;
+    }
+    
+    /**
+     * Computes the remaining area from the remaining size and the shape.
+     * 
+     * Eaters on other threads may change the remaining size meanwhile, so
+     * the area is computed again until the size it was computed from is
+     * still current once it is stored. Whichever eater stores last has then
+     * stored the area of the latest size.
+     */
+    private void updateRemainingArea() {
+        long packed;
+        
+        do {
+            packed        = remainingSize.get();
+            remainingArea = (double) numeratorOf(packed) /
+                            denominatorOf(packed) * pieShape.getArea();
+        } while(remainingSize.get() != packed);
     }
     
     /**
@@ -264,6 +506,7 @@ public class Pizza implements PizzaComparable {
         }
         
         this.pieShape = shape.clone();
+        updateRemainingArea();
     }
     
     /**
@@ -286,36 +529,141 @@ public class Pizza implements PizzaComparable {
      * However, it would be more work and testing and, therefore, time to
      * implement all of the basic operations for <code>Fraction</code> objects.
      * 
+     * The new remaining size is computed from a snapshot of the old one and
+     * stored with a compare-and-set, retrying if another thread ate in the
+     * meantime. Therefore, when several threads eat from the same pizza at
+     * once, each amount is subtracted exactly once, and exactly one of them
+     * is told that the remaining size has reached zero.
+     * 
      * @param amount The amount of pizza to eat or subtract from the
      *               remaining <code>Fraction</code>.
      */
     public void eatSomePizza(Fraction amount) {
-        if(amount.getNumerator() < 0) {
+        if(eat(amount)) {
+            throw new PizzaException("Pizza's remaining size has reached " +
+                                     "zero.");
+        }
+    }
+    
+    /**
+     * Eats the given amount exactly as <code>eatSomePizza</code> does, but
+     * reports the remaining size reaching zero by returning
+     * <code>true</code> rather than by throwing a
+     * <code>PizzaException</code>.
+     * 
+     * This lets inventories shared between threads tell the one eater that
+     * finished a pizza apart from those who were too late.
+     * 
+     * @param amount The amount of pizza to eat.
+     * 
+     * @return <code>true</code> if this call brought the remaining size to
+     *         zero; <code>false</code> if some pizza remains.
+     */
+    boolean eat(Fraction amount) {
+        long amountNumerator   = amount.getNumerator();
+        long amountDenominator = amount.getDenominator();
+        
+        // Only the numerator of the amount may carry its sign.
+        if(amountDenominator < 0) {
+            amountNumerator   = -amountNumerator;
+            amountDenominator = -amountDenominator;
+        }
+        
+        if(amountNumerator < 0) {
             throw new PizzaException("Cannot eat a negative amount of " +
                                      "Pizza.");
-        } else if(remainingSize.getNumerator() == 0) {
-            throw new PizzaException("Cannot eat any amount from a Pizza " +
-                                     "whose remaining size is zero.");
         }
         
-        int ourNum   = remainingSize.getNumerator() * amount.getDenominator();
-        int theirNum = amount.getNumerator() * remainingSize.getDenominator();
+        long current;
+        long eaten;
         
-        if(ourNum - theirNum < 0) {
-            throw new PizzaException("Cannot eat more than the amount of " +
-                                     "remaining Pizza.");
-        }
+        do {
+            current = remainingSize.get();
+            
+            long ourDenominator = denominatorOf(current);
+            
+            if(numeratorOf(current) == 0) {
+                throw new PizzaException("Cannot eat any amount from a " +
+                                         "Pizza whose remaining size is " +
+                                         "zero.");
+            }
+            
+            long ourNum   = numeratorOf(current) * amountDenominator;
+            long theirNum = amountNumerator * ourDenominator;
+            
+            if(ourNum - theirNum < 0) {
+                throw new PizzaException("Cannot eat more than the amount " +
+                                         "of remaining Pizza.");
+            }
+            
+            long numerator   = ourNum - theirNum;
+            long denominator = ourDenominator * amountDenominator;
+            long divisor     = gcd(numerator, denominator);
+            
+            numerator   /= divisor;
+            denominator /= divisor;
+            
+            if(denominator > Integer.MAX_VALUE) {
+                throw new PizzaException("Cannot eat an amount of Pizza " +
+                                         "that leaves too fine a fraction.");
+            }
+            
+            eaten = pack((int) numerator, (int) denominator);
+        } while(!remainingSize.compareAndSet(current, eaten));
         
-        this.remainingSize =
-                new Fraction(
-                    ourNum - theirNum,
-                    remainingSize.getDenominator() * amount.getDenominator()
-                ).reduce();
+        updateRemainingArea();
+        PizzaEvents.eaten(this, amountNumerator, amountDenominator,
+                          numeratorOf(eaten), denominatorOf(eaten));
         
-        if(this.remainingSize.getNumerator() == 0) {
-            throw new PizzaException("Pizza's remaining size has reached " +
-                                     "zero.");
+        return numeratorOf(eaten) == 0;
+    }
+    
+    /**
+     * Packs the given numerator and denominator into a single
+     * <code>long</code>, the numerator taking the high 32 bits and the
+     * denominator the low 32 bits.
+     * 
+     * @param numerator The numerator to pack; never negative here.
+     * @param denominator The denominator to pack; always positive here.
+     * 
+     * @return The packed fraction.
+     */
+    private static long pack(int numerator, int denominator) {
+        return ((long) numerator << 32) | (denominator & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * @param packed A fraction packed by <code>pack</code>.
+     * @return The numerator of the packed fraction.
+     */
+    private static int numeratorOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+    
+    /**
+     * @param packed A fraction packed by <code>pack</code>.
+     * @return The denominator of the packed fraction.
+     */
+    private static int denominatorOf(long packed) {
+        return (int) packed;
+    }
+    
+    /**
+     * Finds the greatest common divisor of the two given non-negative values
+     * using Euclid's algorithm, as <code>Fraction</code> does, but over
+     * <code>long</code> values so that eating never overflows mid-way.
+     * 
+     * @return The greatest common divisor of the two values.
+     */
+    private static long gcd(long num1, long num2) {
+        while(num2 != 0) {
+            long remainder = num1 % num2;
+            
+            num1 = num2;
+            num2 = remainder;
         }
+        
+        return num1;
     }
     
     /**
@@ -334,10 +682,91 @@ public class Pizza implements PizzaComparable {
                                      "a Pizza.");
         }
         
-        ingredients.add(ingredient);
+        ingredients().add(ingredient);
+        toppingAdded(ingredient.getTypeId());
+        PizzaEvents.ingredientAdded(this, ingredient.getTypeId());
         
         calorieCount += ingredient.getCalorieCount();
-        totalCost.add(ingredient.getCost());
+        totalCost.add(0, ingredient.getCostInCents());
+    }
+    
+    /**
+     * Returns the toppings of this pizza as a set of bits, bit
+     * <code>n</code> being set if the pizza has at least one ingredient
+     * whose type ID is <code>n</code>.
+     * 
+     * @return The bits of the toppings of this pizza.
+     * @see IngredientCatalog
+     */
+    public long getToppingMask() {
+        return toppingMask;
+    }
+    
+    /**
+     * @param typeId The type ID of a kind of ingredient.
+     * 
+     * @return The number of ingredients of that kind on this pizza.
+     */
+    public int countOf(int typeId) {
+        return typeId >= 0 && typeId < toppingCounts.length ?
+               toppingCounts[typeId] : 0;
+    }
+    
+    /**
+     * @return <code>true</code> if this pizza makes its ingredients only
+     *         when they are first needed.
+     */
+    public boolean isLazy() {
+        return lazyGenerator != null;
+    }
+    
+    /**
+     * Returns the list of ingredients, first making the ingredients of a
+     * lazy pizza from its seed if they have not been made yet.
+     * 
+     * Two threads asking at once may both make the list, but both make the
+     * same ingredients, and the list is published whole through the
+     * <code>volatile</code> field.
+     * 
+     * @return The list of ingredients.
+     */
+    private ArrayList<Ingredient> ingredients() {
+        ArrayList<Ingredient> retVal = ingredients;
+        
+        if(retVal == null) {
+            SplittableRandom toppings       = new SplittableRandom(seed);
+            int              numIngredients =
+                    lazyGenerator.nextToppingCount(toppings);
+            
+            retVal = new ArrayList<>();
+            
+            for(int index = 0; index < numIngredients; index++) {
+                retVal.add(lazyGenerator.nextIngredient(toppings));
+            }
+            
+            ingredients = retVal;
+        }
+        
+        return retVal;
+    }
+    
+    /**
+     * Counts an ingredient of the given kind, just added, among the
+     * toppings.
+     */
+    private void toppingAdded(int typeId) {
+        if(typeId >= toppingCounts.length) {
+            toppingCounts = Arrays.copyOf(toppingCounts,
+                                          Math.max(typeId + 1,
+                                                   IngredientCatalog.count()));
+        }
+        
+        // Saturate rather than wrap for absurdly loaded pizzas.
+        if(toppingCounts[typeId] != Character.MAX_VALUE) {
+            toppingCounts[typeId]++;
+        }
+        
+        toppingMask |= 1L << typeId;
     }
     
     /**
@@ -349,15 +778,17 @@ public class Pizza implements PizzaComparable {
      * the list of ingredients, so it behaves as O(n) where 'n' is the
      * number of ingredients that comprise this <code>Pizza</code> object.
      */
-    private void updateCalorieCountAndTotalCost() {
+    void updateCalorieCountAndTotalCost() {
         calorieCount = 0;
         totalCost.setMoney(0, 0);
         
-        for(int index = 0; index < ingredients.size(); index++) {
-            Ingredient ingredient = ingredients.get(index);
+        ArrayList<Ingredient> list = ingredients();
+        
+        for(int index = 0; index < list.size(); index++) {
+            Ingredient ingredient = list.get(index);
             
             calorieCount += ingredient.getCalorieCount();
-            totalCost.add(ingredient.getCost());
+            totalCost.add(0, ingredient.getCostInCents());
         }
     }
 
@@ -383,8 +814,10 @@ public class Pizza implements PizzaComparable {
         String retVal = "Cost: " + totalCost + "\nCalories: " + calorieCount +
                         "\nSize: " + getRemainingArea() + "\nIngredients:\n";
         
-        for(int index = 0; index < ingredients.size(); index++) {
-            retVal += "\t" + ingredients.get(index) + "\n";
+        ArrayList<Ingredient> list = ingredients();
+        
+        for(int index = 0; index < list.size(); index++) {
+            retVal += "\t" + list.get(index) + "\n";
         }
         
         return retVal;
@@ -423,10 +856,9 @@ public class Pizza implements PizzaComparable {
      * Compares the given <code>Pizza</code> object to this one based on
      * remaining area.
      * 
-     * This method is effectively just calling <code>getRemainingArea()</code>
-     * and scaling it with the fraction remaining, comparing that
-     * <code>double</code> value to that of the given <code>Pizza</code>
-     * object.
+     * This method compares the stored remaining area of this pizza, as
+     * returned by <code>getRemainingArea()</code>, to that of the given
+     * <code>Pizza</code> object, so no area is computed.
      * 
      * Given a <code>null</code> or non-<code>Pizza</code> object, this
      * method will throw a <code>PizzaException</code> detailing the
@@ -446,11 +878,12 @@ public class Pizza implements PizzaComparable {
                                      "a Pizza object.");
         }
         
-        Pizza that = (Pizza) other;
+        double ours   = this.remainingArea;
+        double theirs = ((Pizza) other).remainingArea;
         
-        if(this.getRemainingArea() > that.getRemainingArea()) {
+        if(ours > theirs) {
             return 1;
-        } else if(this.getRemainingArea() == that.getRemainingArea()) {
+        } else if(ours == theirs) {
             return 0;
         } else {
             return -1;
@@ -495,6 +928,36 @@ public class Pizza implements PizzaComparable {
         }
     }
     
+    /**
+     * Compares the given object to this pizza for equality, which, because
+     * a pizza changes as it is eaten, is identity: a pizza equals only
+     * itself, however alike two pizzas are. Pizzas of equal price compare
+     * as <code>0</code> with <code>compareTo</code> without being equal.
+     * 
+     * This keeps <code>ArrayList.indexOf</code> finding the very pizza
+     * given in one comparison per pizza, and a pizza's place in a hash
+     * table from moving as it is eaten.
+     * 
+     * @param other The object to compare to this pizza.
+     * 
+     * @return <code>true</code> if the object is this pizza.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+    
+    /**
+     * Returns a hash code which, like <code>equals</code>, depends only on
+     * the identity of this pizza and never changes.
+     * 
+     * @return The identity hash code of this pizza.
+     */
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+    
     /*public static void main(String[] args) {
         Pizza p1, p2;
         
@@ -0,0 +1,345 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class defines the Java Flight Recorder events describing what the
+ * Pizza Simulator does with its pizzas, so that a recording shows pizzas
+ * being made, eaten, and sorted alongside garbage collections and other
+ * JVM activity:
+ *     - <code>pizza.Created</code>         a pizza is constructed
+ *     - <code>pizza.IngredientAdded</code> an ingredient is put on a pizza
+ *     - <code>pizza.Eaten</code>           some of a pizza is eaten
+ *     - <code>pizza.Removed</code>         a finished pizza is removed
+ *     - <code>pizza.Sorted</code>          a list of pizzas is sorted
+ *     - <code>pizza.Searched</code>        a list of pizzas is searched
+ *
+ * Events are only emitted when the <code>pizza.jfr</code> system property
+ * is <code>true</code>. Because <code>ENABLED</code> is a
+ * <code>static final</code> constant, the JIT compiler removes every
+ * disabled call along with its check, so the simulator pays nothing for
+ * these events unless asked. Even when enabled, an event is only filled in
+ * if a recording is running which wants it, for example one started with
+ * <code>-XX:StartFlightRecording</code>.
+ *
+ * Pizzas are identified in events by their identity hash code, which is
+ * enough to follow one pizza through a recording.
+ *
+ * @author Trystan Cannon
+ */
+public final class PizzaEvents {
+
+    /**
+     * Whether any events are emitted.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("pizza.jfr");
+
+    /**
+     * This event records the construction of a pizza.
+     */
+    @Name("pizza.Created")
+    @Label("Pizza Created")
+    @Category("Pizza Simulator")
+    @StackTrace(false)
+    static final class Created extends Event {
+
+        @Label("Pizza")
+        int pizza;
+
+        @Label("Shape")
+        String shape;
+
+        @Label("Area")
+        double area;
+
+    }
+
+    /**
+     * This event records an ingredient being put on a pizza.
+     */
+    @Name("pizza.IngredientAdded")
+    @Label("Ingredient Added")
+    @Category("Pizza Simulator")
+    @StackTrace(false)
+    static final class IngredientAdded extends Event {
+
+        @Label("Pizza")
+        int pizza;
+
+        @Label("Ingredient")
+        String ingredient;
+
+        @Label("Calories")
+        int calories;
+
+    }
+
+    /**
+     * This event records some of a pizza being eaten.
+     */
+    @Name("pizza.Eaten")
+    @Label("Pizza Eaten")
+    @Category("Pizza Simulator")
+    @StackTrace(false)
+    static final class Eaten extends Event {
+
+        @Label("Pizza")
+        int pizza;
+
+        @Label("Amount")
+        @Description("The fraction of the whole pizza eaten, as a/b.")
+        String amount;
+
+        @Label("Remaining")
+        @Description("The fraction of the whole pizza left, as a/b.")
+        String remaining;
+
+        @Label("Finished")
+        boolean finished;
+
+    }
+
+    /**
+     * This event records a finished pizza being removed from a list or
+     * inventory.
+     */
+    @Name("pizza.Removed")
+    @Label("Pizza Removed")
+    @Category("Pizza Simulator")
+    @StackTrace(false)
+    static final class Removed extends Event {
+
+        @Label("Pizza")
+        int pizza;
+
+        @Label("From")
+        String from;
+
+    }
+
+    /**
+     * This event records a list of pizzas being sorted, lasting as long as
+     * the sort.
+     */
+    @Name("pizza.Sorted")
+    @Label("Pizzas Sorted")
+    @Category("Pizza Simulator")
+    static final class Sorted extends Event {
+
+        @Label("Key")
+        String key;
+
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Size")
+        int size;
+
+    }
+
+    /**
+     * This event records a list of pizzas being searched, lasting as long
+     * as the search.
+     */
+    @Name("pizza.Searched")
+    @Label("Pizzas Searched")
+    @Category("Pizza Simulator")
+    static final class Searched extends Event {
+
+        @Label("Key")
+        String key;
+
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Size")
+        int size;
+
+        @Label("Found Index")
+        int found;
+
+    }
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private PizzaEvents() {
+    }
+
+    /**
+     * Records the construction of the given pizza.
+     *
+     * @param pizza The new pizza.
+     * @param shape The shape of the new pizza.
+     */
+    static void created(Pizza pizza, Shape shape) {
+        if(ENABLED) {
+            Created event = new Created();
+
+            if(event.shouldCommit()) {
+                event.pizza = System.identityHashCode(pizza);
+                event.shape = shape.getClass().getSimpleName();
+                event.area  = shape.getArea();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records an ingredient of the given kind being put on the given pizza,
+     * which a lazy pizza does without making the ingredient itself.
+     *
+     * @param pizza The pizza.
+     * @param typeId The type ID of the ingredient put on it.
+     */
+    static void ingredientAdded(Pizza pizza, int typeId) {
+        if(ENABLED) {
+            IngredientAdded event = new IngredientAdded();
+
+            if(event.shouldCommit()) {
+                event.pizza      = System.identityHashCode(pizza);
+                event.ingredient = IngredientCatalog.getDescription(typeId);
+                event.calories   = IngredientCatalog.getCalories(typeId);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records an amount of the given pizza being eaten.
+     *
+     * @param pizza The pizza eaten from.
+     * @param amountNumerator The numerator of the amount eaten.
+     * @param amountDenominator The denominator of the amount eaten.
+     * @param remainingNumerator The numerator of the amount left.
+     * @param remainingDenominator The denominator of the amount left.
+     */
+    static void eaten(Pizza pizza, long amountNumerator,
+                      long amountDenominator, int remainingNumerator,
+                      int remainingDenominator) {
+        if(ENABLED) {
+            Eaten event = new Eaten();
+
+            if(event.shouldCommit()) {
+                event.pizza     = System.identityHashCode(pizza);
+                event.amount    = amountNumerator + "/" + amountDenominator;
+                event.remaining = remainingNumerator + "/" +
+                                  remainingDenominator;
+                event.finished  = remainingNumerator == 0;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records a finished pizza being removed.
+     *
+     * @param pizza The pizza removed.
+     * @param from The name of what it was removed from.
+     */
+    static void removed(Pizza pizza, String from) {
+        if(ENABLED) {
+            Removed event = new Removed();
+
+            if(event.shouldCommit()) {
+                event.pizza = System.identityHashCode(pizza);
+                event.from  = from;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Begins timing a sort, to be ended with <code>endSort</code>.
+     *
+     * @return The event of the sort, or <code>null</code> if events are
+     *         disabled.
+     */
+    static Sorted beginSort() {
+        if(!ENABLED) {
+            return null;
+        }
+
+        Sorted event = new Sorted();
+        event.begin();
+
+        return event;
+    }
+
+    /**
+     * Ends timing a sort begun with <code>beginSort</code>, recording it.
+     *
+     * @param event The event returned by <code>beginSort</code>.
+     * @param key The key sorted by.
+     * @param algorithm The algorithm sorted with.
+     * @param size The number of pizzas sorted.
+     */
+    static void endSort(Sorted event, PizzaKey key, SortStrategy algorithm,
+                        int size) {
+        if(ENABLED && event.shouldCommit()) {
+            event.key       = key.name();
+            event.algorithm = algorithm.name();
+            event.size      = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Ends timing a sort by several keys begun with <code>beginSort</code>,
+     * recording it.
+     *
+     * @param event The event returned by <code>beginSort</code>.
+     * @param order The order sorted into.
+     * @param size The number of pizzas sorted.
+     */
+    static void endSort(Sorted event, CompositeOrder order, int size) {
+        if(ENABLED && event.shouldCommit()) {
+            event.key       = order.toString();
+            event.algorithm = "COMPOSITE";
+            event.size      = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Begins timing a search, to be ended with <code>endSearch</code>.
+     *
+     * @return The event of the search, or <code>null</code> if events are
+     *         disabled.
+     */
+    static Searched beginSearch() {
+        if(!ENABLED) {
+            return null;
+        }
+
+        Searched event = new Searched();
+        event.begin();
+
+        return event;
+    }
+
+    /**
+     * Ends timing a search begun with <code>beginSearch</code>, recording
+     * it.
+     *
+     * @param event The event returned by <code>beginSearch</code>.
+     * @param key The key searched by.
+     * @param algorithm The name of the search algorithm.
+     * @param size The number of pizzas searched.
+     * @param found The index found, or <code>-1</code> if none was.
+     */
+    static void endSearch(Searched event, PizzaKey key, String algorithm,
+                          int size, int found) {
+        if(ENABLED && event.shouldCommit()) {
+            event.key       = key.name();
+            event.algorithm = algorithm;
+            event.size      = size;
+            event.found     = found;
+            event.commit();
+        }
+    }
+
+}
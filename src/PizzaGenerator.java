@@ -0,0 +1,495 @@
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class decides what random pizzas look like: how often each shape
+ * is made, how large, how many toppings each has, and how popular each
+ * topping is. Inventories made by a generator thus follow whatever skew
+ * is given, rather than the even mix <code>new Pizza()</code> once made.
+ *
+ * Every choice is drawn from an <code>AliasSampler</code>, so each costs
+ * O(1) however many choices there are.
+ *
+ * A generator is described by settings separated by spaces, each of the
+ * form <code>name=choice:weight,choice:weight,...</code>, where a weight
+ * left out is one:
+ *     - <code>shapes</code>    circle, square, rectangle, oval, or sector
+ *     - <code>sizes</code>     scale factors of the default dimensions
+ *     - <code>counts</code>    numbers of toppings, up to
+ *                              <code>MAX_TOPPINGS</code>, or ranges such
+ *                              as <code>1-20</code> giving each number in
+ *                              them the same weight
+ *     - <code>toppings</code>  names of kinds in the
+ *                              <code>IngredientCatalog</code>, whose
+ *                              popularity is otherwise that listed there
+ *     - <code>ingredients</code>  <code>eager</code>, or <code>lazy</code>
+ *                              to make the ingredients of each pizza only
+ *                              once they are first needed
+ * Settings left out are as in <code>DEFAULT_SPEC</code>, which makes
+ * pizzas just as <code>new Pizza()</code> always has. For example,
+ * <code>shapes=circle:6,square:3,sector:1 counts=1-3:4,4-12:1
+ * toppings=pepperoni:5</code> makes mostly round pizzas with few toppings,
+ * heavy on pepperoni.
+ *
+ * <code>new Pizza()</code> uses the current generator, which is first
+ * described by the <code>pizza.generator</code> system property and may
+ * be changed while the program runs. A generator never changes once
+ * built, so it may be shared between threads.
+ *
+ * @author Trystan Cannon
+ */
+public final class PizzaGenerator {
+
+    /**
+     * The description of the original generator: circles and squares
+     * equally often, at the default dimensions, with from one to
+     * <code>Pizza.MAX_NUM_RANDOM_INGREDIENTS</code> toppings equally often,
+     * chosen by the popularity listed in the catalog.
+     */
+    public static final String DEFAULT_SPEC =
+            "shapes=circle,square sizes=1 counts=1-" +
+            Pizza.MAX_NUM_RANDOM_INGREDIENTS;
+
+    /**
+     * The most toppings a generated pizza may have.
+     */
+    public static final int MAX_TOPPINGS = 255;
+
+    /**
+     * The names of the shapes which may be made, in the order of their
+     * dimensions below.
+     */
+    private static final String[] SHAPES = {
+        "circle", "square", "rectangle", "oval", "sector"
+    };
+
+    /**
+     * The first and second dimensions of each shape at a scale of one: the
+     * radius of a circle, the side of a square, the width and height of a
+     * rectangle, the radii of an oval, and the radius of a sector, whose
+     * angle, <code>SECTOR_ANGLE</code>, is not scaled.
+     */
+    private static final int[][] DIMENSIONS = {
+        {Pizza.DEFAULT_RANDOM_CIRCLE_RADIUS, 0},
+        {Pizza.DEFAULT_RANDOM_SQUARE_SIDE_LENGTH, 0},
+        {15, 10},
+        {20, 15},
+        {20, 0}
+    };
+
+    /**
+     * The angle of every sector made, in degrees.
+     */
+    private static final int SECTOR_ANGLE = 90;
+
+    /**
+     * The generator used by <code>new Pizza()</code>.
+     */
+    private static volatile PizzaGenerator current =
+            parse(System.getProperty("pizza.generator", DEFAULT_SPEC));
+
+    /**
+     * The index in <code>SHAPES</code> of each shape choice.
+     */
+    private final int[] shapes;
+
+    /**
+     * The scale factor of each size choice.
+     */
+    private final double[] sizes;
+
+    /**
+     * The number of toppings of each count choice.
+     */
+    private final int[] counts;
+
+    /**
+     * Chooses among <code>shapes</code>.
+     */
+    private final AliasSampler shapeSampler;
+
+    /**
+     * Chooses among <code>sizes</code>.
+     */
+    private final AliasSampler sizeSampler;
+
+    /**
+     * Chooses among <code>counts</code>.
+     */
+    private final AliasSampler countSampler;
+
+    /**
+     * Chooses the type ID of each topping, or <code>null</code> to choose
+     * by the popularity listed in the catalog.
+     */
+    private final AliasSampler toppingSampler;
+
+    /**
+     * The description from which this generator was built, in a form
+     * <code>parse</code> reads back.
+     */
+    private final String spec;
+
+    /**
+     * Whether pizzas make their ingredients only once they are needed.
+     */
+    private final boolean lazy;
+
+    /**
+     * Builds a generator of the given choices, each array of choices
+     * paired with an array of weights.
+     */
+    private PizzaGenerator(int[] shapes, double[] shapeWeights,
+                           double[] sizes, double[] sizeWeights,
+                           int[] counts, double[] countWeights,
+                           double[] toppingWeights, boolean lazy,
+                           String spec) {
+        this.shapes         = shapes;
+        this.sizes          = sizes;
+        this.counts         = counts;
+        this.shapeSampler   = new AliasSampler(shapeWeights);
+        this.sizeSampler    = new AliasSampler(sizeWeights);
+        this.countSampler   = new AliasSampler(countWeights);
+        this.toppingSampler = toppingWeights == null ? null :
+                              new AliasSampler(toppingWeights);
+        this.lazy           = lazy;
+        this.spec           = spec;
+    }
+
+    /**
+     * @return The generator used by <code>new Pizza()</code>.
+     */
+    public static PizzaGenerator current() {
+        return current;
+    }
+
+    /**
+     * Changes the generator used by <code>new Pizza()</code> from now on.
+     *
+     * Given a <code>null</code> generator, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param generator The new generator.
+     */
+    public static void setCurrent(PizzaGenerator generator) {
+        if(generator == null) {
+            throw new PizzaException("Cannot generate pizzas with a null " +
+                                     "PizzaGenerator.");
+        }
+
+        current = generator;
+    }
+
+    /**
+     * Builds a generator from the given description, as described above.
+     *
+     * Given a description which cannot be read, such as one naming an
+     * unknown shape or topping or giving a negative weight, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param spec The description of the generator.
+     *
+     * @return The generator.
+     */
+    public static PizzaGenerator parse(String spec) {
+        String[] settings = {null, null, null, null, null};
+        String[] keys     = {"shapes", "sizes", "counts", "toppings",
+                             "ingredients"};
+
+        for(String setting : (DEFAULT_SPEC + " " + spec).trim()
+                                                          .split("\\s+")) {
+            int equals = setting.indexOf('=');
+            int key    = equals == -1 ? -1 :
+                         indexOf(keys, setting.substring(0, equals));
+
+            if(key == -1 || equals == setting.length() - 1) {
+                throw new PizzaException("\"" + setting + "\" is not a " +
+                                         "setting of the form " +
+                                         "shapes|sizes|counts|toppings|" +
+                                         "ingredients=" +
+                                         "choice:weight,...");
+            }
+
+            // Later settings replace those of the defaults.
+            settings[key] = setting.substring(equals + 1);
+        }
+
+        String[] shapeChoices = choicesOf(settings[0]);
+        String[] sizeChoices  = choicesOf(settings[1]);
+        String[] countChoices = choicesOf(settings[2]);
+
+        int[]    shapes       = new int[shapeChoices.length];
+        double[] shapeWeights = weightsOf(settings[0]);
+        double[] sizes        = new double[sizeChoices.length];
+        double[] sizeWeights  = weightsOf(settings[1]);
+
+        for(int index = 0; index < shapes.length; index++) {
+            shapes[index] = indexOf(SHAPES, shapeChoices[index]);
+
+            if(shapes[index] == -1) {
+                throw new PizzaException("There is no shape \"" +
+                                         shapeChoices[index] + "\" to " +
+                                         "generate.");
+            }
+        }
+
+        for(int index = 0; index < sizes.length; index++) {
+            sizes[index] = number(sizeChoices[index]);
+
+            if(!(sizes[index] > 0) || Double.isInfinite(sizes[index])) {
+                throw new PizzaException("A size must be a positive scale " +
+                                         "factor, not " + sizeChoices[index] +
+                                         ".");
+            }
+        }
+
+        // Spread each range of counts into one choice per count.
+        double[] rangeWeights = weightsOf(settings[2]);
+        int[]    counts       = new int[0];
+        double[] countWeights = new double[0];
+
+        for(int index = 0; index < countChoices.length; index++) {
+            String choice = countChoices[index];
+            int    dash   = choice.indexOf('-', 1);
+            int    from   = integer(dash == -1 ? choice :
+                                                 choice.substring(0, dash));
+            int    to     = integer(dash == -1 ? choice :
+                                                 choice.substring(dash + 1));
+
+            if(from < 0 || to < from || to > MAX_TOPPINGS) {
+                throw new PizzaException("\"" + choice + "\" is not a " +
+                                         "number or range of toppings.");
+            }
+
+            int start = counts.length;
+
+            counts       = Arrays.copyOf(counts, start + to - from + 1);
+            countWeights = Arrays.copyOf(countWeights, counts.length);
+
+            for(int count = from; count <= to; count++) {
+                counts[start + count - from]       = count;
+                countWeights[start + count - from] = rangeWeights[index];
+            }
+        }
+
+        double[] toppingWeights = null;
+
+        if(settings[3] != null) {
+            String[] names   = choicesOf(settings[3]);
+            double[] weights = weightsOf(settings[3]);
+
+            toppingWeights = new double[IngredientCatalog.count()];
+
+            for(int id = 0; id < toppingWeights.length; id++) {
+                toppingWeights[id] = IngredientCatalog.getWeight(id);
+            }
+
+            for(int index = 0; index < names.length; index++) {
+                toppingWeights[IngredientCatalog.parse(names[index])] =
+                        weights[index];
+            }
+        }
+
+        boolean lazy = "lazy".equals(settings[4]);
+
+        if(settings[4] != null && !lazy && !"eager".equals(settings[4])) {
+            throw new PizzaException("Ingredients are made either eager or " +
+                                     "lazy, not " + settings[4] + ".");
+        }
+
+        return new PizzaGenerator(shapes, shapeWeights, sizes, sizeWeights,
+                                  counts, countWeights, toppingWeights, lazy,
+                                  "shapes=" + settings[0] +
+                                  " sizes=" + settings[1] +
+                                  " counts=" + settings[2] +
+                                  (settings[3] == null ? "" :
+                                   " toppings=" + settings[3]) +
+                                  (lazy ? " ingredients=lazy" : ""));
+    }
+
+    /**
+     * Makes a random shape at the origin, of a random size.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return A new random <code>Shape</code>.
+     */
+    public Shape nextShape(RandomGenerator random) {
+        int    shape = shapes[shapeSampler.sample(random)];
+        double scale = sizes[sizeSampler.sample(random)];
+        int    first = scaled(DIMENSIONS[shape][0], scale);
+
+        switch(shape) {
+            case 0:
+                return new Circle(0, 0, first);
+            case 1:
+                return new Square(0, 0, first);
+            case 2:
+                return new Rectangle(0, 0, first,
+                                     scaled(DIMENSIONS[shape][1], scale));
+            case 3:
+                return new Oval(0, 0, first,
+                                scaled(DIMENSIONS[shape][1], scale));
+            default:
+                return new Sector(0, 0, first, SECTOR_ANGLE);
+        }
+    }
+
+    /**
+     * Chooses a random number of toppings.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return The number of toppings.
+     */
+    public int nextToppingCount(RandomGenerator random) {
+        return counts[countSampler.sample(random)];
+    }
+
+    /**
+     * Chooses the kind of a random topping.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return The type ID of the kind in the <code>IngredientCatalog</code>.
+     */
+    public int nextToppingId(RandomGenerator random) {
+        return toppingSampler == null ? IngredientCatalog.sample(random) :
+                                        toppingSampler.sample(random);
+    }
+
+    /**
+     * @return <code>true</code> if the pizzas of this generator make their
+     *         ingredients only once they are first needed.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Makes a random topping.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return A new random <code>Ingredient</code>.
+     */
+    public Ingredient nextIngredient(RandomGenerator random) {
+        return IngredientCatalog.create(nextToppingId(random));
+    }
+
+    /**
+     * Makes a random pizza with the random numbers of the current thread.
+     *
+     * @return A new random <code>Pizza</code>.
+     */
+    public Pizza next() {
+        return new Pizza(this, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Makes a random pizza with the given source of random numbers, so that
+     * a seeded source makes the same pizzas every time.
+     *
+     * @param random The source of random numbers.
+     *
+     * @return A new random <code>Pizza</code>.
+     */
+    public Pizza next(RandomGenerator random) {
+        return new Pizza(this, random);
+    }
+
+    /**
+     * @return The description of this generator, which <code>parse</code>
+     *         reads back.
+     */
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    /**
+     * @return The given dimension scaled, rounded, and at least one.
+     */
+    private static int scaled(int dimension, double scale) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                                          Math.round(dimension * scale)));
+    }
+
+    /**
+     * @return The choices of the given list, without their weights.
+     */
+    private static String[] choicesOf(String list) {
+        String[] retVal = list.split(",");
+
+        for(int index = 0; index < retVal.length; index++) {
+            int colon = retVal[index].indexOf(':');
+
+            retVal[index] = colon == -1 ? retVal[index] :
+                                          retVal[index].substring(0, colon);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The weights of the given list, one for any left out.
+     */
+    private static double[] weightsOf(String list) {
+        String[] choices = list.split(",");
+        double[] retVal  = new double[choices.length];
+
+        for(int index = 0; index < choices.length; index++) {
+            int colon = choices[index].indexOf(':');
+
+            retVal[index] = colon == -1 ? 1 :
+                            number(choices[index].substring(colon + 1));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Parses a number.
+     *
+     * Given text which is not a number, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     */
+    private static double number(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch(NumberFormatException error) {
+            throw new PizzaException("\"" + text + "\" is not a number.");
+        }
+    }
+
+    /**
+     * Parses a whole number.
+     *
+     * Given text which is not a whole number, a <code>PizzaException</code>
+     * is thrown detailing the error.
+     */
+    private static int integer(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch(NumberFormatException error) {
+            throw new PizzaException("\"" + text + "\" is not a whole " +
+                                     "number.");
+        }
+    }
+
+    /**
+     * @return The index of the given name in the given array, ignoring
+     *         case, or <code>-1</code> if it is not there.
+     */
+    private static int indexOf(String[] names, String name) {
+        for(int index = 0; index < names.length; index++) {
+            if(names[index].equalsIgnoreCase(name)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * This interface describes a store of <code>Pizza</code> objects that may
+ * be shared between many threads at once, such as the customers and
+ * kitchen of a simulation.
+ * 
+ * Unlike the <code>ArrayList</code> behind <code>PizzaManager</code>, whose
+ * indexes shift as pizzas are removed, every pizza added to an inventory is
+ * given an identifier that never changes and is never reused, so a pizza
+ * can be found again after other pizzas have come and gone.
+ * 
+ * As an interface, no methods are actually implemented here, only their
+ * headers are defined here.
+ * 
+ * @author Trystan Cannon
+ */
+public interface PizzaInventory {
+
+    /**
+     * Adds the given pizza to the inventory.
+     * 
+     * Given a <code>null</code> pizza, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     * 
+     * @param pizza The <code>Pizza</code> to add.
+     * 
+     * @return The identifier given to the pizza.
+     */
+    public long add(Pizza pizza);
+
+    /**
+     * Returns the pizza with the given identifier.
+     * 
+     * @param id The identifier of the pizza to return.
+     * 
+     * @return The pizza with the given identifier, or <code>null</code> if
+     *         there is none, such as when it has been eaten completely.
+     */
+    public Pizza get(long id);
+
+    /**
+     * Eats the given fractional amount from the pizza with the given
+     * identifier, removing the pizza from the inventory if its size reaches
+     * zero.
+     * 
+     * Given an identifier with no pizza, or an amount which cannot be eaten
+     * from the pizza, a <code>PizzaException</code> is thrown detailing the
+     * error.
+     * 
+     * @param id The identifier of the pizza to eat from.
+     * @param amount The fractional amount of the pizza to eat.
+     * 
+     * @return <code>true</code> if this call finished the pizza and removed
+     *         it; <code>false</code> if some of it remains.
+     */
+    public boolean eat(long id, Fraction amount);
+
+    /**
+     * Finds the identifier of some pizza in the inventory near the given
+     * hint, which is useful for picking pizzas at random without copying
+     * the whole inventory.
+     * 
+     * @param hint Any value; the same hint tends to give the same pizza.
+     * 
+     * @return The identifier of a pizza in the inventory, or <code>-1</code>
+     *         if the inventory is empty.
+     */
+    public long idNear(long hint);
+
+    /**
+     * @return The number of pizzas currently in the inventory.
+     */
+    public int size();
+
+    /**
+     * Returns the pizzas in the inventory, without stopping other threads
+     * from adding or eating pizzas.
+     * 
+     * An inventory without a global lock may return a weakly consistent
+     * view rather than one as of a single point in time: it holds every
+     * pizza present for the whole of the call, while a pizza added or
+     * removed during the call may or may not be in it.
+     * 
+     * @return An array of the pizzas in the inventory.
+     */
+    public Pizza[] snapshot();
+
+}
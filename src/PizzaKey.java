@@ -0,0 +1,69 @@
+import java.util.Comparator;
+
+/**
+ * This enumeration names each of the three orderings of pizzas defined by
+ * <code>PizzaComparable</code>: price, remaining size, and calories.
+ *
+ * Each key compares pizzas with the matching <code>PizzaComparable</code>
+ * method, so sorting or merging by a key agrees exactly with
+ * <code>compareTo</code>, <code>compareToBySize</code>, and
+ * <code>compareToByCalories</code>. Every key orders pizzas from least to
+ * greatest.
+ *
+ * @author Trystan Cannon
+ */
+public enum PizzaKey implements Comparator<Pizza> {
+
+    /**
+     * Orders pizzas by total cost, using <code>compareTo</code>.
+     */
+    PRICE {
+        @Override
+        public int compare(Pizza first, Pizza second) {
+            return first.compareTo(second);
+        }
+    },
+
+    /**
+     * Orders pizzas by remaining area, using <code>compareToBySize</code>.
+     */
+    SIZE {
+        @Override
+        public int compare(Pizza first, Pizza second) {
+            return first.compareToBySize(second);
+        }
+    },
+
+    /**
+     * Orders pizzas by total calories, using
+     * <code>compareToByCalories</code>.
+     */
+    CALORIES {
+        @Override
+        public int compare(Pizza first, Pizza second) {
+            return first.compareToByCalories(second);
+        }
+    };
+
+    /**
+     * Finds the key with the given name, ignoring case, as typed in batch
+     * commands such as <code>sort price</code>.
+     *
+     * Given a name matching no key, a <code>PizzaException</code> is thrown
+     * detailing the error.
+     *
+     * @param name The name of the key.
+     *
+     * @return The key with the given name.
+     */
+    public static PizzaKey parse(String name) {
+        for(PizzaKey key : values()) {
+            if(key.name().equalsIgnoreCase(name)) {
+                return key;
+            }
+        }
+
+        throw new PizzaException("There is no pizza key \"" + name + "\".");
+    }
+
+}
@@ -1,4 +1,14 @@
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.atomic.LongAdder;
 
 /** 
  * PizzaManager Skeleton File
@@ -21,6 +31,21 @@ import java.util.Scanner;
  * index. See the respectively labeled method for details on how this
  * functionality is accomplished.
  * 
+ * For scripted load runs, the same operations may be driven without any
+ * rendering between them through <code>runBatch</code>, which reads one
+ * command per line from a file or standard input and reports how long each
+ * command took. See <code>BATCH_USAGE</code> for the commands understood.
+ * 
+ * Totals, means, and extremes over the pizzas are kept up to date by an
+ * <code>InventoryStats</code> as pizzas come and go, so reporting them
+ * never loops over the list.
+ * 
+ * Commands and the operations beneath them are timed by a
+ * <code>MetricsRegistry</code> when metrics are enabled; see
+ * <code>metrics</code>. Given the <code>pizza.jmx</code> system property,
+ * the manager is also exposed through JMX by a
+ * <code>PizzaManagerStats</code> bean.
+ * 
  * @author: Rob Nash with edits by Johnny Lin and Trystan Cannon
  */
 public class PizzaManager {
@@ -28,8 +53,125 @@ public class PizzaManager {
     /**
      * The list in which all of the <code>Pizza</code> objects created
      * will be stored.
+     * 
+     * The list is chunked so that readers which take a while, such as
+     * <code>display</code> and <code>render</code>, can work over a
+     * snapshot taken in O(1) rather than the list itself, and see every
+     * pizza as of one moment however the list changes meanwhile.
+     * @see snapshot
      */
-    private final ArrayList<Pizza> pizzas = new ArrayList<>();
+    private final ChunkedArrayList<Pizza> pizzas = new ChunkedArrayList<>();
+    
+    /**
+     * The running totals, means, extremes, and counts describing the
+     * pizzas in <code>pizzas</code>, updated as pizzas are added, eaten,
+     * and removed.
+     */
+    private final InventoryStats stats = new InventoryStats();
+    
+    /**
+     * The best pizzas kept up to date for each <code>watch</code> batch
+     * command, by the command's description, such as
+     * <code>"top 10 size"</code>.
+     */
+    private final Map<String, StreamingTopK> watches = new LinkedHashMap<>();
+    
+    /**
+     * The pizzas of the list, kept in order by one key at all times while
+     * the <code>order</code> batch command has turned ordering on; otherwise
+     * <code>null</code>.
+     */
+    private PriorityPizzaInventory ordered = null;
+    
+    /**
+     * The identifier in <code>ordered</code> of each pizza of the list,
+     * while ordering is on.
+     */
+    private final Map<Pizza, Long> orderedIds = new IdentityHashMap<>();
+    
+    /**
+     * The counter on which every pizza of the list is set down while the
+     * <code>place</code> batch command has turned placement on; otherwise
+     * <code>null</code>.
+     */
+    private CounterLayout counter = null;
+    
+    /**
+     * The index of where every pizza on <code>counter</code> lies, or
+     * <code>null</code> while placement is off.
+     */
+    private SpatialIndex placed = null;
+    
+    /**
+     * The composite order the list was last sorted into, which is forgotten
+     * as soon as the list or its pizzas change, or <code>null</code>.
+     */
+    private String sortedBy = null;
+    
+    /**
+     * The bitmap index of the toppings of the list, built by the first
+     * <code>filter</code> command after the list is changed or reordered,
+     * or <code>null</code>.
+     */
+    private ToppingIndex toppings = null;
+    
+    /**
+     * The counters, gauges, and timers describing this manager's commands
+     * and operations.
+     * 
+     * Metrics are disabled unless the <code>pizza.metrics</code> system
+     * property is <code>true</code>, in which case every command and every
+     * add, eat, sort, and search is timed.
+     */
+    private final MetricsRegistry metrics =
+            new MetricsRegistry(Boolean.getBoolean("pizza.metrics"));
+    
+    /**
+     * The number of pizzas added one at a time. This and the other
+     * operation counts below are kept whether or not metrics are enabled,
+     * so that JMX may read them from another thread at any time; the
+     * timers of <code>metrics</code> give only their latencies.
+     */
+    private final LongAdder adds = new LongAdder();
+    
+    /**
+     * The number of sorts by any key or composite order.
+     */
+    private final LongAdder sorts = new LongAdder();
+    
+    /**
+     * The number of binary searches, by calories or by a composite order.
+     */
+    private final LongAdder searches = new LongAdder();
+    
+    /**
+     * The number of times a pizza was eaten from, successfully or not.
+     */
+    private final LongAdder eats = new LongAdder();
+    
+    /**
+     * The number of pizzas eaten until none remained.
+     */
+    private final LongAdder finished = new LongAdder();
+    
+    /**
+     * The algorithm used by the sorts, which may be changed while the
+     * program runs. The <code>pizza.sort</code> system property chooses the
+     * first; by default, it is the original selection sort.
+     */
+    private volatile SortStrategy sortStrategy =
+            SortStrategy.parse(System.getProperty("pizza.sort", "selection"));
+    
+    /**
+     * Constructs a manager with no pizzas, registering gauges for the
+     * number of pizzas and their total value, calories, and area.
+     */
+    public PizzaManager() {
+        metrics.gauge("inventory.size", pizzas::size);
+        metrics.gauge("inventory.value", () -> stats.getTotalCents() / 100.0);
+        metrics.gauge("inventory.calories", stats::getTotalCalories);
+        metrics.gauge("inventory.area", stats::getTotalArea);
+    }
     
     /**
      * This method behaves as the main program loop with which the user
@@ -57,6 +199,8 @@ public class PizzaManager {
             
             selection = foo.nextLine().substring(0, 1).toCharArray()[0];
             
+            long commandStart = metrics.start();
+            
             switch(selection) {
                 case 'A':    
                 case 'a':
@@ -137,6 +281,16 @@ public class PizzaManager {
                     foo.nextLine();
                     break;
                     
+                case 'M':
+                case 'm':
+                    System.out.println(metrics.report());
+                    break;
+                    
+                case 'I':
+                case 'i':
+                    System.out.println(stats.report());
+                    break;
+                    
                 case 'Q':
                 case 'q':
                     System.out.println("(Q)uitting!" );
@@ -145,10 +299,660 @@ public class PizzaManager {
                 default:
                     System.out.println("Unrecognized input - try again");
             }
+            
+            if(commandStart != MetricsRegistry.DISABLED) {
+                metrics.stop("command." + Character.toLowerCase(selection),
+                             commandStart);
+            }
         }
 
     }
 
+    /**
+     * Runs every command read from the given <code>Reader</code> without
+     * displaying the list of pizzas or the instructions between commands.
+     * 
+     * Each command is read by a <code>CommandTokenizer</code> rather than a
+     * <code>Scanner</code>, executed, and timed using
+     * <code>System.nanoTime</code>. One line is printed per command with its
+     * line number, its elapsed time in milliseconds, and its result, followed
+     * by a summary once the input is exhausted or <code>quit</code> is read.
+     * 
+     * A command which fails, whether from bad arguments or from an
+     * operation that is not allowed, does not stop the batch; its error is
+     * reported in place of a result.
+     * 
+     * @see BATCH_USAGE
+     * 
+     * @param input The <code>Reader</code> from which to read commands.
+     * 
+     * @throws IOException If reading from the given input fails.
+     */
+    public void runBatch(Reader input) throws IOException {
+        CommandTokenizer commands    = new CommandTokenizer(input);
+        int              numCommands = 0;
+        long             totalNanos  = 0;
+        
+        while(commands.nextCommand()) {
+            String result;
+            long   startTime = System.nanoTime();
+            
+            try {
+                result = executeBatchCommand(commands);
+            } catch(PizzaException error) {
+                result = "error: " + error.getMessage();
+            }
+            
+            long elapsed = System.nanoTime() - startTime;
+            
+            if(metrics.isEnabled()) {
+                metrics.timer("batch." + commands.token(0).toLowerCase())
+                       .record(elapsed);
+            }
+            
+            numCommands++;
+            totalNanos += elapsed;
+            
+            System.out.printf("[%d] %s: %.3f ms%s%n",
+                              commands.getLineNumber(), commands.token(0),
+                              elapsed / 1e6,
+                              result == null ? "" : " (" + result + ")");
+            
+            if(commands.tokenEquals(0, "quit")) {
+                break;
+            }
+        }
+        
+        System.out.printf("%d commands in %.3f ms; %d pizzas remain%n",
+                          numCommands, totalNanos / 1e6, pizzas.size());
+    }
+    
+    /**
+     * Executes the batch command currently held by the given tokenizer.
+     * 
+     * Given an unknown command or invalid arguments, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     * 
+     * @see BATCH_USAGE
+     * 
+     * @param command The tokenizer positioned at the command to execute.
+     * 
+     * @return A short description of the result of the command, or
+     *         <code>null</code> if there is nothing to report.
+     */
+    private String executeBatchCommand(CommandTokenizer command) {
+        if(command.tokenEquals(0, "add")) {
+            int count = command.tokenCount() > 1 ? command.intToken(1) : 1;
+            
+            if(count < 0) {
+                throw new PizzaException("Cannot add " + count + " pizzas.");
+            }
+            
+            for(int index = 0; index < count; index++) {
+                addRandomPizza();
+            }
+            
+            return pizzas.size() + " pizzas";
+        } else if(command.tokenEquals(0, "sort")) {
+            if(command.tokenCount() > 2 || command.token(1).contains(",") ||
+               command.token(1).startsWith("-")) {
+                sortByComposite(compositeOrderOf(command, 1));
+            } else if(command.tokenEquals(1, "price")) {
+                sortByPrice();
+            } else if(command.tokenEquals(1, "size")) {
+                sortBySize();
+            } else if(command.tokenEquals(1, "calories")) {
+                sortByCalories();
+            } else {
+                throw new PizzaException("Cannot sort by \"" +
+                                         command.token(1) + "\".");
+            }
+            
+            return null;
+        } else if(command.tokenEquals(0, "search")) {
+            if(!command.tokenEquals(1, "calories")) {
+                return searchByComposite(command);
+            }
+            
+            int numCalories = command.intToken(2);
+            int foundIndex  = binarySearchByCalories(numCalories);
+            
+            return foundIndex == -1 ? "not found" : "index " + foundIndex;
+        } else if(command.tokenEquals(0, "eat")) {
+            int      pizzaIndex = command.intToken(1);
+            Fraction amount     = parseFraction(command.token(2));
+            
+            if(amount == null) {
+                throw new PizzaException("\"" + command.token(2) + "\" is " +
+                                         "not a valid fraction.");
+            }
+            
+            return eatFromPizza(pizzaIndex, amount) ? "finished" :
+                   pizzas.get(pizzaIndex).getRemaining() + " remains";
+        } else if(command.tokenEquals(0, "render")) {
+            return render(command);
+        } else if(command.tokenEquals(0, "bake")) {
+            return bakePizzas(command);
+        } else if(command.tokenEquals(0, "simulate")) {
+            return simulateCustomers(command);
+        } else if(command.tokenEquals(0, "metrics")) {
+            if(command.tokenEquals(1, "on") || command.tokenEquals(1, "off")) {
+                metrics.setEnabled(command.tokenEquals(1, "on"));
+                return "metrics " + command.token(1).toLowerCase();
+            }
+            
+            return "\n" + metrics.report().trim();
+        } else if(command.tokenEquals(0, "strategy")) {
+            if(command.tokenCount() > 1) {
+                setSortStrategy(SortStrategy.parse(command.token(1)));
+            }
+            
+            return "sorting by " + sortStrategy.name().toLowerCase();
+        } else if(command.tokenEquals(0, "generator")) {
+            if(command.tokenCount() > 1) {
+                String spec = "";
+                
+                for(int index = 1; index < command.tokenCount(); index++) {
+                    spec += " " + command.token(index);
+                }
+                
+                PizzaGenerator.setCurrent(PizzaGenerator.parse(spec));
+            }
+            
+            return "generating " + PizzaGenerator.current();
+        } else if(command.tokenEquals(0, "display")) {
+            displayAllPizzas();
+            return null;
+        } else if(command.tokenEquals(0, "top") ||
+                  command.tokenEquals(0, "bottom")) {
+            int      k     = command.intToken(1);
+            PizzaKey key   = PizzaKey.parse(command.token(2));
+            long     start = metrics.start();
+            Pizza[]  best  = TopK.select(pizzas, k, orderOf(command.token(0),
+                                                            key));
+            
+            metrics.stop("topk", start);
+            
+            return describe(best);
+        } else if(command.tokenEquals(0, "watch")) {
+            return watch(command);
+        } else if(command.tokenEquals(0, "order")) {
+            return order(command);
+        } else if(command.tokenEquals(0, "place")) {
+            return place(command);
+        } else if(command.tokenEquals(0, "nearest")) {
+            int   x     = command.intToken(1);
+            int   y     = command.intToken(2);
+            long  start = metrics.start();
+            Pizza found = placedIndex().nearest(x, y);
+            
+            metrics.stop("nearest", start);
+            
+            return found == null ? "none" :
+                   describe(new Pizza[] {found}) + " at (" +
+                   found.getShape().getLeft() + ", " +
+                   found.getShape().getTop() + ")";
+        } else if(command.tokenEquals(0, "region")) {
+            long    start = metrics.start();
+            Pizza[] found = placedIndex().inRegion(command.intToken(1),
+                                                   command.intToken(2),
+                                                   command.intToken(3),
+                                                   command.intToken(4));
+            
+            metrics.stop("region", start);
+            
+            return found.length + " pizzas";
+        } else if(command.tokenEquals(0, "filter")) {
+            return filter(command);
+        } else if(command.tokenEquals(0, "first")) {
+            if(ordered == null) {
+                throw new PizzaException("Ordering is off; turn it on with " +
+                                         "order <key>.");
+            }
+            
+            long  start = metrics.start();
+            Pizza first = ordered.peek();
+            
+            metrics.stop("first", start);
+            
+            return first == null ? "none" : describe(new Pizza[] {first});
+        } else if(command.tokenEquals(0, "stats")) {
+            if(command.tokenEquals(1, "recount")) {
+                Pizza[] all = new Pizza[pizzas.size()];
+                
+                for(int index = 0; index < all.length; index++) {
+                    all[index] = pizzas.get(index);
+                }
+                
+                stats.recountAreas(all);
+            }
+            
+            return "\n" + stats.report();
+        } else if(command.tokenEquals(0, "size")) {
+            return pizzas.size() + " pizzas";
+        } else if(command.tokenEquals(0, "quit")) {
+            return null;
+        }
+        
+        throw new PizzaException("Unrecognized command \"" +
+                                 command.token(0) + "\".");
+    }
+    
+    /**
+     * Parses a <code>CompositeOrder</code> from the tokens of the given
+     * command starting at the given index, which may give the keys in one
+     * token separated by commas or in several tokens.
+     * 
+     * @param command The tokenizer positioned at the command.
+     * @param first The index of the first token of the order.
+     * 
+     * @return The order.
+     */
+    private static CompositeOrder compositeOrderOf(CommandTokenizer command,
+                                                   int first) {
+        String keys = command.token(first);
+        
+        for(int index = first + 1; index < command.tokenCount(); index++) {
+            keys += "," + command.token(index);
+        }
+        
+        return CompositeOrder.parse(keys);
+    }
+    
+    /**
+     * Runs a composite <code>search</code> batch command, which binary
+     * searches for the first pizza whose leading keys have the given
+     * values, sorting the list into the order first unless it already is.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>search order value [value...]</code>, such as
+     *                <code>search calories,price 500 1250</code>, in which
+     *                prices are in cents and sizes are areas.
+     * 
+     * @return The index found, or that none was.
+     */
+    private String searchByComposite(CommandTokenizer command) {
+        CompositeOrder order  = CompositeOrder.parse(command.token(1));
+        long[]         prefix = new long[command.tokenCount() - 2];
+        
+        if(prefix.length == 0) {
+            throw new PizzaException("Expected a value to search for.");
+        } else if(prefix.length > order.numKeys()) {
+            throw new PizzaException("Expected at most " + order.numKeys() +
+                                     " values to search for.");
+        }
+        
+        for(int index = 0; index < prefix.length; index++) {
+            prefix[index] = CompositeOrder.parseValue(command.token(index + 2),
+                                                      order.getKey(index));
+        }
+        
+        String sorted = "";
+        
+        if(!order.toString().equals(sortedBy)) {
+            sortByComposite(order);
+            sorted = "sorted first; ";
+        }
+        
+        long                 start = metrics.start();
+        PizzaEvents.Searched event = PizzaEvents.beginSearch();
+        int                  found = order.search(pizzas, prefix);
+        
+        metrics.stop("search.composite", start);
+        searches.increment();
+        PizzaEvents.endSearch(event, order.getKey(0), "composite binary",
+                              pizzas.size(), found);
+        
+        return sorted + (found == -1 ? "not found" : "index " + found);
+    }
+    
+    /**
+     * Finds the order in which <code>top</code> and <code>bottom</code>
+     * rank pizzas: greatest first for <code>top</code>, least first for
+     * <code>bottom</code>.
+     * 
+     * @param end Either <code>"top"</code> or <code>"bottom"</code>.
+     * @param key The key by which pizzas are ranked.
+     * 
+     * @return The order ranking the wanted pizzas first.
+     */
+    private static Comparator<Pizza> orderOf(String end, PizzaKey key) {
+        if(end.equalsIgnoreCase("top")) {
+            return key.reversed();
+        } else if(end.equalsIgnoreCase("bottom")) {
+            return key;
+        }
+        
+        throw new PizzaException("Expected top or bottom, not \"" + end +
+                                 "\".");
+    }
+    
+    /**
+     * Runs a <code>watch</code> batch command, which either starts keeping
+     * the best pizzas up to date as pizzas are added and eaten, stops
+     * keeping every watch, or reports every watch.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>watch top|bottom k key</code>,
+     *                <code>watch off</code>, or <code>watch</code>.
+     * 
+     * @return The best pizzas of the new watch, or of every watch.
+     */
+    private String watch(CommandTokenizer command) {
+        if(command.tokenCount() > 3) {
+            int      k    = command.intToken(2);
+            PizzaKey key  = PizzaKey.parse(command.token(3));
+            String   name = command.token(1).toLowerCase() + " " + k + " " +
+                            key.name().toLowerCase();
+            
+            watches.put(name, new StreamingTopK(pizzas, k,
+                                                orderOf(command.token(1),
+                                                        key)));
+        } else if(command.tokenEquals(1, "off")) {
+            watches.clear();
+            return "no watches";
+        }
+        
+        String retVal = "";
+        
+        for(Map.Entry<String, StreamingTopK> watch : watches.entrySet()) {
+            long    start = metrics.start();
+            Pizza[] best  = watch.getValue().get();
+            
+            metrics.stop("topk.watch", start);
+            retVal += "\n" + watch.getKey() + ":" + describe(best);
+        }
+        
+        return retVal.isEmpty() ? "no watches" : retVal;
+    }
+    
+    /**
+     * Runs an <code>order</code> batch command, which keeps every pizza of
+     * the list in a <code>PriorityPizzaInventory</code> ordered by a key,
+     * so that the first pizza by that key may be had at once through the
+     * <code>first</code> command. Adding a pizza then also costs
+     * O(log n).
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>order key [desc]</code>, <code>order off</code>,
+     *                or <code>order</code> to report the current order.
+     * 
+     * @return The current order.
+     */
+    private String order(CommandTokenizer command) {
+        if(command.tokenEquals(1, "off")) {
+            ordered = null;
+            orderedIds.clear();
+        } else if(command.tokenCount() > 1) {
+            PizzaKey key = PizzaKey.parse(command.token(1));
+            
+            ordered = new PriorityPizzaInventory(key,
+                                                 command.tokenEquals(2, "desc"));
+            orderedIds.clear();
+            
+            for(int index = 0; index < pizzas.size(); index++) {
+                orderedIds.put(pizzas.get(index),
+                               ordered.add(pizzas.get(index)));
+            }
+        }
+        
+        if(ordered == null) {
+            return "ordering off";
+        }
+        
+        return "ordered by " + ordered.getKey().name().toLowerCase() +
+               (ordered.isGreatestFirst() ? ", greatest first" :
+                                            ", least first");
+    }
+    
+    /**
+     * Runs a <code>place</code> batch command, which sets every pizza of
+     * the list down on a <code>CounterLayout</code> and indexes where each
+     * lies in a <code>SpatialIndex</code>, so that the <code>nearest</code>
+     * and <code>region</code> commands need not look at every pizza. New
+     * pizzas are then set down too, and finished pizzas taken away.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>place [columns] [spacing]</code> or
+     *                <code>place off</code>.
+     * 
+     * @return The number of pizzas placed.
+     */
+    private String place(CommandTokenizer command) {
+        if(command.tokenEquals(1, "off")) {
+            counter = null;
+            placed  = null;
+            
+            return "placement off";
+        }
+        
+        int columns = command.tokenCount() > 1 ? command.intToken(1) :
+                                                 CounterLayout.DEFAULT_COLUMNS;
+        int spacing = command.tokenCount() > 2 ? command.intToken(2) :
+                                                 CounterLayout.DEFAULT_SPACING;
+        
+        counter = new CounterLayout(columns, spacing);
+        placed  = new SpatialIndex(spacing);
+        
+        for(int index = 0; index < pizzas.size(); index++) {
+            counter.place(pizzas.get(index));
+            placed.add(pizzas.get(index));
+        }
+        
+        return placed.size() + " pizzas placed, " + columns + " to a row, " +
+               spacing + " apart";
+    }
+    
+    /**
+     * @return The index of where the pizzas lie, once placed.
+     */
+    private SpatialIndex placedIndex() {
+        if(placed == null) {
+            throw new PizzaException("Pizzas are not placed; place them " +
+                                     "with place [columns] [spacing].");
+        }
+        
+        return placed;
+    }
+    
+    /**
+     * Runs a <code>filter</code> batch command, which finds every pizza of
+     * the list with all of the toppings named and none of those named with
+     * a leading <code>'-'</code>, using a <code>ToppingIndex</code> built
+     * once per change to the list. With <code>scan</code> as the first
+     * argument, each pizza's toppings are tested in turn instead.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>filter [scan] topping... [-topping...]</code>.
+     * 
+     * @return The number of pizzas found and the indexes of the first few.
+     */
+    private String filter(CommandTokenizer command) {
+        boolean  scan  = command.tokenEquals(1, "scan");
+        String[] names = new String[command.tokenCount() - (scan ? 2 : 1)];
+        
+        for(int index = 0; index < names.length; index++) {
+            names[index] = command.token(command.tokenCount() - names.length +
+                                         index);
+        }
+        
+        ToppingFilter filter = ToppingFilter.parse(names);
+        long          start  = metrics.start();
+        int           count  = 0;
+        int[]         first  = new int[FILTER_SHOWN];
+        
+        if(scan) {
+            for(int index = 0; index < pizzas.size(); index++) {
+                if(filter.matches(pizzas.get(index))) {
+                    if(count < first.length) {
+                        first[count] = index;
+                    }
+                    
+                    count++;
+                }
+            }
+            
+            first = Arrays.copyOf(first, Math.min(count, first.length));
+        } else {
+            if(toppings == null) {
+                toppings = new ToppingIndex(pizzas);
+            }
+            
+            long[] selected = toppings.select(filter);
+            
+            count = ToppingIndex.count(selected);
+            first = ToppingIndex.indexes(selected, FILTER_SHOWN);
+        }
+        
+        metrics.stop("filter", start);
+        
+        return count + " pizzas with " + filter +
+               (first.length > 0 ? ", first at " + Arrays.toString(first) : "");
+    }
+    
+    /**
+     * Describes the given pizzas briefly, one per line, by the three keys
+     * by which they may be ranked.
+     * 
+     * @param best The pizzas to describe.
+     * 
+     * @return The description, beginning with a newline if there are any
+     *         pizzas.
+     */
+    private static String describe(Pizza[] best) {
+        String retVal = "";
+        
+        for(int rank = 0; rank < best.length; rank++) {
+            retVal += String.format("%n%3d. %s, %d calories, %.2f area",
+                                    rank + 1, best[rank].getCost(),
+                                    best[rank].getCalories(),
+                                    best[rank].getRemainingArea());
+        }
+        
+        return retVal.isEmpty() ? "none" : retVal;
+    }
+    
+    /**
+     * Draws every pizza of the list onto PNG sheets of tiles with an
+     * <code>InventoryRenderer</code>, as described by the given
+     * <code>render</code> batch command, using every processor.
+     * 
+     * Given sheets which cannot be written, a <code>PizzaException</code>
+     * is thrown detailing the error.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>render prefix [tile] [perSheet]</code>, which
+     *                writes <code>prefix-0.png</code> and so on.
+     * 
+     * @return The number of sheets written.
+     */
+    private String render(CommandTokenizer command) {
+        int tileSize = command.tokenCount() > 2 ? command.intToken(2) :
+                       InventoryRenderer.DEFAULT_TILE_SIZE;
+        int perSheet = command.tokenCount() > 3 ? command.intToken(3) :
+                       InventoryRenderer.DEFAULT_PIZZAS_PER_SHEET;
+        
+        ArrayList<Pizza>  all      = snapshot();
+        InventoryRenderer renderer =
+                new InventoryRenderer(tileSize,
+                                      Runtime.getRuntime()
+                                             .availableProcessors());
+        long start = metrics.start();
+        
+        try {
+            int sheets = renderer.renderSheets(all, perSheet,
+                                               command.token(1));
+            
+            metrics.stop("render", start);
+            
+            return sheets + " sheets written";
+        } catch(IOException error) {
+            throw new PizzaException("Cannot write sheets to \"" +
+                                     command.token(1) + "\": " +
+                                     error.getMessage());
+        }
+    }
+    
+    /**
+     * Makes pizzas through a <code>KitchenPipeline</code> as described by
+     * the given <code>bake</code> batch command, adding each one to the end
+     * of this manager's list once the kitchen has finished.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>bake count [workers] [batch]</code>, in which
+     *                every stage is given <code>workers</code> threads.
+     * 
+     * @return The kitchen's report of each stage.
+     */
+    private String bakePizzas(CommandTokenizer command) {
+        int count   = command.intToken(1);
+        int workers = command.tokenCount() > 2 ? command.intToken(2) : 1;
+        int batch   = command.tokenCount() > 3 ? command.intToken(3) :
+                                                 KitchenPipeline.DEFAULT_BATCH_SIZE;
+        
+        int[] workersPerStage = new int[KitchenPipeline.STAGE_NAMES.length];
+        
+        for(int index = 0; index < workersPerStage.length; index++) {
+            workersPerStage[index] = workers;
+        }
+        
+        ConcurrentPizzaInventory shelf   = new ConcurrentPizzaInventory();
+        KitchenPipeline          kitchen =
+                new KitchenPipeline(shelf, KitchenPipeline.DEFAULT_QUEUE_CAPACITY,
+                                    batch, workersPerStage);
+        
+        try {
+            kitchen.run(count);
+        } catch(InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new PizzaException("The kitchen was interrupted.");
+        }
+        
+        for(Pizza pizza : shelf.snapshot()) {
+            addPizza(pizza);
+        }
+        
+        return "\n" + kitchen.report().trim();
+    }
+    
+    /**
+     * Runs a <code>CustomerSimulation</code> described by the given
+     * <code>simulate</code> batch command on a fresh
+     * <code>ConcurrentPizzaInventory</code> stocked with as many pizzas as
+     * there are in this manager's list (at least one hundred).
+     * 
+     * The pizzas in this manager's list are left untouched.
+     * 
+     * @param command The tokenizer positioned at the command, of the form
+     *                <code>simulate customers [visits] [criterion]</code>.
+     * 
+     * @return The report of the simulation.
+     */
+    private String simulateCustomers(CommandTokenizer command) {
+        int numCustomers = command.intToken(1);
+        int visits       = command.tokenCount() > 2 ? command.intToken(2) : 1;
+        
+        CustomerSimulation.Criterion criterion =
+                CustomerSimulation.Criterion.CALORIES;
+        
+        if(command.tokenEquals(3, "price")) {
+            criterion = CustomerSimulation.Criterion.PRICE;
+        } else if(command.tokenEquals(3, "size")) {
+            criterion = CustomerSimulation.Criterion.SIZE;
+        }
+        
+        try {
+            return "\n" + new CustomerSimulation(new ConcurrentPizzaInventory(),
+                                                 numCustomers, visits,
+                                                 criterion,
+                                                 Math.max(100, pizzas.size()))
+                          .run();
+        } catch(InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new PizzaException("The simulation was interrupted.");
+        }
+    }
+    
     /**
      * Eats a specified fractional amount of pizza from the pizza specified
      * by a given index, removing the pizza from the list if its size
@@ -198,31 +1002,117 @@ public class PizzaManager {
             return;
         }
         
-        int separatorIndex = line.indexOf('/');
-        int numerator      = 0;
-        int denominator    = 0;
-        Fraction amount    = null;
+        Fraction amount = parseFraction(line);
         
-        try {
-            numerator   = Integer.parseInt(line.substring(0, separatorIndex));
-            denominator = Integer.parseInt(line.substring(separatorIndex + 1));
-            
-            amount = new Fraction(numerator, denominator);
-        } catch(Exception parseFailure) {
+        if(amount == null) {
             System.out.println("Could not parse a valid fraction from \"" +
                                line + "\". Please try again.");
             return;
         }
         
+        try {
+            eatFromPizza(pizzaIndex, amount);
+        } catch(PizzaException error) {
+            System.out.println(error.getMessage());
+        }
+    }
+    
+    /**
+     * Eats the given fractional amount from the pizza at the given index,
+     * removing the pizza from the list if its size reaches zero.
+     * 
+     * Given an invalid index or an amount which cannot be eaten from the
+     * pizza, a <code>PizzaException</code> is thrown detailing the error.
+     * 
+     * @param pizzaIndex The index of the pizza to eat from.
+     * @param amount The fractional amount of the pizza to eat.
+     * 
+     * @return <code>true</code> if the pizza was finished and removed from
+     *         the list; <code>false</code> if some of it remains.
+     */
+    private boolean eatFromPizza(int pizzaIndex, Fraction amount) {
+        if(pizzaIndex < 0 || pizzaIndex >= pizzas.size()) {
+            throw new PizzaException(pizzaIndex + " is not a valid index.");
+        }
+        
+        Pizza  pizza   = pizzas.get(pizzaIndex);
+        double oldArea = pizza.getRemainingArea();
+        long   start   = metrics.start();
+        
+        // Eating may reorder pizzas by size.
+        sortedBy = null;
+        
         try {
             pizza.eatSomePizza(amount);
+            stats.areaChanged(oldArea, pizza.getRemainingArea());
+            
+            for(StreamingTopK watch : watches.values()) {
+                watch.changed(pizza);
+            }
+            
+            if(ordered != null) {
+                ordered.resized(orderedIds.get(pizza));
+            }
         } catch(PizzaException error) {
             // This could be a call to remove the pizza. Let's find out.
             if(pizza.getRemaining().getNumerator() == 0) {
+                stats.areaChanged(oldArea, 0);
+                stats.remove(pizza);
                 pizzas.remove(pizzaIndex);
-            } else {
-                System.out.println(error.getMessage());
+                toppings = null;
+                
+                for(StreamingTopK watch : watches.values()) {
+                    watch.removed(pizza);
+                }
+                
+                if(ordered != null) {
+                    ordered.remove(orderedIds.remove(pizza));
+                }
+                
+                if(placed != null) {
+                    placed.remove(pizza);
+                    counter.remove(pizza);
+                }
+                
+                PizzaEvents.removed(pizza, "PizzaManager");
+                metrics.increment("pizzas.finished");
+                finished.increment();
+                return true;
             }
+            
+            metrics.increment("eat.failed");
+            throw error;
+        } finally {
+            metrics.stop("eat", start);
+            eats.increment();
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Parses a <code>Fraction</code> of the form <code>"a/b"</code> from the
+     * given <code>String</code>.
+     * 
+     * @param text The text from which to parse the fraction.
+     * 
+     * @return The parsed <code>Fraction</code>, or <code>null</code> if the
+     *         text does not hold a valid fraction.
+     */
+    private static Fraction parseFraction(String text) {
+        int separatorIndex = text.indexOf('/');
+        
+        if(separatorIndex == -1) {
+            return null;
+        }
+        
+        try {
+            int numerator   = Integer.parseInt(text.substring(0, separatorIndex));
+            int denominator = Integer.parseInt(text.substring(separatorIndex + 1));
+            
+            return new Fraction(numerator, denominator);
+        } catch(RuntimeException parseFailure) {
+            return null;
         }
     }
     
@@ -234,21 +1124,144 @@ public class PizzaManager {
      * merely inserts a freshly instantiated ("baked", hehe) pizza into the
      * list.
      */
-    private void addRandomPizza() {
-        pizzas.add(new Pizza());
+    void addRandomPizza() {
+        long start = metrics.start();
+        
+        addPizza(new Pizza());
+        
+        metrics.stop("add", start);
+        adds.increment();
     }
 
+    /**
+     * Adds the given pizza to the end of the <code>ArrayList</code> of
+     * pizzas, counting it in <code>stats</code>. This also lets benchmarks
+     * build lists of pizzas in a known order.
+     * 
+     * @param pizza The <code>Pizza</code> to add.
+     */
+    void addPizza(Pizza pizza) {
+        pizzas.add(pizza);
+        stats.add(pizza);
+        sortedBy = null;
+        toppings = null;
+        
+        for(StreamingTopK watch : watches.values()) {
+            watch.added(pizza);
+        }
+        
+        if(ordered != null) {
+            orderedIds.put(pizza, ordered.add(pizza));
+        }
+        
+        if(placed != null) {
+            counter.place(pizza);
+            placed.add(pizza);
+        }
+    }
+    
+    /**
+     * @return The number of pizzas in the <code>ArrayList</code>.
+     */
+    int size() {
+        return pizzas.size();
+    }
+    
+    /**
+     * Returns the pizzas as they are now, in their current order, without
+     * copying them. The snapshot shares the list's chunks, each copied by
+     * the list only once it next changes, so a reader may take as long as
+     * it likes over the snapshot, even on another thread, without holding
+     * up changes to the list or seeing half of one.
+     * 
+     * @return A snapshot of the list of pizzas.
+     */
+    ArrayList<Pizza> snapshot() {
+        return pizzas.snapshot();
+    }
+    
+    /**
+     * @return The number of pizzas the <code>ArrayList</code> can hold
+     *         before it must grow.
+     */
+    int capacity() {
+        return pizzas.capacity();
+    }
+    
+    /**
+     * @return The number of pizzas added one at a time.
+     */
+    long addCount() {
+        return adds.sum();
+    }
+    
+    /**
+     * @return The number of sorts by any key or composite order.
+     */
+    long sortCount() {
+        return sorts.sum();
+    }
+    
+    /**
+     * @return The number of binary searches, by calories or by a composite
+     *         order.
+     */
+    long searchCount() {
+        return searches.sum();
+    }
+    
+    /**
+     * @return The number of times a pizza was eaten from, successfully or
+     *         not.
+     */
+    long eatCount() {
+        return eats.sum();
+    }
+    
+    /**
+     * @return The number of pizzas eaten until none remained.
+     */
+    long finishedCount() {
+        return finished.sum();
+    }
+    
+    /**
+     * @return The registry holding this manager's metrics.
+     */
+    MetricsRegistry metrics() {
+        return metrics;
+    }
+    
+    /**
+     * @return The algorithm used by the sorts.
+     */
+    SortStrategy getSortStrategy() {
+        return sortStrategy;
+    }
+    
+    /**
+     * Changes the algorithm used by the sorts, starting with the next one.
+     * This may be called from any thread.
+     * 
+     * @param strategy The algorithm to use.
+     */
+    void setSortStrategy(SortStrategy strategy) {
+        sortStrategy = strategy;
+    }
+    
     /**
      * Displays all of the <code>Pizza</code> objects in the
      * <code>pizzas</code> <code>ArrayList</code> in their current order.
      * 
      * By current order, it is meant that this method does no kind of sorting
      * operations on the list. Rather, it merely iterates over the contents
-     * of the list, printing each element to the console.
+     * of a snapshot of the list, printing each element to the console.
      */
     private void displayAllPizzas() {
-        for(int index = 0; index < pizzas.size(); index++) {
-            System.out.println(pizzas.get(index));
+        ArrayList<Pizza> all = snapshot();
+        
+        for(int index = 0; index < all.size(); index++) {
+            System.out.println(all.get(index));
         }
     }
 
@@ -259,21 +1272,38 @@ public class PizzaManager {
      * 
      * The sorting in this method is done by using an O(n^2) selection sort,
      * using the comparison values returned by <code>Pizza</code>'s
-     * <code>compareTo</code> method.
+     * <code>compareTo</code> method, unless another
+     * <code>SortStrategy</code> has been chosen.
      */
-    private void sortByPrice() {
-        for(int i = 0; i < pizzas.size(); i++) {
-            int smallestIndex = i;
-            
-            for(int j = i; j < pizzas.size(); j++) {
-                if(pizzas.get(j).compareTo(pizzas.get(smallestIndex)) == -1) {
-                    smallestIndex = j;
+    void sortByPrice() {
+        long               start     = metrics.start();
+        PizzaEvents.Sorted event     = PizzaEvents.beginSort();
+        SortStrategy       algorithm = sortStrategy;
+        
+        sortedBy = null;
+        toppings = null;
+        
+        if(algorithm != SortStrategy.SELECTION) {
+            sortWith(PizzaKey.PRICE, false, algorithm);
+        } else {
+            for(int i = 0; i < pizzas.size(); i++) {
+                int smallestIndex = i;
+                
+                for(int j = i; j < pizzas.size(); j++) {
+                    if(pizzas.get(j).compareTo(pizzas.get(smallestIndex))
+                       == -1) {
+                        smallestIndex = j;
+                    }
                 }
+                
+                Pizza temp = pizzas.set(pizzas.get(smallestIndex), i);
+                pizzas.set(temp, smallestIndex);
             }
-            
-            Pizza temp = pizzas.set(pizzas.get(smallestIndex), i);
-            pizzas.set(temp, smallestIndex);
         }
+        
+        metrics.stop("sort.price", start);
+        sorts.increment();
+        PizzaEvents.endSort(event, PizzaKey.PRICE, algorithm, pizzas.size());
     }
     
     /**
@@ -284,22 +1314,38 @@ public class PizzaManager {
      * 
      * The sorting in this method is done by using an O(n^2) selection sort,
      * using the comparison values returned by <code>Pizza</code>'s
-     * <code>compareTo</code> method.
+     * <code>compareTo</code> method, unless another
+     * <code>SortStrategy</code> has been chosen.
      */
-    private void sortBySize() {
-        for(int i = 0; i < pizzas.size(); i++) {
-            int smallestIndex = i;
-            
-            for(int j = i; j < pizzas.size(); j++) {
-                if(pizzas.get(j).compareToBySize(pizzas.get(smallestIndex))
-                   == 1) {
-                    smallestIndex = j;
+    void sortBySize() {
+        long               start     = metrics.start();
+        PizzaEvents.Sorted event     = PizzaEvents.beginSort();
+        SortStrategy       algorithm = sortStrategy;
+        
+        sortedBy = null;
+        toppings = null;
+        
+        if(algorithm != SortStrategy.SELECTION) {
+            sortWith(PizzaKey.SIZE, true, algorithm);
+        } else {
+            for(int i = 0; i < pizzas.size(); i++) {
+                int smallestIndex = i;
+                
+                for(int j = i; j < pizzas.size(); j++) {
+                    if(pizzas.get(j).compareToBySize(pizzas.get(smallestIndex))
+                       == 1) {
+                        smallestIndex = j;
+                    }
                 }
+                
+                Pizza temp = pizzas.set(pizzas.get(smallestIndex), i);
+                pizzas.set(temp, smallestIndex);
             }
-            
-            Pizza temp = pizzas.set(pizzas.get(smallestIndex), i);
-            pizzas.set(temp, smallestIndex);
         }
+        
+        metrics.stop("sort.size", start);
+        sorts.increment();
+        PizzaEvents.endSort(event, PizzaKey.SIZE, algorithm, pizzas.size());
     }
     
     /**
@@ -310,21 +1356,106 @@ public class PizzaManager {
      * 
      * The sorting in this method is done by using an O(n^2) selection sort,
      * using the comparison values returned by <code>Pizza</code>'s
-     * <code>compareTo</code> method.
+     * <code>compareTo</code> method, unless another
+     * <code>SortStrategy</code> has been chosen.
      */
-    private void sortByCalories() {
-        for(int i = 0; i < pizzas.size(); i++) {
-            int smallestIndex = i;
-            
-            for(int j = i; j < pizzas.size(); j++) {
-                if(pizzas.get(j).compareToByCalories(pizzas.get(smallestIndex))
-                   == -1) {
-                    smallestIndex = j;
+    void sortByCalories() {
+        long               start     = metrics.start();
+        PizzaEvents.Sorted event     = PizzaEvents.beginSort();
+        SortStrategy       algorithm = sortStrategy;
+        
+        sortedBy = null;
+        toppings = null;
+        
+        if(algorithm != SortStrategy.SELECTION) {
+            sortWith(PizzaKey.CALORIES, false, algorithm);
+        } else {
+            for(int i = 0; i < pizzas.size(); i++) {
+                int smallestIndex = i;
+                
+                for(int j = i; j < pizzas.size(); j++) {
+                    if(pizzas.get(j).compareToByCalories(
+                            pizzas.get(smallestIndex)) == -1) {
+                        smallestIndex = j;
+                    }
                 }
+                
+                Pizza temp = pizzas.set(pizzas.get(smallestIndex), i);
+                pizzas.set(temp, smallestIndex);
             }
-            
-            Pizza temp = pizzas.set(pizzas.get(smallestIndex), i);
-            pizzas.set(temp, smallestIndex);
+        }
+        
+        metrics.stop("sort.calories", start);
+        sorts.increment();
+        PizzaEvents.endSort(event, PizzaKey.CALORIES, algorithm, pizzas.size());
+    }
+    
+    /**
+     * Sorts all of the pizzas in the <code>ArrayList</code> into the given
+     * order by several keys, such as by calories and then by price, with a
+     * single O(n log n) pass over keys read once from each pizza. See
+     * <code>CompositeOrder</code>.
+     * 
+     * @param order The order into which the pizzas are sorted.
+     */
+    void sortByComposite(CompositeOrder order) {
+        long               start  = metrics.start();
+        PizzaEvents.Sorted event  = PizzaEvents.beginSort();
+        Pizza[]            sorted = new Pizza[pizzas.size()];
+        
+        for(int index = 0; index < sorted.length; index++) {
+            sorted[index] = pizzas.get(index);
+        }
+        
+        order.sort(sorted);
+        
+        for(int index = 0; index < sorted.length; index++) {
+            pizzas.set(sorted[index], index);
+        }
+        
+        sortedBy = order.toString();
+        toppings = null;
+        
+        metrics.stop("sort.composite", start);
+        sorts.increment();
+        PizzaEvents.endSort(event, order, sorted.length);
+    }
+    
+    /**
+     * Sorts the pizzas by the given key by copying them into an array,
+     * sorting it, and writing them back into the list in order.
+     * 
+     * The <code>PARALLEL</code> strategy sorts with
+     * <code>Arrays.parallelSort</code>. The <code>MERGE</code> strategy
+     * sorts integral keys, price and calories, with <code>RadixSort</code>
+     * in O(n), and size with a one-key <code>CompositeOrder</code>, which
+     * finds every remaining area in one batch and merge sorts those.
+     * 
+     * @param key The key by which the pizzas are sorted.
+     * @param greatestFirst Whether the greatest pizzas are sorted first.
+     * @param algorithm The strategy sorting, either <code>MERGE</code> or
+     *                  <code>PARALLEL</code>.
+     */
+    private void sortWith(PizzaKey key, boolean greatestFirst,
+                          SortStrategy algorithm) {
+        Pizza[]           sorted = new Pizza[pizzas.size()];
+        Comparator<Pizza> order  = greatestFirst ? key.reversed() : key;
+        
+        for(int index = 0; index < sorted.length; index++) {
+            sorted[index] = pizzas.get(index);
+        }
+        
+        if(algorithm == SortStrategy.PARALLEL) {
+            Arrays.parallelSort(sorted, order);
+        } else if(!greatestFirst && RadixSort.supports(key)) {
+            RadixSort.sort(sorted, key);
+        } else {
+            new CompositeOrder(new PizzaKey[] {key},
+                               new boolean[] {greatestFirst}).sort(sorted);
+        }
+        
+        for(int index = 0; index < sorted.length; index++) {
+            pizzas.set(sorted[index], index);
         }
     }
     
@@ -345,7 +1476,29 @@ public class PizzaManager {
      *         the <code>ArrayList</code> with the given number of calories;
      *         <code>-1</code> is returned otherwise.
      */
-    private int binarySearchByCalories(int cals) {
+    int binarySearchByCalories(int cals) {
+        long                 start = metrics.start();
+        PizzaEvents.Searched event = PizzaEvents.beginSearch();
+        int                  found = findByCalories(cals);
+        
+        metrics.stop("search.calories", start);
+        searches.increment();
+        PizzaEvents.endSearch(event, PizzaKey.CALORIES, "binary",
+                              pizzas.size(), found);
+        
+        return found;
+    }
+    
+    /**
+     * Performs the binary search of <code>binarySearchByCalories</code>,
+     * which only times it.
+     * 
+     * @param cals The number of calories to search for.
+     * 
+     * @return The index of a pizza with the given number of calories, or
+     *         <code>-1</code> if there is none.
+     */
+    private int findByCalories(int cals) {
         if(pizzas.size() == 0) {
             return -1;
         } else if(pizzas.size() == 1) {
@@ -388,7 +1541,65 @@ public class PizzaManager {
             "----------\n(A)dd a random pizza\nAdd a (H)undred random pizzas" +
             "\n(E)at a fraction of a pizza\nSort pizzas by (P)rice\nSort piz" +
             "zas by (S)ize\nSort pizzas by (C)alories\n(B)inary Search pizza" +
-            "s by calories\n(Q)uit\n";
+            "s by calories\nShow (M)etrics\nShow (I)nventory statistics\n(Q)ui" +
+            "t\n";
+
+    /**
+     * The most indexes of pizzas listed by the <code>filter</code> command.
+     */
+    private static final int FILTER_SHOWN = 10;
+    
+    /**
+     * The commands understood by <code>runBatch</code>, one per line, in
+     * which arguments in brackets are optional.
+     */
+    private static final String BATCH_USAGE =
+            "add [count]                   adds count (default 1) random " +
+            "pizzas\n" +
+            "sort price|size|calories      sorts the pizzas by the given " +
+            "key\n" +
+            "sort <key>,<key>[,...]        sorts by several keys; -key for " +
+            "descending\n" +
+            "search calories <count>       binary searches pizzas sorted by " +
+            "calories\n" +
+            "search <key>,... <value>...   finds the first pizza with the " +
+            "leading keys given (cents, calories, area)\n" +
+            "eat <index> <a/b>             eats a/b of the pizza at index\n" +
+            "top|bottom <k> <key>          lists the k greatest or least " +
+            "pizzas by key\n" +
+            "watch [top|bottom <k> <key>]  keeps the k greatest or least up " +
+            "to date, or reports them\n" +
+            "watch off                     stops every watch\n" +
+            "order [<key> [desc]|off]      keeps pizzas ordered by key at " +
+            "all times, or stops\n" +
+            "first                         shows the first pizza of the " +
+            "order in O(1)\n" +
+            "place [cols] [spacing]|off    sets pizzas down on a counter " +
+            "grid and indexes them\n" +
+            "nearest <x> <y>               shows the pizza nearest a point " +
+            "of the counter\n" +
+            "region <x> <y> <w> <h>        counts the pizzas overlapping a " +
+            "region of the counter\n" +
+            "filter [scan] <t>... [-t...]  counts pizzas with every " +
+            "topping t and none of -t\n" +
+            "stats [recount]               reports totals, means, and " +
+            "extremes, first recounting areas\n" +
+            "metrics [on|off]              reports or toggles metrics\n" +
+            "strategy [name]               reports or sets the sort " +
+            "strategy: selection|merge|parallel\n" +
+            "generator [setting...]        reports or sets how random " +
+            "pizzas are made, such as\n" +
+            "                              shapes=circle:3,square:1 " +
+            "sizes=1:4,2:1 counts=1-5\n" +
+            "render <prefix> [tile] [n]    draws the pizzas to PNG sheets " +
+            "of n tiles, prefix-0.png...\n" +
+            "bake <n> [workers] [batch]    makes n pizzas in the kitchen " +
+            "pipeline\n" +
+            "simulate <n> [visits] [key]   runs n customers eating by " +
+            "price|size|calories\n" +
+            "display                       displays all pizzas\n" +
+            "size                          reports the number of pizzas\n" +
+            "quit                          stops reading commands\n";
 
     /**
      * Prompts the user of all possible options, acting as the main
@@ -408,9 +1619,51 @@ public class PizzaManager {
      * This method exits when quit is entered as the user's option,
      * returning from <code>start</code>.
      * 
-     * @param args Command line arguments not used.
+     * Given <code>--batch</code> as the first argument, commands are instead
+     * run through <code>runBatch</code>, read from the file named by the
+     * second argument or from standard input if there is none (or it is
+     * <code>-</code>).
+     * 
+     * Given a <code>pizza.metrics.dump</code> system property, metrics are
+     * enabled and written to the file it names every
+     * <code>pizza.metrics.interval</code> seconds (ten by default). Given
+     * <code>-Dpizza.jmx=true</code>, a <code>PizzaManagerStats</code> bean is
+     * registered for the manager.
+     * 
+     * @param args Command line arguments: optionally <code>--batch</code>
+     *             followed by the name of a command file.
+     * 
+     * @throws IOException If reading batch commands fails.
      */
-    public static void main(String[] args) {
-        new PizzaManager().start();
+    public static void main(String[] args) throws IOException {
+        PizzaManager manager  = new PizzaManager();
+        String       dumpFile = System.getProperty("pizza.metrics.dump");
+        
+        if(dumpFile != null) {
+            manager.metrics.setEnabled(true);
+            manager.metrics.dumpPeriodically(dumpFile,
+                    Long.getLong("pizza.metrics.interval", 10));
+        }
+        
+        if(Boolean.getBoolean("pizza.jmx")) {
+            PizzaManagerStats.register(manager);
+        }
+        
+        if(args.length == 0 || !args[0].equals("--batch")) {
+            manager.start();
+            return;
+        }
+        
+        if(args.length > 1 && args[1].equals("--help")) {
+            System.out.print(BATCH_USAGE);
+            return;
+        }
+        
+        boolean fromFile = args.length > 1 && !args[1].equals("-");
+        
+        try(Reader input = fromFile ? new FileReader(args[1]) :
+                                      new InputStreamReader(System.in)) {
+            manager.runBatch(input);
+        }
     }
-}
\ No newline at end of file
+}
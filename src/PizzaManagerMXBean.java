@@ -0,0 +1,102 @@
+import java.util.Map;
+
+/**
+ * This interface describes what a running <code>PizzaManager</code> exposes
+ * through JMX, so that tools such as JConsole may watch and adjust it.
+ *
+ * Every attribute is read from a value kept up to date as the manager
+ * works, such as the list's size or an operation count, so reading one
+ * never scans the list nor waits on the command loop. The values may
+ * therefore be a moment behind the loop.
+ *
+ * Counts are kept at all times, but latencies are only recorded while
+ * metrics are enabled, which registering the bean does; see
+ * <code>PizzaManagerStats.register</code>.
+ *
+ * @author Trystan Cannon
+ */
+public interface PizzaManagerMXBean {
+
+    /**
+     * @return The number of pizzas in the manager's list.
+     */
+    public int getInventorySize();
+
+    /**
+     * @return The number of pizzas the manager's list can hold before its
+     *         array must grow.
+     */
+    public int getListCapacity();
+
+    /**
+     * @return The number of pizzas added to the list one at a time.
+     */
+    public long getAddCount();
+
+    /**
+     * @return The number of sorts by any key or composite order.
+     */
+    public long getSortCount();
+
+    /**
+     * @return The number of binary searches, by calories or by a
+     *         composite order.
+     */
+    public long getSearchCount();
+
+    /**
+     * @return The number of times a pizza was eaten from, successfully or
+     *         not.
+     */
+    public long getEatCount();
+
+    /**
+     * @return The number of pizzas eaten until none remained.
+     */
+    public long getPizzasFinished();
+
+    /**
+     * @return A summary of every timer, by name, giving its count, mean,
+     *         percentiles, and maximum in milliseconds.
+     */
+    public Map<String, String> getLatencies();
+
+    /**
+     * Returns the latency of the timer of the given name at the given
+     * percentile, such as <code>latencyMillis("sort.price", 99)</code>.
+     *
+     * @param timer The name of the timer.
+     * @param percentile The percentile, from 0 to 100.
+     *
+     * @return The latency at the percentile in milliseconds, or zero if
+     *         the timer has recorded nothing.
+     */
+    public double latencyMillis(String timer, double percentile);
+
+    /**
+     * @return The name of the <code>SortStrategy</code> used by the next
+     *         sort.
+     */
+    public String getSortStrategy();
+
+    /**
+     * Changes the algorithm used by the next sort.
+     *
+     * @param strategy The name of a <code>SortStrategy</code>, ignoring
+     *                 case.
+     */
+    public void setSortStrategy(String strategy);
+
+    /**
+     * @return <code>true</code> if metrics are being recorded.
+     */
+    public boolean isMetricsEnabled();
+
+    /**
+     * Starts or stops recording metrics.
+     *
+     * @param enabled Whether metrics should be recorded.
+     */
+    public void setMetricsEnabled(boolean enabled);
+
+}
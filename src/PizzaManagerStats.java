@@ -0,0 +1,159 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class exposes a <code>PizzaManager</code> through JMX as described
+ * by <code>PizzaManagerMXBean</code>.
+ *
+ * Counts are read from the manager's operation counters, which are kept
+ * whether or not metrics are enabled, and latencies from its
+ * <code>MetricsRegistry</code>, whose histograms are updated without
+ * locking as each operation finishes. The list's size and capacity are
+ * single field reads. Nothing here blocks the thread running
+ * the manager's commands.
+ *
+ * @author Trystan Cannon
+ */
+public class PizzaManagerStats implements PizzaManagerMXBean {
+
+    /**
+     * The name under which the bean of <code>register</code> is found.
+     */
+    public static final String OBJECT_NAME = "PizzaSimulator:type=PizzaManager";
+
+    /**
+     * The manager being exposed.
+     */
+    private final PizzaManager manager;
+
+    /**
+     * Constructs a bean exposing the given manager.
+     *
+     * @param manager The manager to expose.
+     */
+    public PizzaManagerStats(PizzaManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Enables the given manager's metrics and registers a bean exposing it
+     * with the platform MBean server under <code>OBJECT_NAME</code>,
+     * replacing any bean already registered there.
+     *
+     * Given a failure to register, a <code>PizzaException</code> is thrown
+     * detailing the error.
+     *
+     * @param manager The manager to expose.
+     *
+     * @return The bean which was registered.
+     */
+    public static PizzaManagerStats register(PizzaManager manager) {
+        PizzaManagerStats stats = new PizzaManagerStats(manager);
+
+        manager.metrics().setEnabled(true);
+
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if(ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats,
+                                                                     name);
+        } catch(JMException failure) {
+            throw new PizzaException("Could not register " + OBJECT_NAME +
+                                     ": " + failure.getMessage());
+        }
+
+        return stats;
+    }
+
+    @Override
+    public int getInventorySize() {
+        return manager.size();
+    }
+
+    @Override
+    public int getListCapacity() {
+        return manager.capacity();
+    }
+
+    @Override
+    public long getAddCount() {
+        return manager.addCount();
+    }
+
+    @Override
+    public long getSortCount() {
+        return manager.sortCount();
+    }
+
+    @Override
+    public long getSearchCount() {
+        return manager.searchCount();
+    }
+
+    @Override
+    public long getEatCount() {
+        return manager.eatCount();
+    }
+
+    @Override
+    public long getPizzasFinished() {
+        return manager.finishedCount();
+    }
+
+    @Override
+    public Map<String, String> getLatencies() {
+        Map<String, String> latencies = new TreeMap<>();
+
+        for(Map.Entry<String, LatencyHistogram> timer :
+                manager.metrics().getTimers().entrySet()) {
+            latencies.put(timer.getKey(), timer.getValue().toString());
+        }
+
+        return latencies;
+    }
+
+    @Override
+    public double latencyMillis(String timer, double percentile) {
+        LatencyHistogram histogram = manager.metrics().getTimers().get(timer);
+        return histogram == null ? 0 : histogram.getPercentile(percentile) / 1e6;
+    }
+
+    @Override
+    public String getSortStrategy() {
+        return manager.getSortStrategy().name();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Given a name matching no strategy, an
+     * <code>IllegalArgumentException</code> is thrown rather than a
+     * <code>PizzaException</code>, which a JMX client could not load.
+     */
+    @Override
+    public void setSortStrategy(String strategy) {
+        try {
+            manager.setSortStrategy(SortStrategy.parse(strategy));
+        } catch(PizzaException unknown) {
+            throw new IllegalArgumentException(unknown.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return manager.metrics().isEnabled();
+    }
+
+    @Override
+    public void setMetricsEnabled(boolean enabled) {
+        manager.metrics().setEnabled(enabled);
+    }
+
+}
@@ -0,0 +1,459 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class implements a <code>PizzaInventory</code> which keeps its
+ * pizzas in order by one <code>PizzaKey</code> at all times, so that the
+ * first pizza, such as the cheapest, is always at hand.
+ *
+ * The pizzas are held in an indexed binary heap. Each pizza lives in a
+ * slot, numbered from zero and reused once its pizza is gone, and the heap
+ * is an array of slots; every slot also remembers where it is in the heap.
+ * So:
+ *     - <code>add</code> and <code>poll</code> are O(log n)
+ *     - <code>peek</code> is O(1)
+ *     - <code>eat</code> by identifier is O(log n)
+ *
+ * Eating a pizza only changes its rank when ordering by size. Its remaining
+ * area then shrinks, which is a decrease-key: the pizza is sifted toward
+ * the root when the least pizzas come first, or away from it when the
+ * greatest do, rather than removed and added again.
+ *
+ * A heap has one order shared by every pizza, so a single lock guards the
+ * whole inventory. It suits a manager wanting its first pizza often rather
+ * than many threads eating at once, for which
+ * <code>ConcurrentPizzaInventory</code> is better.
+ *
+ * @author Trystan Cannon
+ */
+public class PriorityPizzaInventory implements PizzaInventory {
+
+    /**
+     * The number of slots first allocated.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The key by which the pizzas are ordered.
+     */
+    private final PizzaKey key;
+
+    /**
+     * Whether the greatest pizzas come first rather than the least.
+     */
+    private final boolean greatestFirst;
+
+    /**
+     * The order of the heap, least (first) first.
+     */
+    private final Comparator<Pizza> order;
+
+    /**
+     * The slot of each pizza, by identifier.
+     */
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    /**
+     * The pizza in each slot, or <code>null</code> if the slot is free.
+     */
+    private Pizza[] slotPizzas = new Pizza[DEFAULT_CAPACITY];
+
+    /**
+     * The identifier of the pizza in each slot.
+     */
+    private long[] slotIds = new long[DEFAULT_CAPACITY];
+
+    /**
+     * Where each slot is in <code>heap</code>.
+     */
+    private int[] slotPositions = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The heap of slots; the pizza of <code>heap[0]</code> comes first, and
+     * no slot's pizza comes before that of its parent.
+     */
+    private int[] heap = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The free slots, as a stack.
+     */
+    private int[] freeSlots = new int[0];
+
+    /**
+     * The number of free slots on <code>freeSlots</code>.
+     */
+    private int numFreeSlots = 0;
+
+    /**
+     * The number of slots ever used.
+     */
+    private int numSlots = 0;
+
+    /**
+     * The number of pizzas in the heap.
+     */
+    private int size = 0;
+
+    /**
+     * The identifier to be given to the next pizza added.
+     */
+    private long nextId = 0;
+
+    /**
+     * Constructs an empty inventory ordered by the given key.
+     *
+     * Given a <code>null</code> key, a <code>PizzaException</code> is thrown
+     * detailing the error.
+     *
+     * @param key The key by which the pizzas are ordered.
+     * @param greatestFirst Whether the greatest pizzas come first, such as
+     *                      the largest by size, rather than the least.
+     */
+    public PriorityPizzaInventory(PizzaKey key, boolean greatestFirst) {
+        if(key == null) {
+            throw new PizzaException("Cannot order an inventory by a null " +
+                                     "key.");
+        }
+
+        this.key           = key;
+        this.greatestFirst = greatestFirst;
+        this.order         = greatestFirst ? key.reversed() : key;
+    }
+
+    /**
+     * @return The key by which the pizzas are ordered.
+     */
+    public PizzaKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return <code>true</code> if the greatest pizzas come first.
+     */
+    public boolean isGreatestFirst() {
+        return greatestFirst;
+    }
+
+    /**
+     * Adds the given pizza to the inventory under a new identifier, in
+     * O(log n).
+     *
+     * Given a <code>null</code> pizza, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param pizza The <code>Pizza</code> to add.
+     *
+     * @return The identifier given to the pizza.
+     */
+    @Override
+    public synchronized long add(Pizza pizza) {
+        if(pizza == null) {
+            throw new PizzaException("Cannot add a null Pizza to an " +
+                                     "inventory.");
+        }
+
+        int  slot = takeSlot();
+        long id   = nextId++;
+
+        slotPizzas[slot] = pizza;
+        slotIds[slot]    = id;
+        heap[size]       = slot;
+        slots.put(id, slot);
+
+        siftUp(size++);
+
+        return id;
+    }
+
+    /**
+     * @param id The identifier of the pizza to return.
+     *
+     * @return The pizza with the given identifier, or <code>null</code> if
+     *         there is none.
+     */
+    @Override
+    public synchronized Pizza get(long id) {
+        Integer slot = slots.get(id);
+        return slot == null ? null : slotPizzas[slot];
+    }
+
+    /**
+     * Eats the given fractional amount from the pizza with the given
+     * identifier, removing it if this call finishes it, and otherwise
+     * moving it to its new place if ordering by size.
+     *
+     * Given an identifier with no pizza, or an amount which cannot be eaten
+     * from the pizza, a <code>PizzaException</code> is thrown detailing the
+     * error.
+     *
+     * @param id The identifier of the pizza to eat from.
+     * @param amount The fractional amount of the pizza to eat.
+     *
+     * @return <code>true</code> if this call finished the pizza and removed
+     *         it; <code>false</code> if some of it remains.
+     */
+    @Override
+    public synchronized boolean eat(long id, Fraction amount) {
+        Integer slot = slots.get(id);
+
+        if(slot == null) {
+            throw new PizzaException("There is no pizza " + id + " to eat.");
+        }
+
+        if(slotPizzas[slot].eat(amount)) {
+            removeSlot(slot);
+            PizzaEvents.removed(slotPizzas[slot], "PriorityPizzaInventory");
+            freeSlot(slot);
+            return true;
+        }
+
+        reposition(slot);
+
+        return false;
+    }
+
+    /**
+     * Moves the pizza with the given identifier to its new place after it
+     * was eaten from outside of <code>eat</code>, as
+     * <code>PizzaManager</code> does. Only ordering by size needs this.
+     *
+     * @param id The identifier of the pizza eaten from.
+     */
+    synchronized void resized(long id) {
+        Integer slot = slots.get(id);
+
+        if(slot != null) {
+            reposition(slot);
+        }
+    }
+
+    /**
+     * Removes the pizza with the given identifier, if there is one, in
+     * O(log n).
+     *
+     * @param id The identifier of the pizza to remove.
+     *
+     * @return The pizza removed, or <code>null</code> if there was none.
+     */
+    public synchronized Pizza remove(long id) {
+        Integer slot = slots.get(id);
+
+        if(slot == null) {
+            return null;
+        }
+
+        Pizza pizza = slotPizzas[slot];
+
+        removeSlot(slot);
+        freeSlot(slot);
+
+        return pizza;
+    }
+
+    /**
+     * Returns the first pizza, such as the cheapest, in O(1).
+     *
+     * @return The first pizza, or <code>null</code> if there are none.
+     */
+    public synchronized Pizza peek() {
+        return size == 0 ? null : slotPizzas[heap[0]];
+    }
+
+    /**
+     * @return The identifier of the first pizza, or <code>-1</code> if
+     *         there are none.
+     */
+    public synchronized long peekId() {
+        return size == 0 ? -1 : slotIds[heap[0]];
+    }
+
+    /**
+     * Removes and returns the first pizza in O(log n).
+     *
+     * @return The first pizza, or <code>null</code> if there are none.
+     */
+    public synchronized Pizza poll() {
+        return size == 0 ? null : remove(slotIds[heap[0]]);
+    }
+
+    /**
+     * Returns the identifier of the pizza at the position in the heap
+     * picked by the given hint, in O(1).
+     *
+     * @param hint Any value; the same hint tends to give the same pizza.
+     *
+     * @return The identifier of a pizza in the inventory, or <code>-1</code>
+     *         if the inventory is empty.
+     */
+    @Override
+    public synchronized long idNear(long hint) {
+        return size == 0 ? -1 : slotIds[heap[Math.floorMod(hint, size)]];
+    }
+
+    /**
+     * @return The number of pizzas currently in the inventory.
+     */
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return An array of the pizzas in the inventory, first pizza first
+     *         but otherwise in the order of the heap.
+     */
+    @Override
+    public synchronized Pizza[] snapshot() {
+        Pizza[] retVal = new Pizza[size];
+
+        for(int index = 0; index < size; index++) {
+            retVal[index] = slotPizzas[heap[index]];
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Returns every pizza in order, which costs O(n log n) since the heap
+     * is only partly in order.
+     *
+     * @return An array of the pizzas in the inventory, in order.
+     */
+    public Pizza[] inOrder() {
+        Pizza[] retVal = snapshot();
+        Arrays.sort(retVal, order);
+
+        return retVal;
+    }
+
+    /**
+     * Moves the pizza in the given slot to its new place after its
+     * remaining size changed.
+     */
+    private void reposition(int slot) {
+        if(key != PizzaKey.SIZE) {
+            return;
+        }
+
+        // Eating only shrinks a pizza, so it moves toward the root when the
+        // least come first and away from it when the greatest do.
+        if(greatestFirst) {
+            siftDown(slotPositions[slot]);
+        } else {
+            siftUp(slotPositions[slot]);
+        }
+    }
+
+    /**
+     * Takes the heap position of the given slot out of the heap, filling
+     * it with the last slot of the heap.
+     */
+    private void removeSlot(int slot) {
+        int position = slotPositions[slot];
+        int last     = heap[--size];
+
+        slots.remove(slotIds[slot]);
+
+        if(position == size) {
+            return;
+        }
+
+        heap[position]      = last;
+        slotPositions[last] = position;
+
+        siftUp(position);
+        siftDown(slotPositions[last]);
+    }
+
+    /**
+     * @return A free slot, growing the arrays if there is none.
+     */
+    private int takeSlot() {
+        if(numFreeSlots > 0) {
+            return freeSlots[--numFreeSlots];
+        }
+
+        if(numSlots == slotPizzas.length) {
+            int capacity = slotPizzas.length * 2;
+
+            slotPizzas    = Arrays.copyOf(slotPizzas, capacity);
+            slotIds       = Arrays.copyOf(slotIds, capacity);
+            slotPositions = Arrays.copyOf(slotPositions, capacity);
+            heap          = Arrays.copyOf(heap, capacity);
+        }
+
+        return numSlots++;
+    }
+
+    /**
+     * Returns the given slot, whose pizza has left the heap, to be reused.
+     */
+    private void freeSlot(int slot) {
+        slotPizzas[slot] = null;
+
+        if(numFreeSlots == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots,
+                                      Math.max(DEFAULT_CAPACITY,
+                                               freeSlots.length * 2));
+        }
+
+        freeSlots[numFreeSlots++] = slot;
+    }
+
+    /**
+     * Moves the slot at the given heap position toward the root while its
+     * pizza comes before its parent's.
+     */
+    private void siftUp(int position) {
+        int   slot  = heap[position];
+        Pizza pizza = slotPizzas[slot];
+
+        while(position > 0) {
+            int parent = (position - 1) / 2;
+
+            if(order.compare(pizza, slotPizzas[heap[parent]]) >= 0) {
+                break;
+            }
+
+            heap[position]                = heap[parent];
+            slotPositions[heap[position]] = position;
+            position                      = parent;
+        }
+
+        heap[position]      = slot;
+        slotPositions[slot] = position;
+    }
+
+    /**
+     * Moves the slot at the given heap position away from the root while
+     * the pizza of one of its children comes before its own.
+     */
+    private void siftDown(int position) {
+        int   slot  = heap[position];
+        Pizza pizza = slotPizzas[slot];
+
+        while(2 * position + 1 < size) {
+            int child = 2 * position + 1;
+
+            if(child + 1 < size &&
+               order.compare(slotPizzas[heap[child + 1]],
+                             slotPizzas[heap[child]]) < 0) {
+                child++;
+            }
+
+            if(order.compare(pizza, slotPizzas[heap[child]]) <= 0) {
+                break;
+            }
+
+            heap[position]                = heap[child];
+            slotPositions[heap[position]] = position;
+            position                      = child;
+        }
+
+        heap[position]      = slot;
+        slotPositions[slot] = position;
+    }
+
+}
@@ -0,0 +1,150 @@
+import java.util.Arrays;
+
+/**
+ * This class sorts pizzas by an integral key, price in cents or calories,
+ * with a least significant digit radix sort, which takes O(n) time for
+ * keys of a bounded number of bits rather than the O(n log n) comparisons
+ * of a comparison sort.
+ *
+ * Every key is read once into an <code>int</code> array. The keys are then
+ * sorted <code>DIGIT_BITS</code> bits at a time, least significant first,
+ * by counting how many keys have each digit and moving each key, together
+ * with the index of its pizza, to its place in a scratch array. Only as many
+ * passes are made as the span between the least and greatest key needs, so
+ * calories and prices, which span a few thousand, take two passes. Each
+ * pass is stable, so the sort is too.
+ *
+ * Size is not integral and cannot be sorted this way; see
+ * <code>supports</code>. Keys which do not fit in an <code>int</code>, or
+ * whose span does not, such as prices from a catalog of extravagant
+ * toppings, are sorted by comparison instead, in the same order.
+ *
+ * @author Trystan Cannon
+ */
+public final class RadixSort {
+
+    /**
+     * The number of bits sorted by each pass.
+     */
+    private static final int DIGIT_BITS = 8;
+
+    /**
+     * The number of different digits.
+     */
+    private static final int RADIX = 1 << DIGIT_BITS;
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private RadixSort() {
+    }
+
+    /**
+     * @param key A key by which pizzas may be sorted.
+     *
+     * @return <code>true</code> if the key is integral and so may be sorted
+     *         by <code>sort</code>.
+     */
+    public static boolean supports(PizzaKey key) {
+        return key == PizzaKey.PRICE || key == PizzaKey.CALORIES;
+    }
+
+    /**
+     * Sorts the given pizzas by the given integral key, least first, in
+     * O(n), or by a stable comparison sort if the keys are too large to
+     * count in an <code>int</code>. Pizzas with equal keys keep their
+     * order.
+     *
+     * Given a key which is not integral, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param pizzas The pizzas to sort.
+     * @param key The key to sort by, either price or calories.
+     */
+    public static void sort(Pizza[] pizzas, PizzaKey key) {
+        if(!supports(key)) {
+            throw new PizzaException("Cannot radix sort pizzas by " +
+                                     key.name().toLowerCase() + ".");
+        }
+
+        int   size = pizzas.length;
+        int[] keys = new int[size];
+        long  min  = Long.MAX_VALUE;
+        long  max  = Long.MIN_VALUE;
+
+        for(int index = 0; index < size; index++) {
+            long value = key == PizzaKey.PRICE ?
+                         pizzas[index].getCostInCents() :
+                         pizzas[index].getCalories();
+
+            // Prices above $21 million do not fit; compare them instead.
+            if(value != (int) value) {
+                Arrays.sort(pizzas, key);
+                return;
+            }
+
+            keys[index] = (int) value;
+            min         = Math.min(min, value);
+            max         = Math.max(max, value);
+        }
+
+        if(size < 2 || min == max) {
+            return;
+        } else if(max - min > Integer.MAX_VALUE) {
+            Arrays.sort(pizzas, key);
+            return;
+        }
+
+        int[] indexes = new int[size];
+
+        for(int index = 0; index < size; index++) {
+            indexes[index] = index;
+            keys[index]    = (int) (keys[index] - min);
+        }
+
+        int   span           = (int) (max - min);
+        int[] scratchKeys    = new int[size];
+        int[] scratchIndexes = new int[size];
+        int[] counts         = new int[RADIX];
+
+        for(int shift = 0; shift < 32 && (span >>> shift) != 0;
+            shift += DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+
+            for(int index = 0; index < size; index++) {
+                counts[(keys[index] >>> shift) & (RADIX - 1)]++;
+            }
+
+            // Turn the counts into the first place of each digit.
+            for(int digit = 0, place = 0; digit < RADIX; digit++) {
+                int count     = counts[digit];
+                counts[digit] = place;
+                place        += count;
+            }
+
+            for(int index = 0; index < size; index++) {
+                int place = counts[(keys[index] >>> shift) & (RADIX - 1)]++;
+
+                scratchKeys[place]    = keys[index];
+                scratchIndexes[place] = indexes[index];
+            }
+
+            int[] swap = keys;
+            keys        = scratchKeys;
+            scratchKeys = swap;
+
+            swap           = indexes;
+            indexes        = scratchIndexes;
+            scratchIndexes = swap;
+        }
+
+        Pizza[] sorted = new Pizza[size];
+
+        for(int index = 0; index < size; index++) {
+            sorted[index] = pizzas[indexes[index]];
+        }
+
+        System.arraycopy(sorted, 0, pizzas, 0, size);
+    }
+
+}
@@ -0,0 +1,204 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * This class represents a basic Rectangle as a child of <code>Shape</code>,
+ * such as a sheet pizza.
+ * 
+ * As a child of <code>Shape</code>, every <code>Rectangle</code> object
+ * has its own coordinate pair to represent the top left corner of itself on
+ * the 2D plane, its own <code>java.awt.Color</code> object for its fill
+ * color, and, though unique to the <code>Rectangle</code> class, a width
+ * and a height.
+ * 
+ * @author Trystan Cannon
+ */
+public final class Rectangle extends Shape {
+    
+    /**
+     * The width, in pixels, used when drawing the <code>Rectangle</code>
+     * object.
+     */
+    private int width = 0;
+    
+    /**
+     * The height, in pixels, used when drawing the <code>Rectangle</code>
+     * object.
+     */
+    private int height = 0;
+    
+    /**
+     * The area of this rectangle, computed whenever the width or height is
+     * set so that <code>getArea</code> does no arithmetic.
+     */
+    private double area = 0;
+    
+    /**
+     * Constructs a new <code>Rectangle</code> object with the given
+     * coordinates as its top left corner, the given width and height, and
+     * the default color set by <code>Shape.DEFAULT_COLOR</code>.
+     * 
+     * @param x The x coordinate of the rectangle's top left corner.
+     * @param y The y coordinate of the rectangle's top left corner.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public Rectangle(int x, int y, int width, int height) {
+        super(x, y);
+        setSize(width, height);
+    }
+    
+    /**
+     * Constructs a new <code>Rectangle</code> object with the given
+     * coordinates, width, height, and color.
+     * 
+     * @param x The x coordinate of the rectangle's top left corner.
+     * @param y The y coordinate of the rectangle's top left corner.
+     * @param c The outline and fill color of the rectangle for use in
+     *          drawing.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public Rectangle(int x, int y, Color c, int width, int height) {
+        super(x, y, c);
+        setSize(width, height);
+    }
+    
+    /**
+     * Sets the width and height of this rectangle to the given values.
+     * 
+     * Given an illegal value, <code>width <= 0</code> or
+     * <code>height <= 0</code>, this method will throw a
+     * <code>RuntimeException</code>, detailing this error.
+     * 
+     * @param width The new width for the rectangle.
+     * @param height The new height for the rectangle.
+     */
+    public void setSize(int width, int height) {
+        if(width <= 0 || height <= 0) {
+            throw new RuntimeException("Cannot create a rectangle with " +
+                                       "width or height <= 0.");
+        }
+        
+        this.width  = width;
+        this.height = height;
+        this.area   = ShapeAreas.area(ShapeAreas.RECTANGLE, width, height);
+    }
+    
+    /**
+     * Returns the current width of this rectangle.
+     * 
+     * @return The current width of this rectangle.
+     */
+    public int getWidth() {
+        return width;
+    }
+    
+    /**
+     * Returns the current height of this rectangle.
+     * 
+     * @return The current height of this rectangle.
+     */
+    public int getHeight() {
+        return height;
+    }
+    
+    /**
+     * Returns the area of this rectangle, <code>width * height</code>, as
+     * computed when its size was last set.
+     * 
+     * @return The current area of this rectangle.
+     */
+    @Override
+    public double getArea() {
+        return area;
+    }
+    
+    /**
+     * Draws this rectangle, filled with its color, at its coordinates.
+     * 
+     * @param g The graphics object used to draw the rectangle.
+     */
+    @Override
+    public void draw(Graphics g) {
+        g.setColor(getFillColor());
+        g.fillRect(getX(), getY(), width, height);
+    }
+    
+    /**
+     * @return The outline of this rectangle.
+     */
+    @Override
+    java.awt.Shape getOutline() {
+        return new Rectangle2D.Double(getX(), getY(), width, height);
+    }
+    
+    /**
+     * @return The least x coordinate covered by this rectangle.
+     */
+    @Override
+    public int getLeft() {
+        return getX();
+    }
+    
+    /**
+     * @return The least y coordinate covered by this rectangle.
+     */
+    @Override
+    public int getTop() {
+        return getY();
+    }
+    
+    /**
+     * @return The greatest x coordinate covered by this rectangle.
+     */
+    @Override
+    public int getRight() {
+        return getX() + width;
+    }
+    
+    /**
+     * @return The greatest y coordinate covered by this rectangle.
+     */
+    @Override
+    public int getBottom() {
+        return getY() + height;
+    }
+    
+    /**
+     * @return <code>ShapeAreas.RECTANGLE</code>.
+     */
+    @Override
+    byte getKind() {
+        return ShapeAreas.RECTANGLE;
+    }
+    
+    /**
+     * @return The width, as the first dimension of a rectangle.
+     */
+    @Override
+    double getFirstDimension() {
+        return width;
+    }
+    
+    /**
+     * @return The height, as the second dimension of a rectangle.
+     */
+    @Override
+    double getSecondDimension() {
+        return height;
+    }
+    
+    /**
+     * Creates and returns an identical yet independent copy of this
+     * <code>Rectangle</code> object.
+     *
+     * @return An identical yet independent copy of this rectangle.
+     */
+    @Override
+    public Rectangle clone() {
+        return new Rectangle(getX(), getY(), getColor(), width, height);
+    }
+    
+}
@@ -5,43 +5,24 @@
  * As it is a child of <code>Meat</code> and <code>Ingredient</code>, it
  * does not have any methods other than constructors.
  * 
- * All characteristics are pre-defined as private static class constants to
- * be used in construction.
+ * Its cost, calorie count, and description are listed under
+ * <code>"Sausage"</code> in the <code>IngredientCatalog</code>.
  * 
  * @author Trystan Cannon
  */
 public final class Sausage extends Meat {
     
     /**
-     * The static cost of <code>Sausage</code> objects.
+     * The ID of the <code>Sausage</code> kind in the catalog.
      */
-    private static final Money COST = new Money(4, 50);
-    
-     /**
-     * The static calorie count of <code>Sausage</code> objects.
-     */
-    private static final int CALORIE_COUNT = 782;
-    
-    
-    /**
-     * The static description of <code>Sausage</code> objects' physical
-     * characteristics.
-     */
-    private static final String DESCRIPTION =
-            "In the United States, Italian sausage most often refers to a " +
-            "style of pork sausage noted for being seasoned with fennel " +
-            "and/or anise as the primary seasoning.";
+    private static final int TYPE_ID = IngredientCatalog.parse("Sausage");
     
     /**
-     * Constructs an <code>Sausage</code> object with the pre-defined
-     * class constant characteristics.
-     * 
-     * @see COST
-     * @see CALORIE_COUNT
-     * @see DESCRIPTION
+     * Constructs a <code>Sausage</code> object with the characteristics
+     * listed in the catalog.
      */
     public Sausage() {
-        super(COST.clone(), CALORIE_COUNT, DESCRIPTION);
+        super(TYPE_ID);
     }
     
 }
@@ -0,0 +1,216 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.geom.Arc2D;
+
+/**
+ * This class represents a Sector of a circle, such as a slice of pizza, as
+ * a child of <code>Shape</code>.
+ * 
+ * As a child of <code>Shape</code>, every <code>Sector</code> object has
+ * its own coordinate pair to represent the origin (center) of its circle on
+ * the 2D plane, its own <code>java.awt.Color</code> object for its fill
+ * color, and, though unique to the <code>Sector</code> class, a radius and
+ * the angle, in degrees, which it spans.
+ * 
+ * @author Trystan Cannon
+ */
+public final class Sector extends Shape {
+    
+    /**
+     * The number of degrees in a whole circle.
+     */
+    public static final int FULL_ANGLE = 360;
+    
+    /**
+     * The radius value, in pixels, used when drawing the <code>Sector</code>
+     * object.
+     */
+    private int radius = 0;
+    
+    /**
+     * The angle which this sector spans, in degrees.
+     */
+    private int angle = 0;
+    
+    /**
+     * The area of this sector, computed whenever the radius or angle is set
+     * so that <code>getArea</code> does no arithmetic.
+     */
+    private double area = 0;
+    
+    /**
+     * Constructs a new <code>Sector</code> object with the given coordinates
+     * as the origin of its circle, the given radius and angle, and the
+     * default color set by <code>Shape.DEFAULT_COLOR</code>.
+     * 
+     * @param x The x coordinate of the sector's origin.
+     * @param y The y coordinate of the sector's origin.
+     * @param radius The radius of the sector.
+     * @param angle The angle which the sector spans, in degrees.
+     */
+    public Sector(int x, int y, int radius, int angle) {
+        super(x, y);
+        setDimensions(radius, angle);
+    }
+    
+    /**
+     * Constructs a new <code>Sector</code> object with the given
+     * coordinates, radius, angle, and color.
+     * 
+     * @param x The x coordinate of the sector's origin.
+     * @param y The y coordinate of the sector's origin.
+     * @param c The outline and fill color of the sector for use in drawing.
+     * @param radius The radius of the sector.
+     * @param angle The angle which the sector spans, in degrees.
+     */
+    public Sector(int x, int y, Color c, int radius, int angle) {
+        super(x, y, c);
+        setDimensions(radius, angle);
+    }
+    
+    /**
+     * Sets the radius and angle of this sector to the given values.
+     * 
+     * Given an illegal value, <code>radius <= 0</code>,
+     * <code>angle <= 0</code>, or <code>angle > FULL_ANGLE</code>, this
+     * method will throw a <code>RuntimeException</code>, detailing this
+     * error.
+     * 
+     * @param radius The new radius for the sector.
+     * @param angle The new angle for the sector, in degrees.
+     */
+    public void setDimensions(int radius, int angle) {
+        if(radius <= 0) {
+            throw new RuntimeException("Cannot create a sector with radius " +
+                                       "<= 0.");
+        } else if(angle <= 0 || angle > FULL_ANGLE) {
+            throw new RuntimeException("Cannot create a sector with angle " +
+                                       "<= 0 or > " + FULL_ANGLE + ".");
+        }
+        
+        this.radius = radius;
+        this.angle  = angle;
+        this.area   = ShapeAreas.area(ShapeAreas.SECTOR, getFirstDimension(),
+                                      getSecondDimension());
+    }
+    
+    /**
+     * Returns the current radius value for this sector.
+     * 
+     * @return The current radius value for this sector.
+     */
+    public int getRadius() {
+        return radius;
+    }
+    
+    /**
+     * Returns the angle which this sector spans, in degrees.
+     * 
+     * @return The current angle of this sector.
+     */
+    public int getAngle() {
+        return angle;
+    }
+    
+    /**
+     * Returns the area of this sector,
+     * <code>Math.PI * r^2 * angle / 360</code>, as computed when its radius
+     * and angle were last set.
+     * 
+     * @return The current area of this sector.
+     */
+    @Override
+    public double getArea() {
+        return area;
+    }
+    
+    /**
+     * Draws this sector, filled with its color, at its coordinates.
+     * 
+     * @param g The graphics object used to draw the sector.
+     */
+    @Override
+    public void draw(Graphics g) {
+        g.setColor(getFillColor());
+        // Angles run counterclockwise from three o'clock.
+        g.fillArc(getLeft(), getTop(), 2 * radius, 2 * radius, 0, angle);
+    }
+    
+    /**
+     * @return The outline of this sector.
+     */
+    @Override
+    java.awt.Shape getOutline() {
+        return new Arc2D.Double(getLeft(), getTop(), 2 * radius,
+                                2 * radius, 0, angle, Arc2D.PIE);
+    }
+    
+    /**
+     * @return The least x coordinate covered by this sector's circle.
+     */
+    @Override
+    public int getLeft() {
+        return getX() - radius;
+    }
+    
+    /**
+     * @return The least y coordinate covered by this sector's circle.
+     */
+    @Override
+    public int getTop() {
+        return getY() - radius;
+    }
+    
+    /**
+     * @return The greatest x coordinate covered by this sector's circle.
+     */
+    @Override
+    public int getRight() {
+        return getX() + radius;
+    }
+    
+    /**
+     * @return The greatest y coordinate covered by this sector's circle.
+     */
+    @Override
+    public int getBottom() {
+        return getY() + radius;
+    }
+    
+    /**
+     * @return <code>ShapeAreas.SECTOR</code>.
+     */
+    @Override
+    byte getKind() {
+        return ShapeAreas.SECTOR;
+    }
+    
+    /**
+     * @return The radius, as the first dimension of a sector.
+     */
+    @Override
+    double getFirstDimension() {
+        return radius;
+    }
+    
+    /**
+     * @return The radius scaled by the fraction of a circle spanned, as the
+     *         second dimension of a sector.
+     */
+    @Override
+    double getSecondDimension() {
+        return (double) radius * angle / FULL_ANGLE;
+    }
+    
+    /**
+     * Creates and returns an identical yet independent copy of this
+     * <code>Sector</code> object.
+     *
+     * @return An identical yet independent copy of this sector.
+     */
+    @Override
+    public Sector clone() {
+        return new Sector(getX(), getY(), getColor(), radius, angle);
+    }
+    
+}
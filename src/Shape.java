@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 
 /** Class Shape
  * 
@@ -14,6 +15,8 @@ import java.awt.*;
  * Similarly, every shape possesses an area of some magnitude. Therefore,
  * every shape must override this class's <code>getArea</code> method to
  * properly communicate the area occupied by each <code>Shape</code> object.
+ * Since pizzas are sorted by area, a shape should compute its area when
+ * its dimensions are set rather than each time it is asked.
  * 
  * Also, each shape must be drawable, meaning that each subclass should
  * override the draw method of this class in order to properly illustrate
@@ -118,6 +121,59 @@ public abstract class Shape extends Object implements Cloneable {
         return -1;
     }
 
+    /**
+     * @return The least x coordinate covered by this shape. A shape with no
+     *         extent covers only its origin.
+     */
+    public int getLeft() {
+        return x;
+    }
+    
+    /**
+     * @return The least y coordinate covered by this shape.
+     */
+    public int getTop() {
+        return y;
+    }
+    
+    /**
+     * @return The greatest x coordinate covered by this shape.
+     */
+    public int getRight() {
+        return x;
+    }
+    
+    /**
+     * @return The greatest y coordinate covered by this shape.
+     */
+    public int getBottom() {
+        return y;
+    }
+    
+    /**
+     * @return The kind of this shape, as used by <code>ShapeAreas</code>.
+     *         Shapes not listed there are <code>ShapeAreas.OTHER</code>.
+     */
+    byte getKind() {
+        return ShapeAreas.OTHER;
+    }
+    
+    /**
+     * @return The first dimension of this shape, as used by
+     *         <code>ShapeAreas</code>; for other shapes, the area.
+     */
+    double getFirstDimension() {
+        return getArea();
+    }
+    
+    /**
+     * @return The second dimension of this shape, as used by
+     *         <code>ShapeAreas</code>; for other shapes, one.
+     */
+    double getSecondDimension() {
+        return 1;
+    }
+
     /**
      * Draws the shape to the frame.
      * 
@@ -125,6 +181,25 @@ public abstract class Shape extends Object implements Cloneable {
      */
     public void draw(Graphics g) {
     }
+    
+    /**
+     * @return The outline of this shape, in its coordinates, for clipping
+     *         what is drawn on top of it. A shape with no extent is an
+     *         empty rectangle at its origin.
+     */
+    java.awt.Shape getOutline() {
+        return new Rectangle2D.Double(x, y, 0, 0);
+    }
+    
+    /**
+     * Returns the color in which this shape is drawn: its own color, or
+     * <code>DEFAULT_COLOR</code> if it was constructed without one.
+     * 
+     * @return The color in which to fill this shape.
+     */
+    Color getFillColor() {
+        return color == null ? DEFAULT_COLOR : color;
+    }
 
     /**
      * @return The x coordinate of the shape's origin or bounding box.
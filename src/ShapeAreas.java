@@ -0,0 +1,139 @@
+/**
+ * This class computes the areas of many shapes at once from parallel
+ * primitive arrays, rather than asking each <code>Shape</code> in turn.
+ *
+ * Every shape is described by a kind and two dimensions, and its area is
+ * <code>coefficient(kind) * first * second</code>:
+ *     - <code>CIRCLE</code>     pi * radius * radius
+ *     - <code>SQUARE</code>     1 * side * side
+ *     - <code>RECTANGLE</code>  1 * width * height
+ *     - <code>OVAL</code>       pi * horizontal radius * vertical radius
+ *     - <code>SECTOR</code>     pi * radius * (radius * angle / 360)
+ *     - <code>OTHER</code>      1 * area * 1, for any other shape
+ *
+ * Each shape computes its own area with <code>area</code>, so the areas
+ * found here are exactly those it would give.
+ *
+ * <code>areas</code> first looks up each coefficient, then multiplies
+ * through in a separate loop of nothing but array arithmetic, which the
+ * JIT compiler turns into SIMD instructions. The Vector API would do the
+ * same explicitly, but it is still an incubator module in Java 17 and
+ * would need every build and run to add it.
+ *
+ * @author Trystan Cannon
+ */
+public final class ShapeAreas {
+
+    /**
+     * The kind of a shape not listed below, whose first dimension is its
+     * area and second dimension is one.
+     */
+    public static final byte OTHER = 0;
+
+    /**
+     * The kind of a <code>Circle</code>.
+     */
+    public static final byte CIRCLE = 1;
+
+    /**
+     * The kind of a <code>Square</code>.
+     */
+    public static final byte SQUARE = 2;
+
+    /**
+     * The kind of a <code>Rectangle</code>.
+     */
+    public static final byte RECTANGLE = 3;
+
+    /**
+     * The kind of an <code>Oval</code>.
+     */
+    public static final byte OVAL = 4;
+
+    /**
+     * The kind of a <code>Sector</code>.
+     */
+    public static final byte SECTOR = 5;
+
+    /**
+     * The coefficient of each kind.
+     */
+    private static final double[] COEFFICIENTS = {
+        1, Math.PI, 1, 1, Math.PI, Math.PI
+    };
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private ShapeAreas() {
+    }
+
+    /**
+     * Computes the area of one shape.
+     *
+     * @param kind The kind of the shape.
+     * @param first The first dimension of the shape.
+     * @param second The second dimension of the shape.
+     *
+     * @return The area of the shape.
+     */
+    public static double area(byte kind, double first, double second) {
+        return COEFFICIENTS[kind] * first * second;
+    }
+
+    /**
+     * Computes the areas of the first <code>count</code> shapes described
+     * by the given arrays.
+     *
+     * @param kinds The kind of each shape.
+     * @param firsts The first dimension of each shape.
+     * @param seconds The second dimension of each shape.
+     * @param areas The array into which each area is put.
+     * @param count The number of shapes.
+     */
+    public static void areas(byte[] kinds, double[] firsts, double[] seconds,
+                             double[] areas, int count) {
+        for(int index = 0; index < count; index++) {
+            areas[index] = COEFFICIENTS[kinds[index]];
+        }
+
+        for(int index = 0; index < count; index++) {
+            areas[index] = areas[index] * firsts[index] * seconds[index];
+        }
+    }
+
+    /**
+     * Computes the remaining area of every given pizza, exactly as each
+     * pizza's <code>getRemainingArea</code> gives it, in one batch.
+     *
+     * @param pizzas The pizzas.
+     *
+     * @return The remaining area of each pizza.
+     */
+    public static double[] remainingAreas(Pizza[] pizzas) {
+        int      count     = pizzas.length;
+        byte[]   kinds     = new byte[count];
+        double[] firsts    = new double[count];
+        double[] seconds   = new double[count];
+        double[] fractions = new double[count];
+        double[] areas     = new double[count];
+
+        for(int index = 0; index < count; index++) {
+            Shape shape = pizzas[index].getShape();
+
+            kinds[index]     = shape.getKind();
+            firsts[index]    = shape.getFirstDimension();
+            seconds[index]   = shape.getSecondDimension();
+            fractions[index] = pizzas[index].getRemainingFraction();
+        }
+
+        areas(kinds, firsts, seconds, areas, count);
+
+        for(int index = 0; index < count; index++) {
+            areas[index] = fractions[index] * areas[index];
+        }
+
+        return areas;
+    }
+
+}
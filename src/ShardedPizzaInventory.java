@@ -0,0 +1,433 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements a <code>PizzaInventory</code> split into a number
+ * of shards, each guarded by its own lock, so that threads adding and
+ * eating pizzas on different shards never wait for one another.
+ *
+ * A pizza is placed in a shard either by the hash of the pizza or, if a
+ * calorie bucket width is given, by its calories: calories
+ * <code>[0, width)</code> go to the first shard, <code>[width, 2 *
+ * width)</code> to the second, and so on, with the last shard taking
+ * everything beyond. The shard of a pizza is folded into its identifier as
+ * <code>id % numShards</code>, so finding a pizza by identifier needs only
+ * the one lock.
+ *
+ * Operations over the whole inventory, namely <code>size</code>,
+ * <code>snapshot</code>, <code>sorted</code>, <code>findByCalories</code>,
+ * and <code>display</code>, visit the shards one at a time and merge what
+ * they find. Sorting, in particular, sorts each shard on its own and then
+ * merges the sorted shards with a heap in O(n log s) for s shards.
+ *
+ * An inventory of one shard is a single tree map behind a single lock,
+ * which <code>InventoryBenchmark</code> measures alongside the list of
+ * <code>LockedPizzaInventory</code> to separate the cost of the lock from
+ * that of the list.
+ *
+ * @author Trystan Cannon
+ */
+public class ShardedPizzaInventory implements PizzaInventory {
+
+    /**
+     * The shards of the inventory.
+     */
+    private final Shard[] shards;
+
+    /**
+     * The width of each shard's calorie range, or zero if pizzas are
+     * placed by hash instead.
+     */
+    private final int calorieBucketWidth;
+
+    /**
+     * Constructs an empty inventory of the given number of shards, placing
+     * pizzas by hash.
+     *
+     * @param numShards The number of shards.
+     */
+    public ShardedPizzaInventory(int numShards) {
+        this(numShards, 0);
+    }
+
+    /**
+     * Constructs an empty inventory of the given number of shards, placing
+     * pizzas by calorie bucket if the given width is positive, or by hash if
+     * it is zero.
+     *
+     * Given fewer than one shard or a negative width, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param numShards The number of shards.
+     * @param calorieBucketWidth The calorie range of each shard, or zero to
+     *                           place pizzas by hash.
+     */
+    public ShardedPizzaInventory(int numShards, int calorieBucketWidth) {
+        if(numShards < 1 || calorieBucketWidth < 0) {
+            throw new PizzaException("Cannot create an inventory of " +
+                                     numShards + " shards with a calorie " +
+                                     "bucket width of " + calorieBucketWidth +
+                                     ".");
+        }
+
+        this.shards             = new Shard[numShards];
+        this.calorieBucketWidth = calorieBucketWidth;
+
+        for(int index = 0; index < numShards; index++) {
+            shards[index] = new Shard();
+        }
+    }
+
+    /**
+     * Adds the given pizza to its shard, locking only that shard.
+     *
+     * Given a <code>null</code> pizza, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param pizza The <code>Pizza</code> to add.
+     *
+     * @return The identifier given to the pizza.
+     */
+    @Override
+    public long add(Pizza pizza) {
+        if(pizza == null) {
+            throw new PizzaException("Cannot add a null Pizza to an " +
+                                     "inventory.");
+        }
+
+        int   index = shardFor(pizza);
+        Shard shard = shards[index];
+
+        shard.lock.lock();
+
+        try {
+            long id = shard.nextLocalId++ * shards.length + index;
+            shard.pizzas.put(id, pizza);
+
+            return id;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @param id The identifier of the pizza to return.
+     *
+     * @return The pizza with the given identifier, or <code>null</code> if
+     *         there is none.
+     */
+    @Override
+    public Pizza get(long id) {
+        if(id < 0) {
+            return null;
+        }
+
+        Shard shard = shards[(int) (id % shards.length)];
+
+        shard.lock.lock();
+
+        try {
+            return shard.pizzas.get(id);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Eats the given fractional amount from the pizza with the given
+     * identifier, removing it if this call finishes it.
+     *
+     * The shard is locked only to find and to remove the pizza; the eating
+     * itself is the compare-and-set of <code>Pizza</code>, done with no lock
+     * held.
+     *
+     * Given an identifier with no pizza, or an amount which cannot be eaten
+     * from the pizza, a <code>PizzaException</code> is thrown detailing the
+     * error.
+     *
+     * @param id The identifier of the pizza to eat from.
+     * @param amount The fractional amount of the pizza to eat.
+     *
+     * @return <code>true</code> if this call finished the pizza and removed
+     *         it; <code>false</code> if some of it remains.
+     */
+    @Override
+    public boolean eat(long id, Fraction amount) {
+        Pizza pizza = get(id);
+
+        if(pizza == null) {
+            throw new PizzaException("There is no pizza " + id + " to eat.");
+        }
+
+        if(!pizza.eat(amount)) {
+            return false;
+        }
+
+        Shard shard = shards[(int) (id % shards.length)];
+
+        shard.lock.lock();
+
+        try {
+            shard.pizzas.remove(id);
+        } finally {
+            shard.lock.unlock();
+        }
+
+        PizzaEvents.removed(pizza, "ShardedPizzaInventory");
+
+        return true;
+    }
+
+    /**
+     * Finds a pizza in the shard chosen by the given hint, moving on to the
+     * following shards if it is empty.
+     *
+     * @param hint Any value; negative hints are treated as positive.
+     *
+     * @return The identifier of a pizza in the inventory, or <code>-1</code>
+     *         if the inventory is empty.
+     */
+    @Override
+    public long idNear(long hint) {
+        int start = (int) Math.floorMod(hint, (long) shards.length);
+
+        for(int offset = 0; offset < shards.length; offset++) {
+            Shard shard = shards[(start + offset) % shards.length];
+
+            shard.lock.lock();
+
+            try {
+                if(shard.pizzas.isEmpty()) {
+                    continue;
+                }
+
+                long bound = shard.nextLocalId * shards.length;
+                Long id    = shard.pizzas.ceilingKey(Math.floorMod(hint,
+                                                               bound));
+
+                return id != null ? id : shard.pizzas.firstKey();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of pizzas in the inventory by adding up the size
+     * of each shard in turn.
+     *
+     * @return The number of pizzas currently in the inventory.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+
+        for(Shard shard : shards) {
+            shard.lock.lock();
+
+            try {
+                size += shard.pizzas.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * @return The pizzas of every shard, shard by shard.
+     */
+    @Override
+    public Pizza[] snapshot() {
+        Pizza[][] parts = snapshotShards();
+        int       total = 0;
+
+        for(Pizza[] part : parts) {
+            total += part.length;
+        }
+
+        Pizza[] retVal = new Pizza[total];
+        int     next   = 0;
+
+        for(Pizza[] part : parts) {
+            System.arraycopy(part, 0, retVal, next, part.length);
+            next += part.length;
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Returns every pizza in the inventory, ordered from least to greatest
+     * by the given key.
+     *
+     * Each shard's pizzas are copied out under its lock and sorted with no
+     * lock held, and the sorted shards are then merged by always taking
+     * the least pizza at the front of any shard.
+     *
+     * @param key The key by which to order the pizzas.
+     *
+     * @return A sorted array of the pizzas in the inventory.
+     */
+    public Pizza[] sorted(PizzaKey key) {
+        Pizza[][] parts = snapshotShards();
+        int       total = 0;
+
+        for(Pizza[] part : parts) {
+            Arrays.sort(part, key);
+            total += part.length;
+        }
+
+        // Each cursor is {shard, position}; the heap orders them by the
+        // pizza they point at.
+        PriorityQueue<int[]> fronts = new PriorityQueue<>(
+                Math.max(1, parts.length),
+                (first, second) -> key.compare(parts[first[0]][first[1]],
+                                               parts[second[0]][second[1]]));
+
+        for(int index = 0; index < parts.length; index++) {
+            if(parts[index].length > 0) {
+                fronts.add(new int[] {index, 0});
+            }
+        }
+
+        Pizza[] retVal = new Pizza[total];
+        int     next   = 0;
+
+        while(!fronts.isEmpty()) {
+            int[] cursor = fronts.poll();
+
+            retVal[next++] = parts[cursor[0]][cursor[1]++];
+
+            if(cursor[1] < parts[cursor[0]].length) {
+                fronts.add(cursor);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Finds the identifier of a pizza with the given number of calories.
+     *
+     * When pizzas are placed by calorie bucket, only the one shard which
+     * could hold such a pizza is searched.
+     *
+     * @param cals The number of calories to search for.
+     *
+     * @return The identifier of a pizza with the given number of calories,
+     *         or <code>-1</code> if there is none.
+     */
+    public long findByCalories(int cals) {
+        int first = 0;
+        int last  = shards.length - 1;
+
+        if(calorieBucketWidth > 0) {
+            first = last = bucketFor(cals);
+        }
+
+        for(int index = first; index <= last; index++) {
+            Shard shard = shards[index];
+
+            shard.lock.lock();
+
+            try {
+                for(Map.Entry<Long, Pizza> entry : shard.pizzas.entrySet()) {
+                    if(entry.getValue().getCalories() == cals) {
+                        return entry.getKey();
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Displays every pizza in the inventory, shard by shard.
+     */
+    public void display() {
+        for(Pizza pizza : snapshot()) {
+            System.out.println(pizza);
+        }
+    }
+
+    /**
+     * Copies out the pizzas of each shard, locking one shard at a time.
+     *
+     * @return An array of the pizzas of each shard.
+     */
+    private Pizza[][] snapshotShards() {
+        Pizza[][] parts = new Pizza[shards.length][];
+
+        for(int index = 0; index < shards.length; index++) {
+            Shard shard = shards[index];
+
+            shard.lock.lock();
+
+            try {
+                parts[index] = shard.pizzas.values().toArray(new Pizza[0]);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+
+        return parts;
+    }
+
+    /**
+     * @return The index of the shard in which to place the given pizza.
+     */
+    private int shardFor(Pizza pizza) {
+        if(calorieBucketWidth > 0) {
+            return bucketFor(pizza.getCalories());
+        }
+
+        // Spread the identity hash so that neighbouring objects do not
+        // all land in neighbouring shards.
+        int hash = System.identityHashCode(pizza) * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * @return The index of the shard whose calorie range holds the given
+     *         number of calories.
+     */
+    private int bucketFor(int cals) {
+        return Math.min(Math.max(cals, 0) / calorieBucketWidth,
+                        shards.length - 1);
+    }
+
+    /**
+     * This class holds a single shard of the inventory: its pizzas and the
+     * lock guarding them.
+     */
+    private static class Shard {
+
+        /**
+         * The lock guarding every field of this shard.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The pizzas of this shard, keyed by identifier.
+         */
+        private final TreeMap<Long, Pizza> pizzas = new TreeMap<>();
+
+        /**
+         * The number of pizzas ever added to this shard, from which the
+         * next identifier is made.
+         */
+        private long nextLocalId = 0;
+
+    }
+
+}
@@ -0,0 +1,57 @@
+/**
+ * This enumeration names the algorithms with which <code>PizzaManager</code>
+ * may sort its list of pizzas. The strategy may be changed while the
+ * program runs, such as through <code>PizzaManagerMXBean</code>, and takes
+ * effect on the next sort.
+ *
+ * Every strategy leaves the pizzas in the same order as the others, apart
+ * from the order of pizzas which compare as equal.
+ *
+ * @author Trystan Cannon
+ */
+public enum SortStrategy {
+
+    /**
+     * The original O(n^2) selection sort, done in place on the list.
+     */
+    SELECTION,
+
+    /**
+     * An O(n log n) merge sort of a copy of the list, using
+     * <code>java.util.Arrays.sort</code>, which is then written back.
+     * Price and calories, being whole numbers within a small range, are
+     * instead sorted in O(n) by <code>RadixSort</code>, and size by a
+     * <code>CompositeOrder</code>, which merge sorts the remaining areas
+     * found all at once by <code>ShapeAreas</code>.
+     */
+    MERGE,
+
+    /**
+     * Like <code>MERGE</code>, but using
+     * <code>java.util.Arrays.parallelSort</code>, which splits large lists
+     * across the threads of the common fork/join pool.
+     */
+    PARALLEL;
+
+    /**
+     * Finds the strategy with the given name, ignoring case.
+     *
+     * Given a name matching no strategy, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param name The name of the strategy.
+     *
+     * @return The strategy with the given name.
+     */
+    public static SortStrategy parse(String name) {
+        for(SortStrategy strategy : values()) {
+            if(strategy.name().equalsIgnoreCase(name)) {
+                return strategy;
+            }
+        }
+
+        throw new PizzaException("There is no sort strategy \"" + name +
+                                 "\".");
+    }
+
+}
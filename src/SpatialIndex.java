@@ -0,0 +1,441 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class indexes pizzas by where they lie on the plane of their shapes,
+ * so that the pizza nearest a point, or every pizza overlapping a region,
+ * is found without looking at every pizza.
+ *
+ * The plane is divided into square cells <code>cellSize</code> on a side,
+ * and each pizza is kept in the cell holding the center of its shape's
+ * bounds. Only cells holding pizzas are stored, in a <code>HashMap</code>
+ * keyed by both cell coordinates packed into a <code>long</code>. So:
+ *     - <code>add</code> and <code>remove</code> are O(1), apart from
+ *       scanning one cell to remove
+ *     - <code>inRegion</code> looks only at the cells under the region,
+ *       widened by half the widest and tallest pizza indexed so that pizzas
+ *       centered just outside but overlapping it are found
+ *     - <code>nearest</code> looks at rings of cells around the point, one
+ *       ring further each time, stopping once no unseen cell can hold a
+ *       nearer pizza; rings start at the box of cells ever used and
+ *       visit only the cells inside it, so a point far from every pizza
+ *       costs no more than one beside them
+ *
+ * With a cell size near the spacing of the pizzas, each cell holds a few
+ * pizzas and both queries cost about as much as the cells and pizzas they
+ * find, however many pizzas are indexed.
+ *
+ * A pizza is indexed where it was when added; a pizza which moves must be
+ * removed and added again.
+ *
+ * @author Trystan Cannon
+ */
+public class SpatialIndex {
+
+    /**
+     * The number of pizzas each cell first has room for.
+     */
+    private static final int CELL_CAPACITY = 4;
+
+    /**
+     * The length of each side of a cell.
+     */
+    private final int cellSize;
+
+    /**
+     * The pizzas of each cell holding any, by packed cell coordinates.
+     */
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    /**
+     * The packed coordinates of the cell of each pizza indexed.
+     */
+    private final Map<Pizza, Long> cellOf = new IdentityHashMap<>();
+
+    /**
+     * The greatest width of any pizza ever indexed.
+     */
+    private int maxWidth = 0;
+
+    /**
+     * The greatest height of any pizza ever indexed.
+     */
+    private int maxHeight = 0;
+
+    /**
+     * The least x cell coordinate ever used.
+     */
+    private int minCellX = Integer.MAX_VALUE;
+
+    /**
+     * The least y cell coordinate ever used.
+     */
+    private int minCellY = Integer.MAX_VALUE;
+
+    /**
+     * The greatest x cell coordinate ever used.
+     */
+    private int maxCellX = Integer.MIN_VALUE;
+
+    /**
+     * The greatest y cell coordinate ever used.
+     */
+    private int maxCellY = Integer.MIN_VALUE;
+
+    /**
+     * The pizzas whose centers lie in one cell.
+     */
+    private static final class Cell {
+
+        Pizza[] pizzas = new Pizza[CELL_CAPACITY];
+
+        int size = 0;
+
+    }
+
+    /**
+     * Constructs an empty index of cells of the given size.
+     *
+     * Given a size which is not positive, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param cellSize The length of each side of a cell, best near the
+     *                 distance between neighboring pizzas.
+     */
+    public SpatialIndex(int cellSize) {
+        if(cellSize <= 0) {
+            throw new PizzaException("Cannot index pizzas in cells of size " +
+                                     cellSize + ".");
+        }
+
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Indexes the given pizza where it lies now. A pizza already indexed is
+     * left alone.
+     *
+     * Given a <code>null</code> pizza, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param pizza The pizza to index.
+     */
+    public void add(Pizza pizza) {
+        if(pizza == null) {
+            throw new PizzaException("Cannot index a null Pizza.");
+        }
+
+        if(cellOf.containsKey(pizza)) {
+            return;
+        }
+
+        Shape shape = pizza.getShape();
+        int   cellX = cell(centerOf(shape.getLeft(), shape.getRight()));
+        int   cellY = cell(centerOf(shape.getTop(), shape.getBottom()));
+        long  key   = pack(cellX, cellY);
+        Cell  cell  = cells.computeIfAbsent(key, unused -> new Cell());
+
+        if(cell.size == cell.pizzas.length) {
+            cell.pizzas = Arrays.copyOf(cell.pizzas, cell.size * 2);
+        }
+
+        cell.pizzas[cell.size++] = pizza;
+        cellOf.put(pizza, key);
+
+        maxWidth  = Math.max(maxWidth, shape.getRight() - shape.getLeft());
+        maxHeight = Math.max(maxHeight, shape.getBottom() - shape.getTop());
+        minCellX  = Math.min(minCellX, cellX);
+        minCellY  = Math.min(minCellY, cellY);
+        maxCellX  = Math.max(maxCellX, cellX);
+        maxCellY  = Math.max(maxCellY, cellY);
+    }
+
+    /**
+     * Removes the given pizza from the index.
+     *
+     * @param pizza The pizza to remove.
+     *
+     * @return <code>true</code> if the pizza was indexed.
+     */
+    public boolean remove(Pizza pizza) {
+        Long key = cellOf.remove(pizza);
+
+        if(key == null) {
+            return false;
+        }
+
+        Cell cell = cells.get(key);
+
+        for(int index = 0; index < cell.size; index++) {
+            if(cell.pizzas[index] == pizza) {
+                cell.pizzas[index]     = cell.pizzas[--cell.size];
+                cell.pizzas[cell.size] = null;
+                break;
+            }
+        }
+
+        if(cell.size == 0) {
+            cells.remove(key);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The number of pizzas indexed.
+     */
+    public int size() {
+        return cellOf.size();
+    }
+
+    /**
+     * Finds the pizza whose center is nearest the given point.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     *
+     * @return The nearest pizza, or <code>null</code> if none are indexed.
+     */
+    public Pizza nearest(int x, int y) {
+        if(cellOf.isEmpty()) {
+            return null;
+        }
+
+        int    cellX    = cell(x);
+        int    cellY    = cell(y);
+        Pizza  best     = null;
+        double bestDist = Double.POSITIVE_INFINITY;
+
+        // Rings nearer than the box of cells ever used hold nothing, so
+        // start from the first ring reaching it, however far off the point.
+        long firstRing = Math.max(Math.max(minCellX - (long) cellX,
+                                           cellX - (long) maxCellX),
+                                  Math.max(minCellY - (long) cellY,
+                                           cellY - (long) maxCellY));
+
+        // No ring past the furthest cell ever used can hold a pizza.
+        long lastRing = Math.max(Math.max((long) cellX - minCellX,
+                                          (long) maxCellX - cellX),
+                                 Math.max((long) cellY - minCellY,
+                                          (long) maxCellY - cellY));
+
+        for(long ring = Math.max(0, firstRing); ring <= lastRing; ring++) {
+            // Every pizza not yet seen lies at least this far away.
+            double reach = reach(x, y, cellX, cellY, ring);
+
+            if(best != null && bestDist <= reach * reach) {
+                break;
+            }
+
+            // Visit only the cells of the ring inside the box.
+            long fromY = Math.max(-ring, minCellY - (long) cellY);
+            long toY   = Math.min(ring, maxCellY - (long) cellY);
+            long fromX = Math.max(-ring, minCellX - (long) cellX);
+            long toX   = Math.min(ring, maxCellX - (long) cellX);
+
+            for(long dy = fromY; dy <= toY; dy++) {
+                // Only the first and last rows of a ring take every column.
+                boolean edge = dy == -ring || dy == ring;
+
+                for(long dx = fromX; dx <= toX; dx++) {
+                    if(!edge && dx != -ring && dx != ring) {
+                        // Jump across the inside of the ring.
+                        if(dx < ring) {
+                            dx = ring - 1;
+                        }
+
+                        continue;
+                    }
+
+                    Cell cell = cellAt(cellX + dx, cellY + dy);
+
+                    if(cell == null) {
+                        continue;
+                    }
+
+                    for(int index = 0; index < cell.size; index++) {
+                        Shape  shape = cell.pizzas[index].getShape();
+                        double far   = distanceSquared(shape, x, y);
+
+                        if(far < bestDist) {
+                            best     = cell.pizzas[index];
+                            bestDist = far;
+                        }
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Finds every pizza whose bounds overlap the given region, edges
+     * included.
+     *
+     * @param left The least x coordinate of the region.
+     * @param top The least y coordinate of the region.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     *
+     * @return The pizzas overlapping the region, in no particular order.
+     */
+    public Pizza[] inRegion(int left, int top, int width, int height) {
+        long right  = (long) left + width;
+        long bottom = (long) top + height;
+
+        // A pizza overlapping the region has its center within half of the
+        // widest and tallest pizza of it.
+        int fromX = cell(left - (long) (maxWidth + 1) / 2);
+        int toX   = cell(right + (long) (maxWidth + 1) / 2);
+        int fromY = cell(top - (long) (maxHeight + 1) / 2);
+        int toY   = cell(bottom + (long) (maxHeight + 1) / 2);
+
+        ArrayList<Pizza> found = new ArrayList<>();
+
+        if(((long) toX - fromX + 1) * ((long) toY - fromY + 1) >
+           cells.size()) {
+            // The region covers more cells than hold pizzas.
+            for(Cell cell : cells.values()) {
+                collect(cell, left, top, right, bottom, found);
+            }
+        } else {
+            for(int cellY = fromY; cellY <= toY; cellY++) {
+                for(int cellX = fromX; cellX <= toX; cellX++) {
+                    Cell cell = cells.get(pack(cellX, cellY));
+
+                    if(cell != null) {
+                        collect(cell, left, top, right, bottom, found);
+                    }
+                }
+            }
+        }
+
+        Pizza[] retVal = new Pizza[found.size()];
+
+        for(int index = 0; index < retVal.length; index++) {
+            retVal[index] = found.get(index);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Adds to <code>found</code> every pizza of the given cell whose bounds
+     * overlap the given region.
+     */
+    private static void collect(Cell cell, long left, long top, long right,
+                                long bottom, ArrayList<Pizza> found) {
+        for(int index = 0; index < cell.size; index++) {
+            Shape shape = cell.pizzas[index].getShape();
+
+            if(shape.getLeft() <= right && shape.getRight() >= left &&
+               shape.getTop() <= bottom && shape.getBottom() >= top) {
+                found.add(cell.pizzas[index]);
+            }
+        }
+    }
+
+    /**
+     * Returns the distance from the given point, in the given cell, to the
+     * nearest cell inside the box of cells ever used but outside the
+     * square of cells within <code>ring - 1</code> of that cell. No pizza
+     * not yet seen by the time <code>ring</code> is searched is any nearer.
+     */
+    private double reach(int x, int y, int cellX, int cellY, long ring) {
+        if(ring == 0) {
+            return distance(x, y, minCellX, maxCellX, minCellY, maxCellY);
+        }
+
+        double retVal = Double.POSITIVE_INFINITY;
+
+        // The box less the square is at most four strips, one per side.
+        if(cellX - ring >= minCellX) {
+            retVal = Math.min(retVal, distance(x, y, minCellX, cellX - ring,
+                                               minCellY, maxCellY));
+        }
+
+        if(cellX + ring <= maxCellX) {
+            retVal = Math.min(retVal, distance(x, y, cellX + ring, maxCellX,
+                                               minCellY, maxCellY));
+        }
+
+        if(cellY - ring >= minCellY) {
+            retVal = Math.min(retVal, distance(x, y, minCellX, maxCellX,
+                                               minCellY, cellY - ring));
+        }
+
+        if(cellY + ring <= maxCellY) {
+            retVal = Math.min(retVal, distance(x, y, minCellX, maxCellX,
+                                               cellY + ring, maxCellY));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The distance from the given point to the nearest point of
+     *         the given block of cells, edges included.
+     */
+    private double distance(int x, int y, long fromCellX, long toCellX,
+                            long fromCellY, long toCellY) {
+        double dx = Math.max(0, Math.max((double) fromCellX * cellSize - x,
+                                         x - (double) (toCellX + 1) *
+                                             cellSize));
+        double dy = Math.max(0, Math.max((double) fromCellY * cellSize - y,
+                                         y - (double) (toCellY + 1) *
+                                             cellSize));
+
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * @return The cell at the given cell coordinates, or <code>null</code>
+     *         if it holds no pizzas or lies outside of the plane.
+     */
+    private Cell cellAt(long cellX, long cellY) {
+        if(cellX < minCellX || cellX > maxCellX ||
+           cellY < minCellY || cellY > maxCellY) {
+            return null;
+        }
+
+        return cells.get(pack((int) cellX, (int) cellY));
+    }
+
+    /**
+     * @return The cell coordinate holding the given plane coordinate.
+     */
+    private int cell(long coordinate) {
+        long cell = Math.floorDiv(coordinate, cellSize);
+        return (int) Math.max(Integer.MIN_VALUE,
+                              Math.min(Integer.MAX_VALUE, cell));
+    }
+
+    /**
+     * @return The center between the given coordinates, rounded down.
+     */
+    private static long centerOf(int low, int high) {
+        return Math.floorDiv((long) low + high, 2);
+    }
+
+    /**
+     * @return The squared distance from the center of the given shape's
+     *         bounds to the given point.
+     */
+    private static double distanceSquared(Shape shape, int x, int y) {
+        double dx = (shape.getLeft() + (double) shape.getRight()) / 2 - x;
+        double dy = (shape.getTop() + (double) shape.getBottom()) / 2 - y;
+
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @return The given cell coordinates packed into one <code>long</code>.
+     */
+    private static long pack(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+}
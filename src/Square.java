@@ -0,0 +1,181 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * This class represents a basic Square as a child of <code>Shape</code>.
+ * 
+ * As a child of <code>Shape</code>, every <code>Square</code> object
+ * has its own coordinate pair to represent the top left corner of itself on
+ * the 2D plane, its own <code>java.awt.Color</code> object for its fill
+ * color, and, though unique to the <code>Square</code> class, a side length.
+ * 
+ * @author Trystan Cannon
+ */
+public final class Square extends Shape {
+    
+    /**
+     * The length of each side, in pixels, used when drawing the
+     * <code>Square</code> object.
+     */
+    private int side = 0;
+    
+    /**
+     * The area of this square, computed whenever the side length is set so
+     * that <code>getArea</code> does no arithmetic.
+     */
+    private double area = 0;
+    
+    /**
+     * Constructs a new <code>Square</code> object with the given coordinates
+     * as its top left corner, the given side length, and the default color
+     * set by <code>Shape.DEFAULT_COLOR</code>.
+     * 
+     * @param x The x coordinate of the square's top left corner.
+     * @param y The y coordinate of the square's top left corner.
+     * @param side The length of each side of the square.
+     */
+    public Square(int x, int y, int side) {
+        super(x, y);
+        setSide(side);
+    }
+    
+    /**
+     * Constructs a new <code>Square</code> object with the given
+     * coordinates, side length, and color.
+     * 
+     * @param x The x coordinate of the square's top left corner.
+     * @param y The y coordinate of the square's top left corner.
+     * @param c The outline and fill color of the square for use in drawing.
+     * @param side The length of each side of the square.
+     */
+    public Square(int x, int y, Color c, int side) {
+        super(x, y, c);
+        setSide(side);
+    }
+    
+    /**
+     * Sets the side length of this square to the given value.
+     * 
+     * Given an illegal value, <code>side <= 0</code>, this method
+     * will throw a <code>RuntimeException</code>, detailing this error.
+     * 
+     * @param side The new side length for the square.
+     */
+    public void setSide(int side) {
+        if(side <= 0) {
+            throw new RuntimeException("Cannot create a square with side " +
+                                       "<= 0.");
+        }
+        
+        this.side = side;
+        this.area = ShapeAreas.area(ShapeAreas.SQUARE, side, side);
+    }
+    
+    /**
+     * Returns the current side length of this square.
+     * 
+     * @return The current side length of this square.
+     */
+    public int getSide() {
+        return side;
+    }
+    
+    /**
+     * Returns the area of this square, <code>side^2</code>, as computed
+     * when the side length was last set.
+     * 
+     * @return The current area of this square.
+     */
+    @Override
+    public double getArea() {
+        return area;
+    }
+    
+    /**
+     * Draws this square, filled with its color, at its coordinates.
+     * 
+     * @param g The graphics object used to draw the square.
+     */
+    @Override
+    public void draw(Graphics g) {
+        g.setColor(getFillColor());
+        g.fillRect(getX(), getY(), side, side);
+    }
+    
+    /**
+     * @return The outline of this square.
+     */
+    @Override
+    java.awt.Shape getOutline() {
+        return new Rectangle2D.Double(getX(), getY(), side, side);
+    }
+    
+    /**
+     * @return The least x coordinate covered by this square.
+     */
+    @Override
+    public int getLeft() {
+        return getX();
+    }
+    
+    /**
+     * @return The least y coordinate covered by this square.
+     */
+    @Override
+    public int getTop() {
+        return getY();
+    }
+    
+    /**
+     * @return The greatest x coordinate covered by this square.
+     */
+    @Override
+    public int getRight() {
+        return getX() + side;
+    }
+    
+    /**
+     * @return The greatest y coordinate covered by this square.
+     */
+    @Override
+    public int getBottom() {
+        return getY() + side;
+    }
+    
+    /**
+     * @return <code>ShapeAreas.SQUARE</code>.
+     */
+    @Override
+    byte getKind() {
+        return ShapeAreas.SQUARE;
+    }
+    
+    /**
+     * @return The side length, as the first dimension of a square.
+     */
+    @Override
+    double getFirstDimension() {
+        return side;
+    }
+    
+    /**
+     * @return The side length, as the second dimension of a square.
+     */
+    @Override
+    double getSecondDimension() {
+        return side;
+    }
+    
+    /**
+     * Creates and returns an identical yet independent copy of this
+     * <code>Square</code> object.
+     *
+     * @return An identical yet independent copy of this square.
+     */
+    @Override
+    public Square clone() {
+        return new Square(getX(), getY(), getColor(), side);
+    }
+    
+}
@@ -0,0 +1,117 @@
+import java.util.Comparator;
+
+/**
+ * This class keeps the k best pizzas of a changing list up to date as
+ * pizzas are added, eaten, and removed, so that asking for them does not
+ * mean looking at every pizza again.
+ *
+ * The owner of the list must call <code>added</code>, <code>changed</code>,
+ * and <code>removed</code> as the list changes. Most changes are handled
+ * by a <code>TopK</code> without looking at the list, in O(k) at worst to
+ * find whether the pizza is kept:
+ *     - an added pizza, or a changed pizza which is not kept, is offered
+ *     - a kept pizza which changed but still ranks no worse than the worst
+ *       pizza kept is moved within the heap
+ *
+ * The pizzas not kept are not remembered, so when a kept pizza is removed,
+ * or changes to rank worse than the worst pizza kept, one of them may now
+ * belong in its place. The best k are then found again from the whole list
+ * in O(n log k), but only the next time they are asked for.
+ *
+ * @author Trystan Cannon
+ */
+public class StreamingTopK {
+
+    /**
+     * The list whose best pizzas are kept.
+     */
+    private final ArrayList<Pizza> pizzas;
+
+    /**
+     * The best pizzas, when <code>stale</code> is <code>false</code>.
+     */
+    private final TopK best;
+
+    /**
+     * Whether <code>best</code> must be found again from the list.
+     */
+    private boolean stale = true;
+
+    /**
+     * Constructs a tracker of the k best pizzas of the given list.
+     *
+     * @param pizzas The list whose best pizzas are kept.
+     * @param k The number of pizzas to keep.
+     * @param order The order in which pizzas are ranked, best first.
+     */
+    public StreamingTopK(ArrayList<Pizza> pizzas, int k,
+                         Comparator<Pizza> order) {
+        this.pizzas = pizzas;
+        this.best   = new TopK(k, order);
+    }
+
+    /**
+     * Considers a pizza just added to the list.
+     *
+     * @param pizza The pizza added.
+     */
+    public void added(Pizza pizza) {
+        if(!stale) {
+            best.offer(pizza);
+        }
+    }
+
+    /**
+     * Considers a pizza of the list whose rank may have changed, such as
+     * one which was eaten from.
+     *
+     * @param pizza The pizza which changed.
+     */
+    public void changed(Pizza pizza) {
+        if(stale) {
+            return;
+        }
+
+        int index = best.indexOf(pizza);
+
+        if(index == -1) {
+            best.offer(pizza);
+        } else if(index == 0 ||
+                  best.getOrder().compare(pizza, best.worst()) > 0) {
+            // Every pizza not kept ranks no better than the worst one kept,
+            // so only a pizza still ranking no worse than it may stay.
+            stale = true;
+        } else {
+            best.update(index);
+        }
+    }
+
+    /**
+     * Considers a pizza just removed from the list.
+     *
+     * @param pizza The pizza removed.
+     */
+    public void removed(Pizza pizza) {
+        if(!stale && best.indexOf(pizza) != -1) {
+            stale = true;
+        }
+    }
+
+    /**
+     * @return The best pizzas of the list, best first.
+     */
+    public Pizza[] get() {
+        if(stale) {
+            best.clear();
+
+            for(int index = 0; index < pizzas.size(); index++) {
+                best.offer(pizzas.get(index));
+            }
+
+            stale = false;
+        }
+
+        return best.toArray();
+    }
+
+}
@@ -0,0 +1,226 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class keeps the k best pizzas seen so far under some order, where
+ * "best" means least: the k cheapest under <code>PizzaKey.PRICE</code>, or
+ * the k largest under <code>PizzaKey.SIZE.reversed()</code>.
+ *
+ * The pizzas kept are held in a binary heap whose root is the worst of
+ * them. A new pizza only needs to be compared against the root to be
+ * turned away, and otherwise replaces it and is sifted down, so offering n
+ * pizzas costs O(n log k) rather than the O(n log n) of sorting them all,
+ * and only k pizzas are ever held.
+ *
+ * @author Trystan Cannon
+ */
+public class TopK {
+
+    /**
+     * The order in which pizzas are ranked, least (best) first.
+     */
+    private final Comparator<Pizza> order;
+
+    /**
+     * The heap of pizzas kept, in which every pizza ranks no better than
+     * its children; <code>heap[0]</code> is the worst pizza kept.
+     */
+    private final Pizza[] heap;
+
+    /**
+     * The number of pizzas kept.
+     */
+    private int size = 0;
+
+    /**
+     * Constructs an empty collection keeping at most the given number of
+     * pizzas.
+     *
+     * Given a negative <code>k</code> or a <code>null</code> order, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param k The number of pizzas to keep.
+     * @param order The order in which pizzas are ranked, best first.
+     */
+    public TopK(int k, Comparator<Pizza> order) {
+        if(k < 0) {
+            throw new PizzaException("Cannot keep " + k + " pizzas.");
+        } else if(order == null) {
+            throw new PizzaException("Cannot rank pizzas in a null order.");
+        }
+
+        this.order = order;
+        this.heap  = new Pizza[k];
+    }
+
+    /**
+     * Finds the k best pizzas of the given list under the given order in
+     * O(n log k), without changing the list.
+     *
+     * @param pizzas The pizzas to choose from.
+     * @param k The number of pizzas to choose.
+     * @param order The order in which pizzas are ranked, best first.
+     *
+     * @return The best <code>min(k, pizzas.size())</code> pizzas, best
+     *         first.
+     */
+    public static Pizza[] select(ArrayList<Pizza> pizzas, int k,
+                                 Comparator<Pizza> order) {
+        TopK best = new TopK(k, order);
+
+        for(int index = 0; index < pizzas.size(); index++) {
+            best.offer(pizzas.get(index));
+        }
+
+        return best.toArray();
+    }
+
+    /**
+     * @return The number of pizzas to keep.
+     */
+    public int getK() {
+        return heap.length;
+    }
+
+    /**
+     * @return The order in which pizzas are ranked, best first.
+     */
+    public Comparator<Pizza> getOrder() {
+        return order;
+    }
+
+    /**
+     * @return The number of pizzas kept, at most <code>getK()</code>.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Keeps the given pizza if fewer than k pizzas are kept or it ranks
+     * better than the worst of them, which it then replaces.
+     *
+     * @param pizza The pizza to consider.
+     *
+     * @return <code>true</code> if the pizza was kept.
+     */
+    public boolean offer(Pizza pizza) {
+        if(size < heap.length) {
+            heap[size] = pizza;
+            siftUp(size++);
+            return true;
+        }
+
+        if(size == 0 || order.compare(pizza, heap[0]) >= 0) {
+            return false;
+        }
+
+        heap[0] = pizza;
+        siftDown(0);
+
+        return true;
+    }
+
+    /**
+     * @return The worst pizza kept, or <code>null</code> if none are.
+     */
+    public Pizza worst() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Finds where the given pizza is held in the heap, comparing by
+     * identity. This takes O(k), which is small next to the pizzas
+     * offered.
+     *
+     * @param pizza The pizza to find.
+     *
+     * @return The index of the pizza in the heap, or <code>-1</code> if it
+     *         is not kept.
+     */
+    int indexOf(Pizza pizza) {
+        for(int index = 0; index < size; index++) {
+            if(heap[index] == pizza) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Restores the heap after the pizza at the given index changed rank.
+     *
+     * @param index The index of the pizza which changed.
+     */
+    void update(int index) {
+        siftUp(index);
+        siftDown(index);
+    }
+
+    /**
+     * Forgets every pizza kept.
+     */
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return The pizzas kept, best first.
+     */
+    public Pizza[] toArray() {
+        Pizza[] retVal = Arrays.copyOf(heap, size);
+        Arrays.sort(retVal, order);
+
+        return retVal;
+    }
+
+    /**
+     * Moves the pizza at the given index toward the root while it ranks
+     * worse than its parent.
+     */
+    private void siftUp(int index) {
+        Pizza pizza = heap[index];
+
+        while(index > 0) {
+            int parent = (index - 1) / 2;
+
+            if(order.compare(pizza, heap[parent]) <= 0) {
+                break;
+            }
+
+            heap[index] = heap[parent];
+            index       = parent;
+        }
+
+        heap[index] = pizza;
+    }
+
+    /**
+     * Moves the pizza at the given index away from the root while one of
+     * its children ranks worse than it.
+     */
+    private void siftDown(int index) {
+        Pizza pizza = heap[index];
+
+        while(2 * index + 1 < size) {
+            int child = 2 * index + 1;
+
+            if(child + 1 < size &&
+               order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+
+            if(order.compare(pizza, heap[child]) >= 0) {
+                break;
+            }
+
+            heap[index] = heap[child];
+            index       = child;
+        }
+
+        heap[index] = pizza;
+    }
+
+}
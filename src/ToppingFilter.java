@@ -0,0 +1,131 @@
+/**
+ * This class is a predicate over the toppings of a pizza: every topping it
+ * includes must be on the pizza, and no topping it excludes may be.
+ *
+ * Both sets of toppings are kept as bits of a <code>long</code>, numbered by
+ * <code>IngredientCatalog</code>, so testing a pizza's
+ * <code>getToppingMask</code> takes two bitwise operations however many
+ * toppings are named.
+ *
+ * @author Trystan Cannon
+ */
+public final class ToppingFilter {
+
+    /**
+     * The bits of the toppings which must be on a pizza.
+     */
+    private final long include;
+
+    /**
+     * The bits of the toppings which must not be on a pizza.
+     */
+    private final long exclude;
+
+    /**
+     * Constructs a filter of the given sets of toppings.
+     *
+     * Given a topping both included and excluded, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     *
+     * @param include The bits of the toppings which must be on a pizza.
+     * @param exclude The bits of the toppings which must not be on a pizza.
+     */
+    public ToppingFilter(long include, long exclude) {
+        if((include & exclude) != 0) {
+            throw new PizzaException("A topping cannot be both included and " +
+                                     "excluded.");
+        }
+
+        this.include = include;
+        this.exclude = exclude;
+    }
+
+    /**
+     * Parses a filter from the given topping names, such as
+     * <code>"pepperoni"</code>, each of which is included unless it begins
+     * with a <code>'-'</code>, as in <code>"-olive"</code>.
+     *
+     * Given a name of no known topping, a <code>PizzaException</code> is
+     * thrown detailing the error.
+     *
+     * @param names The names of the toppings.
+     *
+     * @return The filter.
+     */
+    public static ToppingFilter parse(String... names) {
+        long include = 0;
+        long exclude = 0;
+
+        for(String name : names) {
+            if(name.startsWith("-")) {
+                exclude |= 1L << IngredientCatalog.parse(name.substring(1));
+            } else {
+                include |= 1L << IngredientCatalog.parse(name);
+            }
+        }
+
+        return new ToppingFilter(include, exclude);
+    }
+
+    /**
+     * @return The bits of the toppings which must be on a pizza.
+     */
+    public long getInclude() {
+        return include;
+    }
+
+    /**
+     * @return The bits of the toppings which must not be on a pizza.
+     */
+    public long getExclude() {
+        return exclude;
+    }
+
+    /**
+     * @param toppingMask The bits of the toppings of a pizza.
+     *
+     * @return <code>true</code> if a pizza with the given toppings passes.
+     */
+    public boolean matches(long toppingMask) {
+        return (toppingMask & include) == include &&
+               (toppingMask & exclude) == 0;
+    }
+
+    /**
+     * @param pizza A pizza.
+     *
+     * @return <code>true</code> if the pizza passes.
+     */
+    public boolean matches(Pizza pizza) {
+        return matches(pizza.getToppingMask());
+    }
+
+    /**
+     * Returns the names of the toppings of this filter, those excluded
+     * prefixed by <code>'-'</code>, such as <code>"pepperoni -olive"</code>.
+     *
+     * @return The filter as it would be parsed.
+     */
+    @Override
+    public String toString() {
+        String retVal = "";
+
+        for(long ids = include; ids != 0; ids &= ids - 1) {
+            retVal += " " + nameOf(Long.numberOfTrailingZeros(ids));
+        }
+
+        for(long ids = exclude; ids != 0; ids &= ids - 1) {
+            retVal += " -" + nameOf(Long.numberOfTrailingZeros(ids));
+        }
+
+        return retVal.isEmpty() ? "anything" : retVal.substring(1);
+    }
+
+    /**
+     * @return The name of the topping with the given ID, in lower case.
+     */
+    private static String nameOf(int id) {
+        return IngredientCatalog.nameOf(id).toLowerCase();
+    }
+
+}
@@ -0,0 +1,168 @@
+import java.util.Arrays;
+
+/**
+ * This class is a bitmap index of the toppings of a list of pizzas: for
+ * each kind of ingredient, one bit per pizza telling whether that pizza has
+ * it, packed 64 pizzas to a <code>long</code>.
+ *
+ * A <code>ToppingFilter</code> is then evaluated over the whole list a word
+ * at a time, ANDing the bitmaps of the toppings it includes and masking out
+ * those it excludes, so 64 pizzas are tested with a handful of operations
+ * and without looking at a single pizza.
+ *
+ * The index describes the list as it was when built, by position; once
+ * pizzas are added, removed, or reordered, it must be built again.
+ *
+ * @author Trystan Cannon
+ */
+public class ToppingIndex {
+
+    /**
+     * The number of pizzas indexed.
+     */
+    private final int size;
+
+    /**
+     * The bitmap of each type ID, or <code>null</code> for a type on no
+     * pizza.
+     */
+    private final long[][] bitmaps = new long[IngredientCatalog.MAX_TYPES][];
+
+    /**
+     * Builds the index of the given pizzas.
+     *
+     * @param pizzas The pizzas to index, by position.
+     */
+    public ToppingIndex(ArrayList<Pizza> pizzas) {
+        size = pizzas.size();
+
+        int words = wordsFor(size);
+
+        for(int index = 0; index < size; index++) {
+            long mask = pizzas.get(index).getToppingMask();
+
+            while(mask != 0) {
+                int id = Long.numberOfTrailingZeros(mask);
+
+                if(bitmaps[id] == null) {
+                    bitmaps[id] = new long[words];
+                }
+
+                bitmaps[id][index >>> 6] |= 1L << index;
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    /**
+     * @return The number of pizzas indexed.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds every pizza passing the given filter.
+     *
+     * @param filter The filter.
+     *
+     * @return A bitmap with bit <code>n</code> set if the pizza at index
+     *         <code>n</code> passes.
+     */
+    public long[] select(ToppingFilter filter) {
+        int    words  = wordsFor(size);
+        long[] retVal = new long[words];
+        long   ids    = filter.getInclude();
+
+        if(ids == 0) {
+            Arrays.fill(retVal, -1L);
+
+            // Clear the bits past the last pizza.
+            if(size % Long.SIZE != 0) {
+                retVal[words - 1] = (1L << size) - 1;
+            }
+        } else {
+            int first = Long.numberOfTrailingZeros(ids);
+
+            if(bitmaps[first] == null) {
+                return retVal;
+            }
+
+            System.arraycopy(bitmaps[first], 0, retVal, 0, words);
+
+            for(ids &= ids - 1; ids != 0; ids &= ids - 1) {
+                long[] bitmap = bitmaps[Long.numberOfTrailingZeros(ids)];
+
+                if(bitmap == null) {
+                    return new long[words];
+                }
+
+                for(int word = 0; word < words; word++) {
+                    retVal[word] &= bitmap[word];
+                }
+            }
+        }
+
+        for(ids = filter.getExclude(); ids != 0; ids &= ids - 1) {
+            long[] bitmap = bitmaps[Long.numberOfTrailingZeros(ids)];
+
+            if(bitmap == null) {
+                continue;
+            }
+
+            for(int word = 0; word < words; word++) {
+                retVal[word] &= ~bitmap[word];
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @param selected A bitmap given by <code>select</code>.
+     *
+     * @return The number of pizzas selected.
+     */
+    public static int count(long[] selected) {
+        int retVal = 0;
+
+        for(long word : selected) {
+            retVal += Long.bitCount(word);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Lists the indexes of the first pizzas selected, least first.
+     *
+     * @param selected A bitmap given by <code>select</code>.
+     * @param limit The most indexes to list.
+     *
+     * @return The indexes of at most <code>limit</code> pizzas selected.
+     */
+    public static int[] indexes(long[] selected, int limit) {
+        int[] retVal = new int[Math.min(limit, count(selected))];
+        int   found  = 0;
+
+        for(int word = 0; word < selected.length && found < retVal.length;
+            word++) {
+            for(long bits = selected[word]; bits != 0 && found < retVal.length;
+                bits &= bits - 1) {
+                retVal[found++] = word * Long.SIZE +
+                                  Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The number of <code>long</code>s holding a bit for each of the
+     *         given number of pizzas.
+     */
+    private static int wordsFor(int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+}
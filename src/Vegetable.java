@@ -0,0 +1,40 @@
+import java.awt.Color;
+
+/**
+ * This class serves as an intermediate parent between <code>Ingredient</code>
+ * and any vegetable <code>Ingredient</code>, such as <code>Pepper</code> or
+ * <code>Olive</code>.
+ * 
+ * Unlike the other kinds of ingredient, each vegetable also has a color,
+ * listed in the catalog, which is used when drawing it on a pizza.
+ * 
+ * @author Trystan Cannon
+ */
+public abstract class Vegetable extends Ingredient {
+    
+    /**
+     * Constructs a vegetable of the kind with the given ID, whose
+     * characteristics are read from the <code>IngredientCatalog</code>.
+     * 
+     * Given an ID of no kind, or of a kind which is not a vegetable, a
+     * <code>PizzaException</code> is thrown detailing the error.
+     * 
+     * @param typeId The ID of the kind of vegetable.
+     */
+    protected Vegetable(int typeId) {
+        super(typeId, IngredientCategory.VEGETABLE);
+    }
+    
+    /**
+     * Returns the color of this vegetable.
+     * 
+     * No copying is done in this method because <code>Color</code> is
+     * immutable.
+     * 
+     * @return The color of this vegetable.
+     */
+    public Color getColor() {
+        return IngredientCatalog.getColor(getTypeId());
+    }
+    
+}